@@ -85,4 +85,19 @@ public class AddressController {
                 HttpStatus.OK
         );
     }
+
+    @GetMapping("/visitor/nearby")
+    public ResponseEntity<StandardResponseDto> findNearby(
+            @RequestParam double latitude,
+            @RequestParam double longitude,
+            @RequestParam(required = false) Double radiusKm,
+            @RequestParam(defaultValue = "10") int limit) {
+        return new ResponseEntity<>(
+                new StandardResponseDto(
+                        200, "Nearby branches found!",
+                        addressService.findNearby(latitude, longitude, radiusKm, Math.min(limit, 100))
+                ),
+                HttpStatus.OK
+        );
+    }
 }
\ No newline at end of file
@@ -0,0 +1,69 @@
+package com.cpd.hotel_system.hotel_management_service_api.api;
+
+import com.cpd.hotel_system.hotel_management_service_api.dto.request.RequestRoomHoldDto;
+import com.cpd.hotel_system.hotel_management_service_api.service.AvailabilityService;
+import com.cpd.hotel_system.hotel_management_service_api.util.StandardResponseDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/hotel-management/api/v1/availability")
+public class AvailabilityController {
+    private final AvailabilityService availabilityService;
+
+    @PostMapping("/user/hold")
+    public ResponseEntity<StandardResponseDto> hold(
+            @RequestBody RequestRoomHoldDto dto) {
+        availabilityService.hold(dto);
+        return new ResponseEntity<>(
+                new StandardResponseDto(
+                        201, "Room held!", null
+                ),
+                HttpStatus.CREATED
+        );
+    }
+
+    @PostMapping("/user/release")
+    public ResponseEntity<StandardResponseDto> release(
+            @RequestBody RequestRoomHoldDto dto) {
+        availabilityService.release(dto);
+        return new ResponseEntity<>(
+                new StandardResponseDto(
+                        200, "Room released!", null
+                ),
+                HttpStatus.OK
+        );
+    }
+
+    @GetMapping("/visitor/check/{roomId}")
+    public ResponseEntity<StandardResponseDto> isFree(
+            @PathVariable("roomId") String roomId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkIn,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOut) {
+        return new ResponseEntity<>(
+                new StandardResponseDto(
+                        200, "Room availability!", availabilityService.isFree(roomId, checkIn, checkOut)
+                ),
+                HttpStatus.OK
+        );
+    }
+
+    @GetMapping("/visitor/free-rooms/{branchId}")
+    public ResponseEntity<StandardResponseDto> findFreeRooms(
+            @PathVariable("branchId") String branchId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkIn,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOut) {
+        return new ResponseEntity<>(
+                new StandardResponseDto(
+                        200, "Free rooms!", availabilityService.findFreeRooms(branchId, checkIn, checkOut)
+                ),
+                HttpStatus.OK
+        );
+    }
+}
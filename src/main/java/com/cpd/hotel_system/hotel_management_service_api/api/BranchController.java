@@ -78,9 +78,20 @@ public class BranchController {
     @GetMapping("/visitor/find-all")
     public ResponseEntity<StandardResponseDto> findAll(
             @RequestParam String searchText,
-            @RequestParam int page,
-            @RequestParam int size
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean withCount
     ) throws SQLException {
+        // Passing a cursor (empty for the first page) switches to keyset pagination
+        if (cursor != null) {
+            return new ResponseEntity<>(
+                    new StandardResponseDto(
+                            200, "Branch list!", branchService.findAllByCursor(cursor, size, searchText, withCount)
+                    ),
+                    HttpStatus.OK
+            );
+        }
         return new ResponseEntity<>(
                 new StandardResponseDto(
                         200, "Branch list!", branchService.findAll(page, size, searchText)
@@ -93,9 +104,21 @@ public class BranchController {
     public ResponseEntity<StandardResponseDto> findAllByHotelId(
             @PathVariable("hotelId") String hotelId,
             @RequestParam String searchText,
-            @RequestParam int page,
-            @RequestParam int size
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean withCount
     ) throws SQLException {
+        // Passing a cursor (empty for the first page) switches to keyset pagination
+        if (cursor != null) {
+            return new ResponseEntity<>(
+                    new StandardResponseDto(
+                            200, "Branch list by hotel!",
+                            branchService.findAllByHotelIdAndCursor(cursor, size, hotelId, searchText, withCount)
+                    ),
+                    HttpStatus.OK
+            );
+        }
         return new ResponseEntity<>(
                 new StandardResponseDto(
                         200, "Branch list by hotel!", branchService.findAllByHotelId(page, size, hotelId, searchText)
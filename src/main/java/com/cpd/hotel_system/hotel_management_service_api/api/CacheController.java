@@ -0,0 +1,27 @@
+package com.cpd.hotel_system.hotel_management_service_api.api;
+
+import com.cpd.hotel_system.hotel_management_service_api.config.CatalogCache;
+import com.cpd.hotel_system.hotel_management_service_api.util.StandardResponseDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/hotel-management/api/v1/cache")
+public class CacheController {
+    private final CatalogCache catalogCache;
+
+    @GetMapping("/admin/stats")
+    public ResponseEntity<StandardResponseDto> stats() {
+        return new ResponseEntity<>(
+                new StandardResponseDto(
+                        200, "Cache stats!", catalogCache.stats()
+                ),
+                HttpStatus.OK
+        );
+    }
+}
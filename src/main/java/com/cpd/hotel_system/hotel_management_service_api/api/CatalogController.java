@@ -0,0 +1,48 @@
+package com.cpd.hotel_system.hotel_management_service_api.api;
+
+import com.cpd.hotel_system.hotel_management_service_api.service.CatalogExportService;
+import com.cpd.hotel_system.hotel_management_service_api.service.CatalogImportService;
+import com.cpd.hotel_system.hotel_management_service_api.util.StandardResponseDto;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/hotel-management/api/v1/catalog")
+public class CatalogController {
+    private final CatalogImportService catalogImportService;
+    private final CatalogExportService catalogExportService;
+
+    // The body is read straight from the request stream, the file is never held in memory
+    @PostMapping("/admin/import")
+    public ResponseEntity<StandardResponseDto> importCatalog(
+            @RequestParam(defaultValue = "ndjson") String format,
+            HttpServletRequest request) throws IOException {
+        try (InputStream body = request.getInputStream()) {
+            return new ResponseEntity<>(
+                    new StandardResponseDto(
+                            200, "Catalog imported!", catalogImportService.importCatalog(body, format)
+                    ),
+                    HttpStatus.OK
+            );
+        }
+    }
+
+    // Written while the rows are read, the response is never buffered
+    @GetMapping("/admin/export")
+    public ResponseEntity<StreamingResponseBody> exportCatalog() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"catalog.ndjson\"")
+                .body(catalogExportService::exportCatalog);
+    }
+}
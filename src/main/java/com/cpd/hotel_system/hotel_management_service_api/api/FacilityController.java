@@ -75,12 +75,34 @@ public class FacilityController {
         );
     }
 
+    // Distinct facility names with the number of rooms having them, usable as search filters
+    @GetMapping("/visitor/catalog")
+    public ResponseEntity<StandardResponseDto> findCatalog() {
+        return new ResponseEntity<>(
+                new StandardResponseDto(
+                        200, "Facility catalog!", facilityService.findCatalog()
+                ),
+                HttpStatus.OK
+        );
+    }
+
     @GetMapping("/visitor/find-all")
     public ResponseEntity<StandardResponseDto> findAll(
             @RequestParam String roomId,
-            @RequestParam int page,
-            @RequestParam int size
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean withCount
     ) throws SQLException {
+        // Passing a cursor (empty for the first page) switches to keyset pagination
+        if (cursor != null) {
+            return new ResponseEntity<>(
+                    new StandardResponseDto(
+                            200, "Facility list!", facilityService.findAllByCursor(cursor, size, roomId, withCount)
+                    ),
+                    HttpStatus.OK
+            );
+        }
         return new ResponseEntity<>(
                 new StandardResponseDto(
                         200, "Facility list!", facilityService.findAll(page, size, roomId)
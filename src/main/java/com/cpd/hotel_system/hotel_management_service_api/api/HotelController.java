@@ -1,13 +1,20 @@
 package com.cpd.hotel_system.hotel_management_service_api.api;
 
 import com.cpd.hotel_system.hotel_management_service_api.dto.request.RequestHotelDto;
+import com.cpd.hotel_system.hotel_management_service_api.dto.response.ResponseHotelDescriptionDto;
+import com.cpd.hotel_system.hotel_management_service_api.enums.ContentEncoding;
+import com.cpd.hotel_system.hotel_management_service_api.service.HotelDescriptionService;
 import com.cpd.hotel_system.hotel_management_service_api.service.HotelService;
 import com.cpd.hotel_system.hotel_management_service_api.util.StandardResponseDto;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.sql.SQLException;
 
 @RequiredArgsConstructor
@@ -16,6 +23,7 @@ import java.sql.SQLException;
 public class HotelController {
 
     private final HotelService hotelService;
+    private final HotelDescriptionService hotelDescriptionService;
 
     @PostMapping("/user/create")
     public ResponseEntity<StandardResponseDto> create(
@@ -71,19 +79,77 @@ public class HotelController {
                 ), HttpStatus.OK);
     }
 
+    // The description alone, as text/plain. Sent still deflated to clients accepting deflate,
+    // inflated while it is written for the others.
+    @GetMapping("/visitor/description/{id}")
+    public void findDescription(
+            @PathVariable("id") String hotelId,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        ResponseHotelDescriptionDto description = hotelDescriptionService.find(hotelId);
+        boolean deflated = ContentEncoding.DEFLATE.name().equals(description.getEncoding());
+        boolean sendDeflated = deflated && acceptsDeflate(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+
+        response.setContentType("text/plain;charset=UTF-8");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (sendDeflated) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "deflate");
+            response.setContentLength(description.getContent().length);
+        } else {
+            response.setContentLengthLong(description.getContentLength());
+        }
+        if ("HEAD".equals(request.getMethod())) {
+            return;
+        }
+        if (sendDeflated) {
+            response.getOutputStream().write(description.getContent());
+        } else {
+            hotelDescriptionService.copy(description, response.getOutputStream());
+        }
+    }
+
     @GetMapping("/visitor/find-all")
     public ResponseEntity<StandardResponseDto> findAll(
-            @RequestParam int page,
+            @RequestParam(defaultValue = "0") int page,
             @RequestParam int size,
-            @RequestParam String searchText
+            @RequestParam String searchText,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean withCount
             ) throws SQLException {
 
+        // Passing a cursor (empty for the first page) switches to keyset pagination
+        if (cursor != null) {
+            return new ResponseEntity<>(
+                    new StandardResponseDto(
+                            200,"Hotel List....",hotelService.findAllByCursor(cursor,size,searchText,withCount)
+                    ), HttpStatus.OK);
+        }
+
         return new ResponseEntity<>(
                 new StandardResponseDto(
                         201,"Hotel List....",hotelService.findAll(page,size,searchText)
                 ), HttpStatus.OK);
     }
 
-
-
+    /**
+     * Helper method to tell whether an Accept-Encoding header allows deflate, a zero quality refuses it
+     */
+    private static boolean acceptsDeflate(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String candidate : acceptEncoding.split(",")) {
+            String[] parts = candidate.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("deflate")) {
+                for (int i = 1; i < parts.length; i++) {
+                    String parameter = parts[i].trim();
+                    if (parameter.startsWith("q=") && parameter.substring(2).matches("0(\\.0{0,3})?")) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
 }
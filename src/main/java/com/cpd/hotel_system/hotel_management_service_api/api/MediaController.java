@@ -0,0 +1,105 @@
+package com.cpd.hotel_system.hotel_management_service_api.api;
+
+import com.cpd.hotel_system.hotel_management_service_api.dto.response.ResponseMediaObjectDto;
+import com.cpd.hotel_system.hotel_management_service_api.service.MediaService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/hotel-management/api/v1/media")
+public class MediaController {
+    private final MediaService mediaService;
+
+    @Value("${catalog.media.cache-max-age}")
+    private Duration cacheMaxAge;
+
+    // Stored media by key, e.g. /visitor/media/<file name>. Written on the request thread straight from
+    // storage, with single byte ranges, If-None-Match and If-Range. Keys never change, so neither do responses.
+    @GetMapping("/visitor/{*key}")
+    public void download(
+            @PathVariable("key") String key,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        ResponseMediaObjectDto media = mediaService.find(key.startsWith("/") ? key.substring(1) : key);
+        long length = media.getContentLength();
+
+        response.setHeader(HttpHeaders.ETAG, media.getEtag());
+        response.setHeader(HttpHeaders.CACHE_CONTROL,
+                CacheControl.maxAge(cacheMaxAge).cachePublic().immutable().getHeaderValue());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), media.getEtag())) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        // A stale If-Range validator asks for the whole, current object
+        if (range != null && (ifRange == null || ifRange.trim().equals(media.getEtag()))) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(range);
+            } catch (IllegalArgumentException e) {
+                // A malformed Range header is ignored
+                ranges = List.of();
+            }
+            // Several ranges are answered with the whole object rather than a multipart body
+            if (ranges.size() == 1) {
+                try {
+                    start = ranges.get(0).getRangeStart(length);
+                    end = ranges.get(0).getRangeEnd(length);
+                } catch (IllegalArgumentException e) {
+                    start = length;
+                }
+                if (start >= length || start > end) {
+                    response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    return;
+                }
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        response.setContentType(media.getContentType());
+        response.setContentLengthLong(end - start + 1);
+        if ("HEAD".equals(request.getMethod())) {
+            return;
+        }
+        mediaService.copy(media, start, end - start + 1, response.getOutputStream());
+    }
+
+    /**
+     * Helper method to evaluate If-None-Match, which compares weakly
+     */
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || (tag.startsWith("W/") ? tag.substring(2) : tag).equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
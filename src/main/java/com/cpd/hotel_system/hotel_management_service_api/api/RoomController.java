@@ -11,7 +11,9 @@ public class RoomController {
 */
 package com.cpd.hotel_system.hotel_management_service_api.api;
 
+import com.cpd.hotel_system.hotel_management_service_api.dto.request.RequestBulkRoomDto;
 import com.cpd.hotel_system.hotel_management_service_api.dto.request.RequestRoomDto;
+import com.cpd.hotel_system.hotel_management_service_api.dto.request.RequestRoomSearchDto;
 import com.cpd.hotel_system.hotel_management_service_api.service.RoomService;
 import com.cpd.hotel_system.hotel_management_service_api.util.StandardResponseDto;
 import lombok.RequiredArgsConstructor;
@@ -39,6 +41,17 @@ public class RoomController {
         );
     }
 
+    @PostMapping("/user/bulk-create")
+    public ResponseEntity<StandardResponseDto> bulkCreate(
+            @RequestBody RequestBulkRoomDto dto) {
+        return new ResponseEntity<>(
+                new StandardResponseDto(
+                        201, "Rooms Saved!", roomService.bulkCreate(dto)
+                ),
+                HttpStatus.CREATED
+        );
+    }
+
     @PutMapping("/admin/update/{id}")
     public ResponseEntity<StandardResponseDto> update(
             @PathVariable("id") String roomId,
@@ -77,10 +90,21 @@ public class RoomController {
 
     @GetMapping("/visitor/find-all")
     public ResponseEntity<StandardResponseDto> findAll(
-            @RequestParam int page,
+            @RequestParam(defaultValue = "0") int page,
             @RequestParam int size,
-            @RequestParam String searchText
+            @RequestParam String searchText,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean withCount
     ) throws SQLException {
+        // Passing a cursor (empty for the first page) switches to keyset pagination
+        if (cursor != null) {
+            return new ResponseEntity<>(
+                    new StandardResponseDto(
+                            200, "Room list!", roomService.findAllByCursor(cursor, size, withCount)
+                    ),
+                    HttpStatus.OK
+            );
+        }
         return new ResponseEntity<>(
                 new StandardResponseDto(
                         200, "Room list!", roomService.findAll(page, size)
@@ -88,4 +112,18 @@ public class RoomController {
                 HttpStatus.OK
         );
     }
+
+    @GetMapping("/visitor/search")
+    public ResponseEntity<StandardResponseDto> search(
+            @ModelAttribute RequestRoomSearchDto criteria,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        return new ResponseEntity<>(
+                new StandardResponseDto(
+                        200, "Room search result!", roomService.search(criteria, page, Math.min(size, 100))
+                ),
+                HttpStatus.OK
+        );
+    }
 }
\ No newline at end of file
@@ -12,14 +12,18 @@ public class RoomImageController {
 
 package com.cpd.hotel_system.hotel_management_service_api.api;
 
+import com.cpd.hotel_system.hotel_management_service_api.dto.request.RequestRoomImageBatchDto;
 import com.cpd.hotel_system.hotel_management_service_api.dto.request.RequestRoomImageDto;
 import com.cpd.hotel_system.hotel_management_service_api.service.RoomImageService;
 import com.cpd.hotel_system.hotel_management_service_api.util.StandardResponseDto;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.sql.SQLException;
 
 @RestController
@@ -28,9 +32,10 @@ import java.sql.SQLException;
 public class RoomImageController {
     private final RoomImageService roomImageService;
 
+    // multipart/form-data with the file and roomId parts
     @PostMapping("/user/create")
     public ResponseEntity<StandardResponseDto> create(
-            @RequestBody RequestRoomImageDto dto) {
+            @ModelAttribute RequestRoomImageDto dto) {
         roomImageService.create(dto);
         return new ResponseEntity<>(
                 new StandardResponseDto(
@@ -40,10 +45,80 @@ public class RoomImageController {
         );
     }
 
+    // multipart/form-data with one files part per image and the roomId part
+    @PostMapping("/user/create-batch")
+    public ResponseEntity<StandardResponseDto> createBatch(
+            @ModelAttribute RequestRoomImageBatchDto dto) {
+        return new ResponseEntity<>(
+                new StandardResponseDto(
+                        201, "Room Images Saved!", roomImageService.createAll(dto)
+                ),
+                HttpStatus.CREATED
+        );
+    }
+
+    // Raw image body with its Content-Type and Content-Length, streamed to storage as it arrives.
+    // The body is hashed while it is stored, identical bytes already stored are kept once.
+    @PostMapping("/user/upload/{roomId}")
+    public ResponseEntity<StandardResponseDto> upload(
+            @PathVariable("roomId") String roomId,
+            @RequestParam(defaultValue = "image") String fileName,
+            HttpServletRequest request) throws IOException {
+        try (InputStream body = request.getInputStream()) {
+            roomImageService.upload(roomId, body, request.getContentLengthLong(), request.getContentType(), fileName);
+        }
+        return new ResponseEntity<>(
+                new StandardResponseDto(
+                        201, "Room Image Saved!", null
+                ),
+                HttpStatus.CREATED
+        );
+    }
+
+    // Accepts the upload once it is spooled to local disk and answers 202 with the PENDING image,
+    // storage happens in the background, poll /user/status/{id} until READY or FAILED
+    @PostMapping("/user/ingest")
+    public ResponseEntity<StandardResponseDto> ingest(
+            @ModelAttribute RequestRoomImageDto dto) {
+        return new ResponseEntity<>(
+                new StandardResponseDto(
+                        202, "Room Image accepted!", roomImageService.ingest(dto)
+                ),
+                HttpStatus.ACCEPTED
+        );
+    }
+
+    @PostMapping("/user/ingest/{roomId}")
+    public ResponseEntity<StandardResponseDto> ingest(
+            @PathVariable("roomId") String roomId,
+            @RequestParam(defaultValue = "image") String fileName,
+            HttpServletRequest request) throws IOException {
+        try (InputStream body = request.getInputStream()) {
+            return new ResponseEntity<>(
+                    new StandardResponseDto(
+                            202, "Room Image accepted!", roomImageService.ingest(
+                                    roomId, body, request.getContentLengthLong(), request.getContentType(), fileName)
+                    ),
+                    HttpStatus.ACCEPTED
+            );
+        }
+    }
+
+    @GetMapping("/user/status/{id}")
+    public ResponseEntity<StandardResponseDto> findStatus(
+            @PathVariable("id") String imageId) {
+        return new ResponseEntity<>(
+                new StandardResponseDto(
+                        200, "Room Image status!", roomImageService.findStatus(imageId)
+                ),
+                HttpStatus.OK
+        );
+    }
+
     @PutMapping("/admin/update/{id}")
     public ResponseEntity<StandardResponseDto> update(
             @PathVariable("id") String imageId,
-            @RequestBody RequestRoomImageDto dto) throws SQLException {
+            @ModelAttribute RequestRoomImageDto dto) throws SQLException {
         roomImageService.update(dto, imageId);
         return new ResponseEntity<>(
                 new StandardResponseDto(
@@ -79,9 +154,20 @@ public class RoomImageController {
     @GetMapping("/visitor/find-all")
     public ResponseEntity<StandardResponseDto> findAll(
             @RequestParam String roomId,
-            @RequestParam int page,
-            @RequestParam int size
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean withCount
     ) throws SQLException {
+        // Passing a cursor (empty for the first page) switches to keyset pagination
+        if (cursor != null) {
+            return new ResponseEntity<>(
+                    new StandardResponseDto(
+                            200, "Room Image list!", roomImageService.findAllByCursor(cursor, size, roomId, withCount)
+                    ),
+                    HttpStatus.OK
+            );
+        }
         return new ResponseEntity<>(
                 new StandardResponseDto(
                         200, "Room Image list!", roomImageService.findAll(page, size, roomId)
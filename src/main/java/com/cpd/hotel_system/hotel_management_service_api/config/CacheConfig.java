@@ -0,0 +1,19 @@
+package com.cpd.hotel_system.hotel_management_service_api.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables the in-process read-through cache. The Caffeine cache manager itself
+ * (size, TTL, stats) is auto-configured from the spring.cache.* properties.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String HOTELS = "hotels";
+    public static final String BRANCHES = "branches";
+    public static final String ROOMS = "rooms";
+    public static final String FACILITIES = "facilities";
+    public static final String ROOM_IMAGES = "roomImages";
+    public static final String MEDIA_OBJECTS = "mediaObjects";
+}
@@ -0,0 +1,94 @@
+package com.cpd.hotel_system.hotel_management_service_api.config;
+
+import com.cpd.hotel_system.hotel_management_service_api.dto.response.ResponseCacheStatsDto;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Precise invalidation of the find-by-id caches from the write paths.
+ * Evictions run after the surrounding transaction commits, so a concurrent
+ * read cannot put the pre-commit state back into the cache.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogCache {
+
+    private final CacheManager cacheManager;
+    private final MediaBlobCache mediaBlobCache;
+
+    public void evictHotel(String hotelId) {
+        evict(CacheConfig.HOTELS, hotelId);
+    }
+
+    public void evictBranch(String branchId) {
+        evict(CacheConfig.BRANCHES, branchId);
+    }
+
+    public void evictRoom(String roomId) {
+        evict(CacheConfig.ROOMS, roomId);
+    }
+
+    public void evictFacility(long facilityId) {
+        evict(CacheConfig.FACILITIES, facilityId);
+    }
+
+    public void evictRoomImage(long imageId) {
+        evict(CacheConfig.ROOM_IMAGES, imageId);
+    }
+
+    public void evictMediaObject(String key) {
+        evict(CacheConfig.MEDIA_OBJECTS, key);
+    }
+
+    /**
+     * Hit/miss statistics of every cache
+     */
+    public List<ResponseCacheStatsDto> stats() {
+        List<ResponseCacheStatsDto> stats = new ArrayList<>();
+        for (String name : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null && cache.getNativeCache()
+                    instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache) {
+                CacheStats cacheStats = nativeCache.stats();
+                stats.add(ResponseCacheStatsDto.builder()
+                        .name(name)
+                        .size(nativeCache.estimatedSize())
+                        .hitCount(cacheStats.hitCount())
+                        .missCount(cacheStats.missCount())
+                        .hitRate(cacheStats.hitRate())
+                        .evictionCount(cacheStats.evictionCount())
+                        .build());
+            }
+        }
+        stats.add(mediaBlobCache.stats());
+        return stats;
+    }
+
+    private void evict(String cacheName, Object key) {
+        if (key == null) {
+            return;
+        }
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.evict(key);
+                }
+            });
+        } else {
+            cache.evict(key);
+        }
+    }
+}
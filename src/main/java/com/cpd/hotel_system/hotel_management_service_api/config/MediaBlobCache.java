@@ -0,0 +1,356 @@
+package com.cpd.hotel_system.hotel_management_service_api.config;
+
+import com.cpd.hotel_system.hotel_management_service_api.dto.response.ResponseCacheStatsDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * LRU cache of whole media objects in direct memory, keyed by content hash.
+ * The bytes live in fixed-size blocks carved out of direct slabs, allocated on first use up
+ * to the configured capacity and reused afterwards, so cached media neither grows the heap
+ * nor creates garbage. Only the block table of each entry is on heap. A reader pins its
+ * entry, an entry evicted while pinned gives its blocks back once the last reader is done.
+ * Objects are admitted on their second miss, so a scan of cold media does not flush the hot ones.
+ * Size the JVM's -XX:MaxDirectMemorySize to hold the capacity on top of what else uses direct memory.
+ */
+@Component
+public class MediaBlobCache {
+
+    public static final String NAME = "mediaBlobs";
+    private static final int SLAB_SIZE = 16 * 1024 * 1024;
+    private static final int MAX_ADMISSION_KEYS = 4096;
+
+    /**
+     * Writes a whole object to the channel it is given
+     */
+    @FunctionalInterface
+    public interface Loader {
+        void load(WritableByteChannel channel) throws IOException;
+    }
+
+    private static final class Entry {
+        private final int[] blocks;
+        private final long length;
+        private int pins;
+        private boolean evicted;
+
+        private Entry(int[] blocks, long length) {
+            this.blocks = blocks;
+            this.length = length;
+        }
+    }
+
+    private final int blockSize;
+    private final int blocksPerSlab;
+    private final int totalBlocks;
+    private final long maxEntrySize;
+    private final ByteBuffer[] slabs;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // Guarded by lock
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    // Keys missed once recently, an object is only loaded on its second miss
+    private final LinkedHashMap<String, Boolean> admissions = new LinkedHashMap<>(256, 0.75f, false) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > MAX_ADMISSION_KEYS;
+        }
+    };
+    private final int[] freeBlocks;
+    private int freeCount;
+    private int allocatedSlabs;
+    private long usedBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public MediaBlobCache(@Value("${catalog.media.cache.capacity}") DataSize capacity,
+                          @Value("${catalog.media.cache.block-size}") DataSize blockSize,
+                          @Value("${catalog.media.cache.max-entry-size}") DataSize maxEntrySize) {
+        this.blockSize = (int) Math.min(Math.max(blockSize.toBytes(), 4096), SLAB_SIZE);
+        this.blocksPerSlab = SLAB_SIZE / this.blockSize;
+        this.totalBlocks = (int) Math.min(capacity.toBytes() / this.blockSize, Integer.MAX_VALUE - 8);
+        this.maxEntrySize = Math.min(maxEntrySize.toBytes(), (long) totalBlocks * this.blockSize);
+        this.slabs = new ByteBuffer[(totalBlocks + blocksPerSlab - 1) / blocksPerSlab];
+        this.freeBlocks = new int[totalBlocks];
+    }
+
+    /**
+     * Write part of a cached object to the target. On a miss an object of at most the maximum entry
+     * size is loaded whole first, so later reads of any range are served from memory.
+     * @param key content hash of the object
+     * @param length length of the whole object
+     * @param loader writes the whole object, called on a miss
+     * @return false when the object is not cached and could not be, the caller reads it from storage
+     */
+    public boolean copy(String key, long length, long position, long count, WritableByteChannel target,
+                        Loader loader) throws IOException {
+        Entry entry = pin(key);
+        if (entry == null) {
+            misses.increment();
+            entry = load(key, length, loader);
+            if (entry == null) {
+                return false;
+            }
+        } else {
+            hits.increment();
+        }
+
+        try {
+            long end = Math.min(entry.length, position + count);
+            long offset = position;
+            while (offset < end) {
+                int block = entry.blocks[(int) (offset / blockSize)];
+                int within = (int) (offset % blockSize);
+                int size = (int) Math.min(blockSize - within, end - offset);
+                ByteBuffer view = slabs[block / blocksPerSlab].duplicate();
+                int start = (block % blocksPerSlab) * blockSize + within;
+                view.limit(start + size).position(start);
+                while (view.hasRemaining()) {
+                    target.write(view);
+                }
+                offset += size;
+            }
+            return true;
+        } finally {
+            unpin(entry);
+        }
+    }
+
+    /**
+     * Drop an object, e.g. after it was deleted from storage
+     */
+    public void evict(String key) {
+        lock.lock();
+        try {
+            Entry entry = entries.remove(key);
+            if (entry != null) {
+                retire(entry);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public ResponseCacheStatsDto stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        lock.lock();
+        try {
+            return ResponseCacheStatsDto.builder()
+                    .name(NAME)
+                    .size(entries.size())
+                    .hitCount(hitCount)
+                    .missCount(missCount)
+                    .hitRate(hitCount + missCount == 0 ? 1.0 : (double) hitCount / (hitCount + missCount))
+                    .evictionCount(evictions.sum())
+                    .usedBytes(usedBytes)
+                    .capacityBytes((long) totalBlocks * blockSize)
+                    .build();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Helper method to load an object into freshly allocated blocks and publish it pinned.
+     * When another reader loaded the same object meanwhile, its entry is used instead.
+     */
+    private Entry load(String key, long length, Loader loader) throws IOException {
+        if (length < 0 || length > maxEntrySize) {
+            return null;
+        }
+        // A one-off read of a cold object does not push hot objects out
+        lock.lock();
+        try {
+            if (admissions.remove(key) == null) {
+                admissions.put(key, Boolean.TRUE);
+                return null;
+            }
+        } finally {
+            lock.unlock();
+        }
+        int[] blocks = allocate((int) ((length + blockSize - 1) / blockSize));
+        if (blocks == null) {
+            return null;
+        }
+
+        Entry entry = new Entry(blocks, length);
+        boolean published = false;
+        try {
+            BlockWriter writer = new BlockWriter(entry);
+            loader.load(writer);
+            if (writer.written != length) {
+                throw new IOException(String.format("Loaded %d of %d bytes", writer.written, length));
+            }
+
+            lock.lock();
+            try {
+                Entry existing = entries.get(key);
+                if (existing != null) {
+                    existing.pins++;
+                    return existing;
+                }
+                entry.pins++;
+                entries.put(key, entry);
+                usedBytes += (long) blocks.length * blockSize;
+                published = true;
+                return entry;
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            if (!published) {
+                lock.lock();
+                try {
+                    free(blocks);
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * Helper method to take free blocks, allocating slabs up to the capacity and then evicting the
+     * least recently used entries
+     * @return null when the blocks cannot be found, everything evictable being pinned
+     */
+    private int[] allocate(int count) {
+        lock.lock();
+        try {
+            while (freeCount < count) {
+                if (allocatedSlabs < slabs.length) {
+                    int first = allocatedSlabs * blocksPerSlab;
+                    int blocks = Math.min(blocksPerSlab, totalBlocks - first);
+                    slabs[allocatedSlabs++] = ByteBuffer.allocateDirect(blocks * blockSize);
+                    for (int i = blocks - 1; i >= 0; i--) {
+                        freeBlocks[freeCount++] = first + i;
+                    }
+                } else if (!evictEldest()) {
+                    return null;
+                }
+            }
+            int[] blocks = new int[count];
+            for (int i = 0; i < count; i++) {
+                blocks[i] = freeBlocks[--freeCount];
+            }
+            return blocks;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Helper method to evict the least recently used entry, must hold the lock.
+     * A pinned entry is unlisted at once and its blocks return once unpinned.
+     * @return false when nothing was left to evict
+     */
+    private boolean evictEldest() {
+        Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while (eldest.hasNext()) {
+            Entry entry = eldest.next().getValue();
+            eldest.remove();
+            evictions.increment();
+            retire(entry);
+            if (entry.pins == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Entry pin(String key) {
+        lock.lock();
+        try {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                entry.pins++;
+            }
+            return entry;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void unpin(Entry entry) {
+        lock.lock();
+        try {
+            if (--entry.pins == 0 && entry.evicted) {
+                free(entry.blocks);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Must hold the lock
+    private void retire(Entry entry) {
+        entry.evicted = true;
+        usedBytes -= (long) entry.blocks.length * blockSize;
+        if (entry.pins == 0) {
+            free(entry.blocks);
+        }
+    }
+
+    // Must hold the lock
+    private void free(int[] blocks) {
+        for (int block : blocks) {
+            freeBlocks[freeCount++] = block;
+        }
+    }
+
+    /**
+     * Fills the blocks of an unpublished entry in order, refusing bytes past its length
+     */
+    private final class BlockWriter implements WritableByteChannel {
+        private final Entry entry;
+        private long written;
+
+        private BlockWriter(Entry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            int total = src.remaining();
+            if (written + total > entry.length) {
+                throw new IOException(String.format("Object is longer than %d bytes", entry.length));
+            }
+            while (src.hasRemaining()) {
+                int block = entry.blocks[(int) (written / blockSize)];
+                int within = (int) (written % blockSize);
+                int size = Math.min(blockSize - within, src.remaining());
+                ByteBuffer view = slabs[block / blocksPerSlab].duplicate();
+                int start = (block % blocksPerSlab) * blockSize + within;
+                view.limit(start + size).position(start);
+                ByteBuffer chunk = src.duplicate();
+                chunk.limit(chunk.position() + size);
+                view.put(chunk);
+                src.position(src.position() + size);
+                written += size;
+            }
+            return total;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.cpd.hotel_system.hotel_management_service_api.config;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Threads and part buffers shared by every multipart media upload.
+ * The threads cap the parts sent at the same time, the buffer permits cap the
+ * part buffers held in heap across all uploads, whatever the number of requests.
+ * Whole files of a batch upload run on their own threads, a file waits for its
+ * parts and would deadlock if both shared one pool.
+ * Not exposed as an Executor bean so Spring's own task executor stays auto-configured.
+ */
+@Component
+public class MediaUploadPool {
+
+    private final ThreadPoolExecutor executor;
+    private final ThreadPoolExecutor fileExecutor;
+    private final Semaphore buffers;
+
+    public MediaUploadPool(@Value("${catalog.media.upload-threads}") int threads,
+                           @Value("${catalog.media.max-buffered-parts}") int maxBufferedParts,
+                           @Value("${catalog.media.batch-threads}") int batchThreads) {
+        // Tasks are only submitted while holding a buffer permit, so the queue is bounded by the permits
+        this.executor = newExecutor(threads, "media-upload-");
+        this.buffers = new Semaphore(maxBufferedParts, true);
+        // Each batch bounds its own files in flight, so the queue is bounded by the batches being served
+        this.fileExecutor = newExecutor(batchThreads, "media-batch-");
+    }
+
+    private static ThreadPoolExecutor newExecutor(int threads, String namePrefix) {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, namePrefix + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Wait for a free part buffer, every acquire must be paired with {@link #releaseBuffer()}
+     */
+    public void acquireBuffer() throws InterruptedException {
+        buffers.acquire();
+    }
+
+    public void releaseBuffer() {
+        buffers.release();
+    }
+
+    public <T> Future<T> submit(Callable<T> task) {
+        return executor.submit(task);
+    }
+
+    /**
+     * Run the upload of one whole file of a batch
+     */
+    public <T> Future<T> submitFile(Callable<T> task) {
+        return fileExecutor.submit(task);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        fileExecutor.shutdown();
+    }
+}
@@ -0,0 +1,12 @@
+package com.cpd.hotel_system.hotel_management_service_api.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables the background jobs, e.g. the branch/hotel aggregate reconciler.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,56 @@
+package com.cpd.hotel_system.hotel_management_service_api.dto.catalog;
+
+import com.cpd.hotel_system.hotel_management_service_api.enums.BranchType;
+import com.cpd.hotel_system.hotel_management_service_api.enums.CatalogRecordType;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+/**
+ * One flat line of a catalog import or export (NDJSON object or CSV row).
+ * {@code ref} is the id of the record and {@code parentRef} the id of its parent:
+ * the hotel of a branch, the branch of an address or room, the room of a facility.
+ * Only the fields of the given type are used.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CatalogRecordDto {
+    private CatalogRecordType type;
+    private String ref;
+    private String parentRef;
+
+    // hotel
+    private String hotelName;
+    private Integer starRating;
+    private String description;
+    private Boolean activeStatus;
+    private BigDecimal startingForm;
+
+    // branch
+    private String branchName;
+    private BranchType branchType;
+    private Integer roomCount;
+
+    // address
+    private String addressLine;
+    private String city;
+    private String country;
+    private BigDecimal latitude;
+    private BigDecimal longitude;
+
+    // room
+    private String roomNumber;
+    private String roomType;
+    private Integer bedCount;
+    private BigDecimal price;
+    private Boolean available;
+
+    // facility
+    private String name;
+
+}
@@ -14,7 +14,5 @@ public class RequestBranchDto {
 
     private BranchType  branchType;
 
-    private int roomCount;
-
     private String hotelId;
 }
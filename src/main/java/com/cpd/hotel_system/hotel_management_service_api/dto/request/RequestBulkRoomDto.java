@@ -0,0 +1,16 @@
+package com.cpd.hotel_system.hotel_management_service_api.dto.request;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RequestBulkRoomDto {
+    private String branchId;
+    private List<RequestRoomDto> rooms;
+
+}
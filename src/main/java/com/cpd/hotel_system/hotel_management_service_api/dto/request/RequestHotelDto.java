@@ -2,8 +2,6 @@ package com.cpd.hotel_system.hotel_management_service_api.dto.request;
 
 import lombok.*;
 
-import java.math.BigDecimal;
-
 @Getter
 @Setter
 @NoArgsConstructor
@@ -15,6 +13,5 @@ public class RequestHotelDto {
     private String description;
     private String hotelName;
     private int starRating;
-    private BigDecimal startingForm;
 
 }
@@ -0,0 +1,18 @@
+package com.cpd.hotel_system.hotel_management_service_api.dto.request;
+
+import lombok.*;
+
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RequestRoomHoldDto {
+    private String roomId;
+    private LocalDate checkIn;
+    // exclusive, the night before check-out is the last one held
+    private LocalDate checkOut;
+
+}
@@ -0,0 +1,19 @@
+package com.cpd.hotel_system.hotel_management_service_api.dto.request;
+
+
+import lombok.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class RequestRoomImageBatchDto {
+
+    private List<MultipartFile> files;
+    private String roomId;
+
+}
@@ -0,0 +1,28 @@
+package com.cpd.hotel_system.hotel_management_service_api.dto.request;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RequestRoomSearchDto {
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private Integer minBedCount;
+    private Integer maxBedCount;
+    private String roomType;
+    private Boolean available;
+    private String branchId;
+    private String hotelId;
+    private String city;
+    // rooms must have every one of these facilities, names are matched case-insensitively
+    private List<String> facilities;
+    // "asc" (default) or "desc"
+    private String priceOrder;
+
+}
@@ -0,0 +1,18 @@
+package com.cpd.hotel_system.hotel_management_service_api.dto.response;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResponseBulkRoomDto {
+    private String branchId;
+    private int requested;
+    private int created;
+    private List<ResponseRowErrorDto> errors;
+
+}
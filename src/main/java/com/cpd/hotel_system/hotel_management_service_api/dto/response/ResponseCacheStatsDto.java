@@ -0,0 +1,20 @@
+package com.cpd.hotel_system.hotel_management_service_api.dto.response;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResponseCacheStatsDto {
+    private String name;
+    private long size;
+    private long hitCount;
+    private long missCount;
+    private double hitRate;
+    private long evictionCount;
+    // only reported by caches bounded by bytes
+    private Long usedBytes;
+    private Long capacityBytes;
+}
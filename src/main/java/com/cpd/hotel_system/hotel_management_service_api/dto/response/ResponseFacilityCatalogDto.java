@@ -0,0 +1,16 @@
+package com.cpd.hotel_system.hotel_management_service_api.dto.response;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResponseFacilityCatalogDto {
+    // interned id, stable until the next restart
+    private int facilityId;
+    private String name;
+    private long roomCount;
+
+}
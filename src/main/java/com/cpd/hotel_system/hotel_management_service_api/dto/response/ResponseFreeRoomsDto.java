@@ -0,0 +1,20 @@
+package com.cpd.hotel_system.hotel_management_service_api.dto.response;
+
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResponseFreeRoomsDto {
+    private String branchId;
+    private LocalDate checkIn;
+    private LocalDate checkOut;
+    private List<String> roomIds;
+    private int count;
+
+}
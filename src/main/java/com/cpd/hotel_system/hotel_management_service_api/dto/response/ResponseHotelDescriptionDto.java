@@ -0,0 +1,19 @@
+package com.cpd.hotel_system.hotel_management_service_api.dto.response;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResponseHotelDescriptionDto {
+
+    private String hotelId;
+    private String encoding;
+    // length of the decoded text in bytes
+    private long contentLength;
+    // the stored bytes, still compressed for DEFLATE
+    private byte[] content;
+
+}
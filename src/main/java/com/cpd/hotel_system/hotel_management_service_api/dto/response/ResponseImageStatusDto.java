@@ -0,0 +1,19 @@
+package com.cpd.hotel_system.hotel_management_service_api.dto.response;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResponseImageStatusDto {
+
+    private long id;
+    private String roomId;
+    private String status;
+    private int attempts;
+    private String error;
+    private String resourceUrl;
+
+}
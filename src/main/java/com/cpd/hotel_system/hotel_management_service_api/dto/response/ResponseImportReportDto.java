@@ -0,0 +1,25 @@
+package com.cpd.hotel_system.hotel_management_service_api.dto.response;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResponseImportReportDto {
+    private String format;
+    private long linesRead;
+    private long hotelsCreated;
+    private long branchesCreated;
+    private long addressesCreated;
+    private long roomsCreated;
+    private long facilitiesCreated;
+    private long failedLines;
+    // row is the one based line number in the file, only the first 1000 failures are listed
+    private List<ResponseRowErrorDto> errors;
+    private boolean errorsTruncated;
+
+}
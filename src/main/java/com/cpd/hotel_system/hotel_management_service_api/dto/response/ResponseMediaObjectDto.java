@@ -0,0 +1,19 @@
+package com.cpd.hotel_system.hotel_management_service_api.dto.response;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResponseMediaObjectDto {
+
+    private String directory;
+    private String fileName;
+    private long contentLength;
+    private String contentType;
+    // quoted, ready for the ETag header
+    private String etag;
+
+}
@@ -0,0 +1,25 @@
+package com.cpd.hotel_system.hotel_management_service_api.dto.response;
+
+import com.cpd.hotel_system.hotel_management_service_api.enums.BranchType;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResponseNearbyBranchDto {
+    private String branchId;
+    private String branchName;
+    private BranchType branchType;
+    private String hotelId;
+    private String addressLine;
+    private String city;
+    private String country;
+    private BigDecimal latitude;
+    private BigDecimal longitude;
+    private double distanceKm;
+
+}
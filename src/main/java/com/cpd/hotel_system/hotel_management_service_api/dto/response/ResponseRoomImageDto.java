@@ -14,6 +14,11 @@ public class ResponseRoomImageDto {
     private String fileName;
     private String hash;
     private String resourceUrl;
+    private String thumbnailUrl;
+    private String cardUrl;
+    private String fullUrl;
+    private String variantStatus;
+    private String status;
     private String roomId;
 
 
@@ -0,0 +1,16 @@
+package com.cpd.hotel_system.hotel_management_service_api.dto.response;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResponseRowErrorDto {
+    // zero based position of the row in the request
+    private long row;
+    private String reference;
+    private String message;
+
+}
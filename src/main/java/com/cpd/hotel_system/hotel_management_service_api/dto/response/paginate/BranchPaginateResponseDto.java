@@ -14,4 +14,5 @@ public class BranchPaginateResponseDto {
 
     private List<ResponseBranchDto> dataList;
     private Long dataCount;
+    private String nextCursor;
 }
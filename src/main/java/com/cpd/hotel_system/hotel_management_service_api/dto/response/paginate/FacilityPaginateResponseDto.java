@@ -13,4 +13,5 @@ public class FacilityPaginateResponseDto {
 
     private List<ResponseFacilityDto> dataList;
     private Long dataCount;
+    private String nextCursor;
 }
@@ -12,4 +12,5 @@ import java.util.List;
 public class HotelPaginateResponseDto {
     private List<ResponseHotelDto> dataList;
     private Long dataCount;
+    private String nextCursor;
 }
@@ -13,4 +13,5 @@ public class RoomImagePaginateResponseDto {
 
     private List<ResponseRoomImageDto> dataList;
     private Long dataCount;
+    private String nextCursor;
 }
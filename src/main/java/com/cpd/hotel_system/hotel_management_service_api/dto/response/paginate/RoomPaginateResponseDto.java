@@ -13,4 +13,5 @@ public class RoomPaginateResponseDto {
 
     private List<ResponseRoomDto> dataList;
     private Long dataCount;
+    private String nextCursor;
 }
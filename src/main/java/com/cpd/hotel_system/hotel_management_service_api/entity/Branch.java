@@ -7,7 +7,7 @@ import lombok.*;
 import java.util.List;
 
 @Entity
-@Table(name="branch")
+@Table(name="branch", indexes = @Index(name = "idx_branch_room_count", columnList = "room_count"))
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
@@ -18,7 +18,8 @@ public class Branch {
     @Column(name = "branch_id", length=80)
     private String branchId;
 
-    @Column(name = "room_count")
+    // Inserted as 0, afterwards only written by the aggregate bulk UPDATE in BranchRepo
+    @Column(name = "room_count", updatable = false)
     private int roomCount;
 
     @Enumerated(EnumType.STRING)
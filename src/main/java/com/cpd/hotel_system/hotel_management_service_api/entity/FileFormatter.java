@@ -1,29 +1,82 @@
 package com.cpd.hotel_system.hotel_management_service_api.entity;
 
+import com.cpd.hotel_system.hotel_management_service_api.util.CommonFileSavedSimpleDataDTO;
 import jakarta.persistence.Column;
 import jakarta.persistence.Embeddable;
-import jakarta.persistence.Lob;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+/**
+ * Where the bytes of an image are stored, in plain sized columns read without any LOB handling.
+ * Images stored since the move to content addressing carry a SHA-256, older ones only the
+ * MD5 S3 reported for the upload.
+ */
 @Embeddable
 @RequiredArgsConstructor
 @AllArgsConstructor
 @Getter
 @Setter
 public class FileFormatter {
-    @Lob
-    @Column(name="file_name")
-    private byte[] fileName;
+    public static final int MAX_FILE_NAME = 512;
+    public static final int MAX_RESOURCE_URL = 1024;
+    public static final int MAX_DIRECTORY = 255;
+
+    private static final Pattern SHA256_HEX = Pattern.compile("[0-9a-fA-F]{64}");
+    private static final Pattern MD5_BASE64 = Pattern.compile("[A-Za-z0-9+/]{22}==");
+
+    @Column(name="object_name", length = MAX_FILE_NAME)
+    private String fileName;
+
+    @Column(name="object_url", length = MAX_RESOURCE_URL)
+    private String resourceUrl;
+
+    @Column(name="object_directory", length = MAX_DIRECTORY)
+    private String directory;
+
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(name="content_sha256", length = 32)
+    private byte[] sha256;
+
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(name="content_md5", length = 16)
+    private byte[] md5;
 
-    @Column(name="resource_url")
-    private byte[] resourceUrl;
+    public static FileFormatter of(CommonFileSavedSimpleDataDTO resource) {
+        return of(resource.getFileName(), resource.getResourceUrl(), resource.getDirectory(), resource.getHash());
+    }
 
-    @Column(name="directory")
-    private byte[] directory;
+    /**
+     * Build the columns from the hash as the file service reports it,
+     * a hex SHA-256 or the base64 MD5 of older uploads
+     */
+    public static FileFormatter of(String fileName, String resourceUrl, String directory, String hash) {
+        FileFormatter file = new FileFormatter();
+        file.setFileName(fileName);
+        file.setResourceUrl(resourceUrl);
+        file.setDirectory(directory);
+        if (hash != null && SHA256_HEX.matcher(hash).matches()) {
+            file.setSha256(HexFormat.of().parseHex(hash));
+        } else if (hash != null && MD5_BASE64.matcher(hash).matches()) {
+            file.setMd5(Base64.getDecoder().decode(hash));
+        }
+        return file;
+    }
 
-    @Column(name="hash")
-    private byte[] hash;
-}
\ No newline at end of file
+    /**
+     * The hash in the text form it has always been served in
+     */
+    public String hashText() {
+        if (sha256 != null) {
+            return HexFormat.of().formatHex(sha256);
+        }
+        return md5 == null ? null : Base64.getEncoder().encodeToString(md5);
+    }
+}
@@ -2,14 +2,15 @@ package com.cpd.hotel_system.hotel_management_service_api.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 
 import java.math.BigDecimal;
-import java.sql.Blob;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
+@Table(name = "hotel", indexes = @Index(name = "idx_hotel_starting_form", columnList = "starting_form"))
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
@@ -27,9 +28,8 @@ public class Hotel {
     @Column(name = "star_rating",nullable = false)
     private int starRating;
 
-    @Lob
-    @Column(nullable = false,length = 100)
-    private Blob description;
+    // Descriptions live compressed in hotel_description, see HotelDescriptionService.
+    // The old description column is not mapped, so no hotel query reads it
 
     @Column(name = "created_at",nullable = false)
     private LocalDateTime createdAt;
@@ -40,10 +40,12 @@ public class Hotel {
     @Column(name = "active_status",nullable = false)
     private boolean activeStatus;
 
-    @Column(name = "starting_form",nullable = false)
+    // Inserted as 0, afterwards only written by the aggregate bulk UPDATE in HotelRepo
+    @Column(name = "starting_form",nullable = false, updatable = false)
     private BigDecimal startingForm;
 
     @OneToMany(mappedBy = "hotel",cascade = CascadeType.ALL)
+    @BatchSize(size = 50)
     private List<Branch> branches;
 
 
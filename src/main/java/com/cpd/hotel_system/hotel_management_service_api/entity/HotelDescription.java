@@ -0,0 +1,34 @@
+package com.cpd.hotel_system.hotel_management_service_api.entity;
+
+import com.cpd.hotel_system.hotel_management_service_api.enums.ContentEncoding;
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * The description of a hotel, compressed and kept out of the hotel row
+ * so listing and searching hotels never reads it.
+ */
+@Entity
+@Table(name = "hotel_description")
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class HotelDescription {
+    @Id
+    @Column(name = "hotel_id")
+    private String hotelId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "encoding", nullable = false, length = 20)
+    private ContentEncoding encoding;
+
+    // length of the UTF-8 text once decoded
+    @Column(name = "content_length", nullable = false)
+    private int contentLength;
+
+    @Lob
+    @Column(name = "content", nullable = false, length = 16_777_215)
+    private byte[] content;
+}
@@ -0,0 +1,43 @@
+package com.cpd.hotel_system.hotel_management_service_api.entity;
+
+import com.cpd.hotel_system.hotel_management_service_api.enums.VariantStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Resized copies of a room image, filled in by the background variant pipeline
+ */
+@Embeddable
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Getter
+@Setter
+public class ImageVariants {
+    // null for images stored before variants existed, handled as PENDING
+    @Enumerated(EnumType.STRING)
+    @Column(name = "variant_status", length = 20)
+    private VariantStatus status;
+
+    // failed generation attempts of a PENDING image, null when none failed yet
+    @Column(name = "variant_attempts")
+    private Integer attempts;
+
+    // a PENDING image whose last attempt failed is not swept again before this time
+    @Column(name = "variant_retry_at")
+    private LocalDateTime retryAt;
+
+    @Column(name = "thumbnail_url", length = 1000)
+    private String thumbnailUrl;
+
+    @Column(name = "card_url", length = 1000)
+    private String cardUrl;
+
+    @Column(name = "full_url", length = 1000)
+    private String fullUrl;
+}
@@ -0,0 +1,45 @@
+package com.cpd.hotel_system.hotel_management_service_api.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.Lob;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The binary columns images were stored in before {@link FileFormatter} got typed columns.
+ * Only read, as a fallback for rows the backfill has not reached yet; the backfill clears them.
+ * Rows whose values are too long for the typed columns are marked skipped and stay here.
+ * Once it reports no rows left the columns and this mapping can be dropped.
+ */
+@Embeddable
+@RequiredArgsConstructor
+@Getter
+public class LegacyFileFormatter {
+    @Lob
+    @Column(name="file_name", insertable = false, updatable = false)
+    private byte[] fileName;
+
+    @Column(name="resource_url", insertable = false, updatable = false)
+    private byte[] resourceUrl;
+
+    @Column(name="directory", insertable = false, updatable = false)
+    private byte[] directory;
+
+    @Column(name="hash", insertable = false, updatable = false)
+    private byte[] hash;
+
+    // set by the backfill when a value is too long for the typed columns
+    @Column(name="legacy_file_skipped", insertable = false, updatable = false)
+    private Boolean skipped;
+
+    public FileFormatter toFileFormatter() {
+        return FileFormatter.of(text(fileName), text(resourceUrl), text(directory), text(hash));
+    }
+
+    private static String text(byte[] bytes) {
+        return bytes == null ? null : new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -7,7 +7,7 @@ import java.math.BigDecimal;
 import java.util.List;
 
 @Entity
-@Table(name="room")
+@Table(name="room", indexes = @Index(name = "idx_room_branch_price", columnList = "branch_id, price"))
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
@@ -33,7 +33,7 @@ public class Room {
     @Column(name = "is_available")
     private boolean isAvailable;
 
-    @ManyToOne()
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name="branch_id")
     private Branch branch;
 
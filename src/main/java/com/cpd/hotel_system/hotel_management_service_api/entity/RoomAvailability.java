@@ -0,0 +1,38 @@
+package com.cpd.hotel_system.hotel_management_service_api.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Booked nights of one room in one calendar year.
+ * Bit n of {@code bookedDays} is set when day-of-year n + 1 is held.
+ */
+@Entity
+@Table(name="room_availability",
+        uniqueConstraints = @UniqueConstraint(name = "uk_room_availability_room_year", columnNames = {"room_id", "calendar_year"}))
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class RoomAvailability {
+    @Id
+    @GeneratedValue(strategy= GenerationType.IDENTITY)
+    private long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name="room_id", nullable = false)
+    private Room room;
+
+    @Column(name = "calendar_year", nullable = false)
+    private int year;
+
+    // 366 bits fit in 46 bytes
+    @Column(name = "booked_days", nullable = false, length = 46)
+    private byte[] bookedDays;
+
+    @Version
+    @Column(name = "version")
+    private long version;
+
+}
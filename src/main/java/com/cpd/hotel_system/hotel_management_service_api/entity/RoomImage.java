@@ -1,5 +1,6 @@
 package com.cpd.hotel_system.hotel_management_service_api.entity;
 
+import com.cpd.hotel_system.hotel_management_service_api.enums.ImageStatus;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -18,7 +19,36 @@ public class RoomImage {
     @Embedded
     private FileFormatter fileFormatter;
 
+    @Embedded
+    private LegacyFileFormatter legacyFile;
+
+    @Embedded
+    private ImageVariants variants;
+
+    // null for images stored in the request, which are READY once saved
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 20)
+    private ImageStatus status;
+
+    @Column(name = "ingest_attempts")
+    private Integer ingestAttempts;
+
+    @Column(name = "ingest_error", length = 500)
+    private String ingestError;
+
     @ManyToOne()
     @JoinColumn(name="room_id")
     private Room room;
+
+    /**
+     * Rows the backfill has not reached, or had to skip, still keep their file in the old binary columns.
+     * The fallback is only a read, the mapped embeddable stays untouched so loading such a row doesn't dirty it.
+     */
+    public FileFormatter getFileFormatter() {
+        if ((fileFormatter == null || fileFormatter.getFileName() == null)
+                && legacyFile != null && legacyFile.getFileName() != null) {
+            return legacyFile.toFileFormatter();
+        }
+        return fileFormatter;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,58 @@
+package com.cpd.hotel_system.hotel_management_service_api.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One stored media object, addressed by the SHA-256 of its bytes.
+ * Every RoomImage pointing at it holds one reference, the bytes are
+ * deleted from storage when the last reference is released.
+ */
+@Entity
+@Table(name="stored_object",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_stored_object_sha256", columnNames = "sha256"),
+                @UniqueConstraint(name = "uk_stored_object_key", columnNames = "object_key")
+        })
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class StoredObject {
+    @Id
+    @GeneratedValue(strategy= GenerationType.IDENTITY)
+    private long id;
+
+    // lower case hex
+    @Column(name = "sha256", nullable = false, length = 64)
+    private String sha256;
+
+    // directory + file name in the bucket
+    @Column(name = "object_key", nullable = false, length = 500)
+    private String objectKey;
+
+    @Column(name = "directory", nullable = false, length = 100)
+    private String directory;
+
+    @Column(name = "file_name", nullable = false, length = 400)
+    private String fileName;
+
+    @Column(name = "resource_url", nullable = false, length = 1000)
+    private String resourceUrl;
+
+    @Column(name = "content_length", nullable = false)
+    private long contentLength;
+
+    @Column(name = "content_type", length = 100)
+    private String contentType;
+
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+}
@@ -0,0 +1,11 @@
+package com.cpd.hotel_system.hotel_management_service_api.enums;
+
+/**
+ * Kind of a line in a catalog import or export, listed parents first
+ */
+public enum CatalogRecordType {
+
+    HOTEL,BRANCH,ADDRESS,ROOM,FACILITY
+
+
+}
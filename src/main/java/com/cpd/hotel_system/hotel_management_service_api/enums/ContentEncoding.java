@@ -0,0 +1,8 @@
+package com.cpd.hotel_system.hotel_management_service_api.enums;
+
+public enum ContentEncoding {
+    // stored as is, short texts that deflate would not shrink
+    IDENTITY,
+    // zlib format, which is also what HTTP calls deflate
+    DEFLATE
+}
@@ -0,0 +1,8 @@
+package com.cpd.hotel_system.hotel_management_service_api.enums;
+
+public enum ImageStatus {
+    // accepted and spooled, not yet in storage
+    PENDING,
+    READY,
+    FAILED
+}
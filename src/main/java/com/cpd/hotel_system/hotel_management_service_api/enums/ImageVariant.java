@@ -0,0 +1,31 @@
+package com.cpd.hotel_system.hotel_management_service_api.enums;
+
+/**
+ * Resized copies produced for every room image, by maximum width in pixels
+ */
+public enum ImageVariant {
+    THUMBNAIL(160),
+    CARD(480),
+    FULL(1280);
+
+    private final int width;
+
+    ImageVariant(int width) {
+        this.width = width;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return the file name of this variant, derived from the source so identical sources share variants
+     */
+    public String fileNameFor(String sourceFileName) {
+        return sourceFileName + "-" + name().toLowerCase() + ".jpg";
+    }
+
+    public static String directoryFor(String sourceDirectory) {
+        return sourceDirectory + "variants/";
+    }
+}
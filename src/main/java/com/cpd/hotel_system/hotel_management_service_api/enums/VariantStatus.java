@@ -0,0 +1,10 @@
+package com.cpd.hotel_system.hotel_management_service_api.enums;
+
+public enum VariantStatus {
+    PENDING,
+    READY,
+    // not a decodable still image, e.g. a video
+    SKIPPED,
+    // not decodable, or still failing after every retry
+    FAILED
+}
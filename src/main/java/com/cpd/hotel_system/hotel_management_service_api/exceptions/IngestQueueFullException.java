@@ -0,0 +1,11 @@
+package com.cpd.hotel_system.hotel_management_service_api.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class IngestQueueFullException extends RuntimeException{
+    public IngestQueueFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,386 @@
+package com.cpd.hotel_system.hotel_management_service_api.index;
+
+import com.cpd.hotel_system.hotel_management_service_api.repo.AddressRepo;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory spatial grid over branch addresses.
+ * Points are kept as unit vectors in primitive double arrays and bucketed into
+ * fixed 0.1 degree cells, so radius and nearest-k queries only visit nearby cells
+ * and compare chord lengths without any trigonometry per point.
+ */
+@Component
+@RequiredArgsConstructor
+public class BranchGeoIndex {
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double CELL_DEGREES = 0.1;
+    private static final int LAT_CELLS = (int) Math.round(180 / CELL_DEGREES);
+    private static final int LON_CELLS = (int) Math.round(360 / CELL_DEGREES);
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180;
+
+    private final AddressRepo addressRepo;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // slot -> point data, freed slots are reused
+    private double[] xs = new double[1024];
+    private double[] ys = new double[1024];
+    private double[] zs = new double[1024];
+    private String[] addressIds = new String[1024];
+    private String[] branchIds = new String[1024];
+    private int[] cellOfSlot = new int[1024];
+    private int slotCount;
+    private int[] freeSlots = new int[64];
+    private int freeCount;
+
+    private final Map<String, Integer> slotByAddressId = new HashMap<>();
+    private final Map<Integer, Cell> cells = new HashMap<>();
+
+    private volatile boolean ready;
+
+    public record Hit(String addressId, String branchId, double distanceKm) {
+    }
+
+    /**
+     * Loads the coordinates of every branch address once the application has started
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        // Locked before the query runs, an address committed meanwhile is put once the load is done
+        lock.writeLock().lock();
+        try {
+            clear();
+            try (Stream<Object[]> rows = addressRepo.streamBranchCoordinates()) {
+                rows.forEach(row -> add((String) row[0], (String) row[1], (BigDecimal) row[2], (BigDecimal) row[3]));
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Add an address to the index or move an indexed address
+     */
+    public void put(String addressId, String branchId, BigDecimal latitude, BigDecimal longitude) {
+        lock.writeLock().lock();
+        try {
+            removeSlot(addressId);
+            add(addressId, branchId, latitude, longitude);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String addressId) {
+        lock.writeLock().lock();
+        try {
+            removeSlot(addressId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Find branches within a radius of a point, nearest first
+     * @param latitude latitude of the point
+     * @param longitude longitude of the point
+     * @param radiusKm search radius in kilometres
+     * @param limit maximum number of hits to return
+     * @return hits sorted by distance
+     */
+    public List<Hit> withinRadius(double latitude, double longitude, double radiusKm, int limit) {
+        lock.readLock().lock();
+        try {
+            TopK topK = new TopK(limit);
+            collect(latitude, longitude, radiusKm, topK);
+            return topK.toHits();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Find the k branches nearest to a point
+     * @param latitude latitude of the point
+     * @param longitude longitude of the point
+     * @param k number of branches to return
+     * @return up to k hits sorted by distance
+     */
+    public List<Hit> nearest(double latitude, double longitude, int k) {
+        lock.readLock().lock();
+        try {
+            int size = slotByAddressId.size();
+            double radiusKm = CELL_DEGREES * KM_PER_DEGREE;
+            while (true) {
+                TopK topK = new TopK(k);
+                collect(latitude, longitude, radiusKm, topK);
+                // Everything inside the radius is exact, so k hits inside it are the k nearest
+                if (topK.seen >= k || topK.seen == size || radiusKm >= Math.PI * EARTH_RADIUS_KM) {
+                    return topK.toHits();
+                }
+                // Grow faster through empty areas so sparse regions need few rounds
+                radiusKm *= topK.seen == 0 ? 4 : 2;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Helper method to offer every point within the radius to the top-k heap.
+     * Must be called with the read lock held.
+     */
+    private void collect(double latitude, double longitude, double radiusKm, TopK topK) {
+        double latSpan = radiusKm / KM_PER_DEGREE;
+        int minLatCell = latCell(Math.max(-90, latitude - latSpan));
+        int maxLatCell = latCell(Math.min(90, latitude + latSpan));
+
+        double maxAbsLat = Math.min(90, Math.abs(latitude) + latSpan);
+        double cos = Math.cos(Math.toRadians(maxAbsLat));
+        boolean allLongitudes = cos < 1e-6 || radiusKm / (KM_PER_DEGREE * cos) >= 180;
+        int firstLonCell = 0;
+        int lonCellCount = LON_CELLS;
+        if (!allLongitudes) {
+            double lonSpan = radiusKm / (KM_PER_DEGREE * cos);
+            firstLonCell = lonCell(longitude - lonSpan);
+            lonCellCount = Math.min(LON_CELLS, (int) Math.ceil(2 * lonSpan / CELL_DEGREES) + 2);
+        }
+
+        // Squared chord length grows with the great-circle distance, compare on that
+        double cosLat = Math.cos(Math.toRadians(latitude));
+        double[] origin = {
+                cosLat * Math.cos(Math.toRadians(longitude)),
+                cosLat * Math.sin(Math.toRadians(longitude)),
+                Math.sin(Math.toRadians(latitude))
+        };
+        double halfChord = Math.sin(Math.min(Math.PI, radiusKm / EARTH_RADIUS_KM) / 2);
+        double maxChordSquared = 4 * halfChord * halfChord;
+
+        long boxCells = (long) (maxLatCell - minLatCell + 1) * lonCellCount;
+        if (boxCells > cells.size()) {
+            // Wide box over a sparse grid, cheaper to walk the occupied cells
+            for (Map.Entry<Integer, Cell> entry : cells.entrySet()) {
+                int key = entry.getKey();
+                int latCell = key / LON_CELLS;
+                int lonOffset = Math.floorMod(key % LON_CELLS - firstLonCell, LON_CELLS);
+                if (latCell >= minLatCell && latCell <= maxLatCell && lonOffset < lonCellCount) {
+                    scan(entry.getValue(), origin, maxChordSquared, topK);
+                }
+            }
+            return;
+        }
+
+        for (int latCell = minLatCell; latCell <= maxLatCell; latCell++) {
+            for (int i = 0; i < lonCellCount; i++) {
+                Cell cell = cells.get(latCell * LON_CELLS + (firstLonCell + i) % LON_CELLS);
+                if (cell != null) {
+                    scan(cell, origin, maxChordSquared, topK);
+                }
+            }
+        }
+    }
+
+    private void scan(Cell cell, double[] origin, double maxChordSquared, TopK topK) {
+        for (int j = 0; j < cell.size; j++) {
+            int slot = cell.slots[j];
+            double dx = xs[slot] - origin[0];
+            double dy = ys[slot] - origin[1];
+            double dz = zs[slot] - origin[2];
+            double chordSquared = dx * dx + dy * dy + dz * dz;
+            if (chordSquared <= maxChordSquared) {
+                topK.offer(chordSquared, slot);
+            }
+        }
+    }
+
+    private static double chordToKm(double chordSquared) {
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(chordSquared) / 2));
+    }
+
+    private static int latCell(double latitude) {
+        return Math.min(LAT_CELLS - 1, (int) Math.floor((latitude + 90) / CELL_DEGREES));
+    }
+
+    private static int lonCell(double longitude) {
+        int cell = (int) Math.floor((longitude + 180) / CELL_DEGREES) % LON_CELLS;
+        return cell < 0 ? cell + LON_CELLS : cell;
+    }
+
+    private void add(String addressId, String branchId, BigDecimal latitude, BigDecimal longitude) {
+        if (addressId == null || latitude == null || longitude == null) {
+            return;
+        }
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            if (slotCount == xs.length) {
+                int capacity = slotCount * 2;
+                xs = Arrays.copyOf(xs, capacity);
+                ys = Arrays.copyOf(ys, capacity);
+                zs = Arrays.copyOf(zs, capacity);
+                addressIds = Arrays.copyOf(addressIds, capacity);
+                branchIds = Arrays.copyOf(branchIds, capacity);
+                cellOfSlot = Arrays.copyOf(cellOfSlot, capacity);
+            }
+            slot = slotCount++;
+        }
+        double lat = latitude.doubleValue();
+        double lon = longitude.doubleValue();
+        int cellKey = latCell(lat) * LON_CELLS + lonCell(lon);
+        double cosLat = Math.cos(Math.toRadians(lat));
+        xs[slot] = cosLat * Math.cos(Math.toRadians(lon));
+        ys[slot] = cosLat * Math.sin(Math.toRadians(lon));
+        zs[slot] = Math.sin(Math.toRadians(lat));
+        addressIds[slot] = addressId;
+        branchIds[slot] = branchId;
+        cellOfSlot[slot] = cellKey;
+        slotByAddressId.put(addressId, slot);
+        cells.computeIfAbsent(cellKey, k -> new Cell()).add(slot);
+    }
+
+    private void removeSlot(String addressId) {
+        Integer slot = slotByAddressId.remove(addressId);
+        if (slot == null) {
+            return;
+        }
+        Cell cell = cells.get(cellOfSlot[slot]);
+        if (cell != null) {
+            cell.remove(slot);
+            if (cell.size == 0) {
+                cells.remove(cellOfSlot[slot]);
+            }
+        }
+        addressIds[slot] = null;
+        branchIds[slot] = null;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    private void clear() {
+        xs = new double[1024];
+        ys = new double[1024];
+        zs = new double[1024];
+        addressIds = new String[1024];
+        branchIds = new String[1024];
+        cellOfSlot = new int[1024];
+        slotCount = 0;
+        freeCount = 0;
+        slotByAddressId.clear();
+        cells.clear();
+    }
+
+    /**
+     * Bounded max-heap on squared chord length that keeps the k closest slots seen so far
+     */
+    private final class TopK {
+        private final int k;
+        private final double[] distances;
+        private final int[] slots;
+        private int size;
+        private int seen;
+
+        private TopK(int k) {
+            this.k = Math.max(0, k);
+            this.distances = new double[this.k];
+            this.slots = new int[this.k];
+        }
+
+        private void offer(double distance, int slot) {
+            seen++;
+            if (size < k) {
+                int i = size++;
+                while (i > 0 && distances[(i - 1) / 2] < distance) {
+                    distances[i] = distances[(i - 1) / 2];
+                    slots[i] = slots[(i - 1) / 2];
+                    i = (i - 1) / 2;
+                }
+                distances[i] = distance;
+                slots[i] = slot;
+            } else if (k > 0 && distance < distances[0]) {
+                siftDown(distance, slot);
+            }
+        }
+
+        private void siftDown(double distance, int slot) {
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && distances[child + 1] > distances[child]) {
+                    child++;
+                }
+                if (distances[child] <= distance) {
+                    break;
+                }
+                distances[i] = distances[child];
+                slots[i] = slots[child];
+                i = child;
+            }
+            distances[i] = distance;
+            slots[i] = slot;
+        }
+
+        private List<Hit> toHits() {
+            Hit[] hits = new Hit[size];
+            // Pop the farthest first to fill the array from the back
+            for (int n = size; n > 0; n--) {
+                int slot = slots[0];
+                double distance = distances[0];
+                size--;
+                if (size > 0) {
+                    siftDown(distances[size], slots[size]);
+                }
+                hits[n - 1] = new Hit(addressIds[slot], branchIds[slot], chordToKm(distance));
+            }
+            return Arrays.asList(hits);
+        }
+    }
+
+    /**
+     * Unordered slots of one grid cell
+     */
+    private static final class Cell {
+        private int[] slots = new int[4];
+        private int size;
+
+        private void add(int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+
+        private void remove(int slot) {
+            for (int i = 0; i < size; i++) {
+                if (slots[i] == slot) {
+                    slots[i] = slots[--size];
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,391 @@
+package com.cpd.hotel_system.hotel_management_service_api.index;
+
+import com.cpd.hotel_system.hotel_management_service_api.repo.HotelRepo;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntConsumer;
+import java.util.stream.Stream;
+
+/**
+ * In-memory trigram index over the names of active hotels.
+ * Answers "name contains text" searches with the page and the total count
+ * from a single lookup instead of a LIKE '%text%' table scan.
+ */
+@Component
+@RequiredArgsConstructor
+public class HotelSearchIndex {
+
+    private static final int GRAM = 3;
+
+    private final HotelRepo hotelRepo;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Docs docs = new Docs();
+
+    // Changes made while load() builds its fresh docs, replayed onto them before the swap
+    private List<String[]> pendingChanges;
+
+    private volatile boolean ready;
+
+    public record SearchResult(List<String> hotelIds, long total) {
+    }
+
+    /**
+     * Loads every active hotel name once the application has started.
+     * The names are read into fresh docs without holding the lock, puts and removes made meanwhile
+     * are applied to the current docs and recorded, then replayed onto the fresh docs before they are swapped in.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Docs fresh = new Docs();
+        try (Stream<Object[]> rows = hotelRepo.streamActiveHotelNames()) {
+            rows.forEach(row -> fresh.add((String) row[0], (String) row[1]));
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingChanges = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            // Replayed in order, a change that the snapshot already holds is applied again harmlessly
+            for (String[] change : pendingChanges) {
+                fresh.removeDoc(change[0]);
+                if (change[1] != null) {
+                    fresh.add(change[0], change[1]);
+                }
+            }
+            fresh.compactIfNeeded();
+            pendingChanges = null;
+            docs = fresh;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Add a hotel to the index or replace the name of an indexed hotel
+     */
+    public void put(String hotelId, String hotelName) {
+        lock.writeLock().lock();
+        try {
+            docs.removeDoc(hotelId);
+            docs.add(hotelId, hotelName);
+            docs.compactIfNeeded();
+            if (pendingChanges != null) {
+                pendingChanges.add(new String[]{hotelId, hotelName});
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a hotel from the index, e.g. when it is deleted or deactivated
+     */
+    public void remove(String hotelId) {
+        lock.writeLock().lock();
+        try {
+            docs.removeDoc(hotelId);
+            docs.compactIfNeeded();
+            if (pendingChanges != null) {
+                pendingChanges.add(new String[]{hotelId, null});
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Find active hotels whose name contains the given text (case-insensitive)
+     * @param searchText the text to look for, blank matches every hotel
+     * @param offset number of matches to skip
+     * @param limit maximum number of hotel ids to return
+     * @return the requested slice of hotel ids and the total number of matches
+     */
+    public SearchResult search(String searchText, long offset, int limit) {
+        String text = searchText == null ? "" : searchText.trim().toLowerCase(Locale.ROOT);
+        List<String> page = new ArrayList<>(Math.max(0, Math.min(limit, 256)));
+
+        lock.readLock().lock();
+        try {
+            Docs docs = this.docs;
+            BitSet live = docs.live;
+            String[] hotelIds = docs.hotelIds;
+            if (text.isEmpty()) {
+                // Every live hotel matches, skip straight to the requested slice
+                int doc = live.nextSetBit(0);
+                for (long skipped = 0; doc >= 0 && skipped < offset; skipped++) {
+                    doc = live.nextSetBit(doc + 1);
+                }
+                for (; doc >= 0 && page.size() < limit; doc = live.nextSetBit(doc + 1)) {
+                    page.add(hotelIds[doc]);
+                }
+                return new SearchResult(page, live.cardinality());
+            }
+
+            long[] counter = new long[1];
+            docs.forEachMatch(text, doc -> {
+                if (counter[0] >= offset && page.size() < limit) {
+                    page.add(hotelIds[doc]);
+                }
+                counter[0]++;
+            });
+            return new SearchResult(page, counter[0]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Keyset variant of {@link #search}: matches are ordered by hotel id
+     * @param searchText the text to look for, blank matches every hotel
+     * @param afterHotelId the last hotel id of the previous page, empty for the first page
+     * @param limit maximum number of hotel ids to return
+     * @return hotel ids greater than afterHotelId in ascending order and the total number of matches
+     */
+    public SearchResult searchAfter(String searchText, String afterHotelId, int limit) {
+        String text = searchText == null ? "" : searchText.trim().toLowerCase(Locale.ROOT);
+        String after = afterHotelId == null ? "" : afterHotelId;
+
+        lock.readLock().lock();
+        try {
+            Docs docs = this.docs;
+            String[] hotelIds = docs.hotelIds;
+            TreeMap<String, Integer> docByHotelId = docs.docByHotelId;
+            if (text.isEmpty()) {
+                // Seek on the sorted id map, cost does not depend on how deep the page is
+                List<String> page = new ArrayList<>(Math.max(0, Math.min(limit, 256)));
+                for (String hotelId : docByHotelId.tailMap(after, false).keySet()) {
+                    if (page.size() >= limit) {
+                        break;
+                    }
+                    page.add(hotelId);
+                }
+                return new SearchResult(page, docByHotelId.size());
+            }
+
+            // Keep the smallest ids after the cursor in a bounded max-heap
+            PriorityQueue<String> heap = new PriorityQueue<>(Comparator.reverseOrder());
+            long[] counter = new long[1];
+            docs.forEachMatch(text, doc -> {
+                counter[0]++;
+                String hotelId = hotelIds[doc];
+                if (limit <= 0 || hotelId.compareTo(after) <= 0) {
+                    return;
+                }
+                if (heap.size() < limit) {
+                    heap.add(hotelId);
+                } else if (hotelId.compareTo(heap.peek()) < 0) {
+                    heap.poll();
+                    heap.add(hotelId);
+                }
+            });
+            List<String> page = new ArrayList<>(heap);
+            Collections.sort(page);
+            return new SearchResult(page, counter[0]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Helper method to pack the distinct trigrams of a lower-cased text into longs
+     */
+    private static long[] grams(String text) {
+        if (text.length() < GRAM) {
+            return new long[0];
+        }
+        long[] grams = new long[text.length() - GRAM + 1];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+        return Arrays.stream(grams).distinct().toArray();
+    }
+
+    /**
+     * The indexed names; replaced as a whole when the index is loaded
+     */
+    private static final class Docs {
+        // doc id -> hotel id / lower-cased name; a doc id is never reused until compaction
+        private String[] hotelIds = new String[1024];
+        private String[] names = new String[1024];
+        private final BitSet live = new BitSet();
+        private int docCount;
+        private int deletedCount;
+
+        // sorted so that keyset pages can seek on the hotel id
+        private final TreeMap<String, Integer> docByHotelId = new TreeMap<>();
+        private final Map<Long, Postings> postings = new HashMap<>();
+
+        /**
+         * Helper method to visit, in doc id order, every live doc whose name contains the text.
+         * Must be called with the read lock held.
+         */
+        private void forEachMatch(String text, IntConsumer consumer) {
+            if (text.length() < GRAM) {
+                // Too short for trigrams, verify every live name
+                for (int doc = live.nextSetBit(0); doc >= 0; doc = live.nextSetBit(doc + 1)) {
+                    if (names[doc].contains(text)) {
+                        consumer.accept(doc);
+                    }
+                }
+                return;
+            }
+
+            for (int doc : candidates(text)) {
+                if (doc < 0) {
+                    break;
+                }
+                if (live.get(doc) && names[doc].contains(text)) {
+                    consumer.accept(doc);
+                }
+            }
+        }
+
+        /**
+         * Helper method to intersect the postings of every trigram of the text.
+         * The returned array is terminated by -1 when shorter than its length.
+         */
+        private int[] candidates(String text) {
+            List<Postings> lists = new ArrayList<>();
+            for (long gram : grams(text)) {
+                Postings list = postings.get(gram);
+                if (list == null) {
+                    return new int[0];
+                }
+                lists.add(list);
+            }
+            lists.sort((a, b) -> Integer.compare(a.size, b.size));
+
+            int[] result = Arrays.copyOf(lists.get(0).docs, lists.get(0).size);
+            int resultSize = result.length;
+            for (int i = 1; i < lists.size() && resultSize > 0; i++) {
+                Postings other = lists.get(i);
+                int a = 0;
+                int b = 0;
+                int out = 0;
+                while (a < resultSize && b < other.size) {
+                    if (result[a] == other.docs[b]) {
+                        result[out++] = result[a];
+                        a++;
+                        b++;
+                    } else if (result[a] < other.docs[b]) {
+                        a++;
+                    } else {
+                        b++;
+                    }
+                }
+                resultSize = out;
+            }
+            if (resultSize < result.length) {
+                result[resultSize] = -1;
+            }
+            return result;
+        }
+
+        private void add(String hotelId, String hotelName) {
+            if (hotelId == null || hotelName == null) {
+                return;
+            }
+            if (docCount == hotelIds.length) {
+                hotelIds = Arrays.copyOf(hotelIds, docCount * 2);
+                names = Arrays.copyOf(names, docCount * 2);
+            }
+            int doc = docCount++;
+            String name = hotelName.toLowerCase(Locale.ROOT);
+            hotelIds[doc] = hotelId;
+            names[doc] = name;
+            live.set(doc);
+            docByHotelId.put(hotelId, doc);
+            for (long gram : grams(name)) {
+                postings.computeIfAbsent(gram, g -> new Postings()).add(doc);
+            }
+        }
+
+        private void removeDoc(String hotelId) {
+            Integer doc = docByHotelId.remove(hotelId);
+            if (doc != null) {
+                // Postings keep the stale doc id, it is filtered out by the live set
+                live.clear(doc);
+                names[doc] = null;
+                deletedCount++;
+            }
+        }
+
+        private void compactIfNeeded() {
+            if (deletedCount < 1024 || deletedCount < docCount / 2) {
+                return;
+            }
+            String[] oldIds = hotelIds;
+            String[] oldNames = names;
+            BitSet oldLive = (BitSet) live.clone();
+            clear();
+            for (int doc = oldLive.nextSetBit(0); doc >= 0; doc = oldLive.nextSetBit(doc + 1)) {
+                add(oldIds[doc], oldNames[doc]);
+            }
+        }
+
+        private void clear() {
+            hotelIds = new String[1024];
+            names = new String[1024];
+            live.clear();
+            docCount = 0;
+            deletedCount = 0;
+            docByHotelId.clear();
+            postings.clear();
+        }
+    }
+
+    /**
+     * Append-only, ascending list of doc ids for one trigram
+     */
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private int size;
+
+        private void add(int doc) {
+            if (size > 0 && docs[size - 1] == doc) {
+                return;
+            }
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+        }
+    }
+}
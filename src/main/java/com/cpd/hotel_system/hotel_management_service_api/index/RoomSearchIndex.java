@@ -0,0 +1,601 @@
+package com.cpd.hotel_system.hotel_management_service_api.index;
+
+import com.cpd.hotel_system.hotel_management_service_api.dto.request.RequestRoomSearchDto;
+import com.cpd.hotel_system.hotel_management_service_api.repo.FacilityRepo;
+import com.cpd.hotel_system.hotel_management_service_api.repo.RoomRepo;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Columnar in-memory index over rooms.
+ * Every filterable attribute lives in a primitive array indexed by slot, with
+ * bitmaps for availability and room type and per-branch slot lists, so a
+ * filtered, price-ordered page is answered without touching the database.
+ * Hotel and city are stored per branch, so moving a branch or changing its
+ * address is a single write.
+ * Facility names are interned into a dictionary and the room x facility bit
+ * matrix is kept per facility, so "has all of" is a word-wise AND of bitmaps.
+ */
+@Component
+@RequiredArgsConstructor
+public class RoomSearchIndex {
+
+    private static final int NONE = -1;
+    private static final int UNKNOWN = -2;
+
+    private final RoomRepo roomRepo;
+    private final FacilityRepo facilityRepo;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // slot -> room columns, freed slots are reused
+    private String[] roomIds = new String[1024];
+    private long[] priceCents = new long[1024];
+    private int[] bedCounts = new int[1024];
+    private int[] typeOfSlot = new int[1024];
+    private int[] branchOfSlot = new int[1024];
+    private final BitSet live = new BitSet();
+    private final BitSet available = new BitSet();
+    private int slotCount;
+    private int[] freeSlots = new int[64];
+    private int freeCount;
+    private final Map<String, Integer> slotByRoomId = new HashMap<>();
+
+    // dictionaries, ids are never reused
+    private final Map<String, Integer> typeDict = new HashMap<>();
+    private final List<BitSet> slotsByType = new ArrayList<>();
+    private final Map<String, Integer> branchDict = new HashMap<>();
+    private final List<SlotList> slotsByBranch = new ArrayList<>();
+    private int[] hotelOfBranch = new int[64];
+    private int[] cityOfBranch = new int[64];
+    private final Map<String, Integer> hotelDict = new HashMap<>();
+    private final Map<String, Integer> cityDict = new HashMap<>();
+    private final Map<String, Integer> facilityDict = new HashMap<>();
+    private final List<String> facilityNames = new ArrayList<>();
+    private final List<BitSet> slotsByFacility = new ArrayList<>();
+
+    private volatile boolean ready;
+
+    public record SearchResult(List<String> roomIds, long total) {
+    }
+
+    public record FacilityCount(int facilityId, String name, long roomCount) {
+    }
+
+    /**
+     * Loads every room with its branch, hotel, city and facilities once the application has started
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        lock.writeLock().lock();
+        try {
+            clear();
+            try (Stream<Object[]> rows = roomRepo.streamSearchColumns()) {
+                rows.forEach(row -> {
+                    int branch = branchSlot((String) row[5]);
+                    hotelOfBranch[branch] = dictId(hotelDict, (String) row[6]);
+                    cityOfBranch[branch] = dictId(cityDict, normalize((String) row[7]));
+                    add((String) row[0], (BigDecimal) row[1], (Integer) row[2], (String) row[3],
+                            (Boolean) row[4], branch);
+                });
+            }
+            try (Stream<Object[]> rows = facilityRepo.streamExportColumns()) {
+                rows.forEach(row -> {
+                    Integer slot = slotByRoomId.get((String) row[1]);
+                    if (slot != null) {
+                        setFacility(slot, (String) row[2]);
+                    }
+                });
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Add a room to the index or replace the columns of an indexed room.
+     * A null hotel or city keeps what is already known for the branch.
+     */
+    public void put(String roomId, BigDecimal price, int bedCount, String roomType, boolean isAvailable,
+                    String branchId, String hotelId, String city) {
+        lock.writeLock().lock();
+        try {
+            // Room columns change, its facilities don't
+            Integer oldSlot = slotByRoomId.get(roomId);
+            int[] facilities = oldSlot == null ? new int[0] : facilitiesOf(oldSlot);
+            removeSlot(roomId);
+            int branch = branchSlot(branchId);
+            if (hotelId != null) {
+                hotelOfBranch[branch] = dictId(hotelDict, hotelId);
+            }
+            if (city != null) {
+                cityOfBranch[branch] = dictId(cityDict, normalize(city));
+            }
+            add(roomId, price, bedCount, roomType, isAvailable, branch);
+            Integer slot = slotByRoomId.get(roomId);
+            for (int facility : facilities) {
+                slotsByFacility.get(facility).set(slot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add one facility to an indexed room, unknown rooms are ignored
+     */
+    public void addFacility(String roomId, String name) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotByRoomId.get(roomId);
+            if (slot != null) {
+                setFacility(slot, name);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replace every facility of an indexed room, unknown rooms are ignored
+     */
+    public void setFacilities(String roomId, Collection<String> names) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotByRoomId.get(roomId);
+            if (slot != null) {
+                clearFacilities(slot);
+                names.forEach(name -> setFacility(slot, name));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return every interned facility with the number of indexed rooms having it, by facility id
+     */
+    public List<FacilityCount> facilityCatalog() {
+        lock.readLock().lock();
+        try {
+            List<FacilityCount> catalog = new ArrayList<>(facilityNames.size());
+            for (int facility = 0; facility < facilityNames.size(); facility++) {
+                catalog.add(new FacilityCount(facility, facilityNames.get(facility),
+                        slotsByFacility.get(facility).cardinality()));
+            }
+            return catalog;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void remove(String roomId) {
+        lock.writeLock().lock();
+        try {
+            removeSlot(roomId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Move every room of a branch to another hotel
+     */
+    public void updateBranchHotel(String branchId, String hotelId) {
+        lock.writeLock().lock();
+        try {
+            hotelOfBranch[branchSlot(branchId)] = dictId(hotelDict, hotelId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Change the city of every room of a branch, e.g. when its address changes
+     */
+    public void updateBranchCity(String branchId, String city) {
+        lock.writeLock().lock();
+        try {
+            cityOfBranch[branchSlot(branchId)] = dictId(cityDict, normalize(city));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Find rooms matching every given criterion, ordered by price
+     * @param criteria the filters, null fields are ignored
+     * @param offset number of matches to skip
+     * @param limit maximum number of room ids to return
+     * @return the requested slice of room ids and the total number of matches
+     */
+    public SearchResult search(RequestRoomSearchDto criteria, long offset, int limit) {
+        long minPrice = criteria.getMinPrice() == null ? Long.MIN_VALUE : toCents(criteria.getMinPrice());
+        long maxPrice = criteria.getMaxPrice() == null ? Long.MAX_VALUE : toCents(criteria.getMaxPrice());
+        int minBeds = criteria.getMinBedCount() == null ? Integer.MIN_VALUE : criteria.getMinBedCount();
+        int maxBeds = criteria.getMaxBedCount() == null ? Integer.MAX_VALUE : criteria.getMaxBedCount();
+        boolean descending = "desc".equalsIgnoreCase(criteria.getPriceOrder());
+
+        lock.readLock().lock();
+        try {
+            // An unknown dictionary value can't match anything
+            int type = lookup(typeDict, normalize(criteria.getRoomType()));
+            int branch = lookup(branchDict, criteria.getBranchId());
+            int hotel = lookup(hotelDict, criteria.getHotelId());
+            int city = lookup(cityDict, normalize(criteria.getCity()));
+            if (type == UNKNOWN || branch == UNKNOWN || hotel == UNKNOWN || city == UNKNOWN) {
+                return new SearchResult(List.of(), 0);
+            }
+
+            // Rooms having every requested facility, null when no facility is asked for
+            BitSet withFacilities = null;
+            if (criteria.getFacilities() != null) {
+                for (String name : criteria.getFacilities()) {
+                    int facility = lookup(facilityDict, normalize(name));
+                    if (facility == UNKNOWN) {
+                        return new SearchResult(List.of(), 0);
+                    }
+                    if (facility == NONE) {
+                        continue;
+                    }
+                    if (withFacilities == null) {
+                        withFacilities = (BitSet) slotsByFacility.get(facility).clone();
+                    } else {
+                        withFacilities.and(slotsByFacility.get(facility));
+                    }
+                }
+            }
+
+            // No page holds more rooms than are indexed, a page past the end only counts the matches
+            int liveCount = live.cardinality();
+            int k = offset >= liveCount ? 0 : (int) Math.min(offset + Math.max(0, limit), liveCount);
+            TopK topK = new TopK(k, descending);
+            Boolean isAvailable = criteria.getAvailable();
+            if (branch >= 0 || hotel >= 0 || city >= 0) {
+                // Branch, hotel and city are branch attributes, walk the slot lists of matching branches only
+                int from = branch >= 0 ? branch : 0;
+                int to = branch >= 0 ? branch + 1 : slotsByBranch.size();
+                for (int b = from; b < to; b++) {
+                    if ((hotel >= 0 && hotelOfBranch[b] != hotel) || (city >= 0 && cityOfBranch[b] != city)) {
+                        continue;
+                    }
+                    SlotList slots = slotsByBranch.get(b);
+                    for (int i = 0; i < slots.size; i++) {
+                        int slot = slots.slots[i];
+                        if ((type < 0 || typeOfSlot[slot] == type)
+                                && (withFacilities == null || withFacilities.get(slot))
+                                && (isAvailable == null || available.get(slot) == isAvailable)
+                                && matches(slot, minPrice, maxPrice, minBeds, maxBeds)) {
+                            topK.offer(slot);
+                        }
+                    }
+                }
+            } else {
+                BitSet candidates;
+                if (withFacilities != null) {
+                    // Facility bits are only ever set on live slots
+                    candidates = withFacilities;
+                    if (type >= 0) {
+                        candidates.and(slotsByType.get(type));
+                    }
+                } else {
+                    candidates = (BitSet) (type >= 0 ? slotsByType.get(type) : live).clone();
+                }
+                if (isAvailable != null) {
+                    if (isAvailable) {
+                        candidates.and(available);
+                    } else {
+                        candidates.andNot(available);
+                    }
+                }
+                for (int slot = candidates.nextSetBit(0); slot >= 0; slot = candidates.nextSetBit(slot + 1)) {
+                    if (matches(slot, minPrice, maxPrice, minBeds, maxBeds)) {
+                        topK.offer(slot);
+                    }
+                }
+            }
+
+            int[] ordered = topK.drain();
+            int from = (int) Math.min(offset, ordered.length);
+            List<String> page = new ArrayList<>(ordered.length - from);
+            for (int i = from; i < ordered.length; i++) {
+                page.add(roomIds[ordered[i]]);
+            }
+            return new SearchResult(page, topK.seen);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean matches(int slot, long minPrice, long maxPrice, int minBeds, int maxBeds) {
+        long price = priceCents[slot];
+        int beds = bedCounts[slot];
+        return price >= minPrice && price <= maxPrice && beds >= minBeds && beds <= maxBeds;
+    }
+
+    private void add(String roomId, BigDecimal price, Integer bedCount, String roomType, Boolean isAvailable,
+                     int branch) {
+        if (roomId == null) {
+            return;
+        }
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            if (slotCount == roomIds.length) {
+                int capacity = slotCount * 2;
+                roomIds = Arrays.copyOf(roomIds, capacity);
+                priceCents = Arrays.copyOf(priceCents, capacity);
+                bedCounts = Arrays.copyOf(bedCounts, capacity);
+                typeOfSlot = Arrays.copyOf(typeOfSlot, capacity);
+                branchOfSlot = Arrays.copyOf(branchOfSlot, capacity);
+            }
+            slot = slotCount++;
+        }
+        int type = dictId(typeDict, normalize(roomType));
+        if (type == slotsByType.size()) {
+            slotsByType.add(new BitSet());
+        }
+
+        roomIds[slot] = roomId;
+        // Rooms without a price sort last and only match an open price range
+        priceCents[slot] = price == null ? Long.MAX_VALUE : toCents(price);
+        bedCounts[slot] = bedCount == null ? 0 : bedCount;
+        typeOfSlot[slot] = type;
+        branchOfSlot[slot] = branch;
+        live.set(slot);
+        available.set(slot, Boolean.TRUE.equals(isAvailable));
+        if (type >= 0) {
+            slotsByType.get(type).set(slot);
+        }
+        slotsByBranch.get(branch).add(slot);
+        slotByRoomId.put(roomId, slot);
+    }
+
+    private void removeSlot(String roomId) {
+        Integer slot = slotByRoomId.remove(roomId);
+        if (slot == null) {
+            return;
+        }
+        live.clear(slot);
+        available.clear(slot);
+        clearFacilities(slot);
+        if (typeOfSlot[slot] >= 0) {
+            slotsByType.get(typeOfSlot[slot]).clear(slot);
+        }
+        slotsByBranch.get(branchOfSlot[slot]).remove(slot);
+        roomIds[slot] = null;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    /**
+     * Helper method to intern a facility name and set its bit for a slot
+     */
+    private void setFacility(int slot, String name) {
+        String key = normalize(name);
+        if (key == null || key.isEmpty()) {
+            return;
+        }
+        int facility = dictId(facilityDict, key);
+        if (facility == slotsByFacility.size()) {
+            slotsByFacility.add(new BitSet());
+            facilityNames.add(name.trim());
+        }
+        slotsByFacility.get(facility).set(slot);
+    }
+
+    private void clearFacilities(int slot) {
+        for (BitSet rooms : slotsByFacility) {
+            rooms.clear(slot);
+        }
+    }
+
+    private int[] facilitiesOf(int slot) {
+        int[] facilities = new int[slotsByFacility.size()];
+        int count = 0;
+        for (int facility = 0; facility < slotsByFacility.size(); facility++) {
+            if (slotsByFacility.get(facility).get(slot)) {
+                facilities[count++] = facility;
+            }
+        }
+        return Arrays.copyOf(facilities, count);
+    }
+
+    /**
+     * Helper method to get or create the dictionary slot of a branch
+     */
+    private int branchSlot(String branchId) {
+        int branch = dictId(branchDict, branchId == null ? "" : branchId);
+        if (branch == slotsByBranch.size()) {
+            slotsByBranch.add(new SlotList());
+            if (branch == hotelOfBranch.length) {
+                hotelOfBranch = Arrays.copyOf(hotelOfBranch, branch * 2);
+                cityOfBranch = Arrays.copyOf(cityOfBranch, branch * 2);
+            }
+            hotelOfBranch[branch] = NONE;
+            cityOfBranch[branch] = NONE;
+        }
+        return branch;
+    }
+
+    private static int dictId(Map<String, Integer> dict, String value) {
+        if (value == null) {
+            return NONE;
+        }
+        Integer id = dict.get(value);
+        if (id == null) {
+            id = dict.size();
+            dict.put(value, id);
+        }
+        return id;
+    }
+
+    /**
+     * @return the dictionary id, NONE when no filter is given and UNKNOWN when the value is not indexed
+     */
+    private static int lookup(Map<String, Integer> dict, String value) {
+        if (value == null || value.isBlank()) {
+            return NONE;
+        }
+        Integer id = dict.get(value);
+        return id == null ? UNKNOWN : id;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static long toCents(BigDecimal price) {
+        return price.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue();
+    }
+
+    private void clear() {
+        roomIds = new String[1024];
+        priceCents = new long[1024];
+        bedCounts = new int[1024];
+        typeOfSlot = new int[1024];
+        branchOfSlot = new int[1024];
+        live.clear();
+        available.clear();
+        slotCount = 0;
+        freeCount = 0;
+        slotByRoomId.clear();
+        typeDict.clear();
+        slotsByType.clear();
+        branchDict.clear();
+        slotsByBranch.clear();
+        hotelOfBranch = new int[64];
+        cityOfBranch = new int[64];
+        hotelDict.clear();
+        cityDict.clear();
+        facilityDict.clear();
+        facilityNames.clear();
+        slotsByFacility.clear();
+    }
+
+    /**
+     * Bounded heap that keeps the first k slots in (price, slot) order
+     */
+    private final class TopK {
+        private final int k;
+        private final boolean descending;
+        private int[] heap;
+        private int size;
+        private long seen;
+
+        private TopK(int k, boolean descending) {
+            this.k = Math.max(0, k);
+            this.descending = descending;
+            this.heap = new int[Math.max(1, Math.min(this.k, 1024))];
+        }
+
+        /**
+         * @return true when slot a comes after slot b in the result order
+         */
+        private boolean after(int a, int b) {
+            if (priceCents[a] != priceCents[b]) {
+                return descending ? priceCents[a] < priceCents[b] : priceCents[a] > priceCents[b];
+            }
+            return a > b;
+        }
+
+        private void offer(int slot) {
+            seen++;
+            if (size < k) {
+                if (size == heap.length) {
+                    heap = Arrays.copyOf(heap, Math.min(k, heap.length * 2));
+                }
+                // The root holds the last slot in result order
+                int i = size++;
+                while (i > 0 && after(slot, heap[(i - 1) / 2])) {
+                    heap[i] = heap[(i - 1) / 2];
+                    i = (i - 1) / 2;
+                }
+                heap[i] = slot;
+            } else if (k > 0 && after(heap[0], slot)) {
+                siftDown(slot);
+            }
+        }
+
+        private void siftDown(int slot) {
+            int[] h = heap;
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && after(h[child + 1], h[child])) {
+                    child++;
+                }
+                if (!after(h[child], slot)) {
+                    break;
+                }
+                h[i] = h[child];
+                i = child;
+            }
+            h[i] = slot;
+        }
+
+        private int[] drain() {
+            int[] ordered = new int[size];
+            for (int n = size; n > 0; n--) {
+                ordered[n - 1] = heap[0];
+                size--;
+                if (size > 0) {
+                    siftDown(heap[size]);
+                }
+            }
+            return ordered;
+        }
+    }
+
+    /**
+     * Unordered slots of one branch
+     */
+    private static final class SlotList {
+        private int[] slots = new int[4];
+        private int size;
+
+        private void add(int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+
+        private void remove(int slot) {
+            for (int i = 0; i < size; i++) {
+                if (slots[i] == slot) {
+                    slots[i] = slots[--size];
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -2,9 +2,18 @@ package com.cpd.hotel_system.hotel_management_service_api.repo;
 
 import com.cpd.hotel_system.hotel_management_service_api.entity.Address;
 import com.cpd.hotel_system.hotel_management_service_api.entity.Branch;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 public interface AddressRepo  extends JpaRepository<Address, String> {
 
@@ -22,4 +31,44 @@ public interface AddressRepo  extends JpaRepository<Address, String> {
      */
     Optional<Address> findByBranch(Branch branch);
 
+    /**
+     * Stream the coordinates of every address that belongs to a branch
+     * @return rows of [addressId, branchId, latitude, longitude]
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT a.addressId, b.branchId, a.latitude, a.longitude FROM Address a JOIN a.branch b")
+    Stream<Object[]> streamBranchCoordinates();
+
+    /**
+     * Find addresses by id together with their branches in one query
+     * @param addressIds the address ids
+     * @return the addresses, in no particular order
+     */
+    @Query("SELECT a FROM Address a JOIN FETCH a.branch WHERE a.addressId IN :addressIds")
+    List<Address> findAllWithBranchByAddressIdIn(@Param("addressIds") Collection<String> addressIds);
+
+    /**
+     * Find which of the given address ids exist
+     * @param addressIds the address ids to check
+     * @return the existing ids
+     */
+    @Query("SELECT a.addressId FROM Address a WHERE a.addressId IN :addressIds")
+    List<String> findExistingIds(@Param("addressIds") Collection<String> addressIds);
+
+    /**
+     * Find which of the given branches already have an address
+     * @param branchIds the branch ids
+     * @return the ids of branches with an address
+     */
+    @Query("SELECT a.branch.branchId FROM Address a WHERE a.branch.branchId IN :branchIds")
+    List<String> findBranchIdsWithAddress(@Param("branchIds") Collection<String> branchIds);
+
+    /**
+     * Stream the exported columns of every address, in id order
+     * @return rows of [addressId, branchId, addressLine, city, country, latitude, longitude], must be consumed inside a transaction
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT a.addressId, a.branch.branchId, a.addressLine, a.city, a.country, a.latitude, a.longitude " +
+            "FROM Address a ORDER BY a.addressId")
+    Stream<Object[]> streamExportColumns();
 }
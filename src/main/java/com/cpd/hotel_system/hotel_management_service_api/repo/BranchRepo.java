@@ -2,9 +2,21 @@ package com.cpd.hotel_system.hotel_management_service_api.repo;
 
 import com.cpd.hotel_system.hotel_management_service_api.entity.Branch;
 import com.cpd.hotel_system.hotel_management_service_api.entity.Hotel;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 public interface BranchRepo extends JpaRepository<Branch, String> {
     /**
@@ -40,5 +52,98 @@ public interface BranchRepo extends JpaRepository<Branch, String> {
      */
     Page<Branch> findAllByHotelAndBranchNameContainingIgnoreCase(
             Hotel hotel, String branchName, Pageable pageable);
-}
 
+    /**
+     * Keyset page of branches ordered by id
+     * @param branchId the id of the last branch of the previous page, empty for the first page
+     * @param limit maximum number of branches to return
+     * @return branches with an id greater than the given one
+     */
+    List<Branch> findAllByBranchIdGreaterThanOrderByBranchIdAsc(String branchId, Limit limit);
+
+    /**
+     * Keyset page of branches matching a branch name search, ordered by id
+     */
+    List<Branch> findAllByBranchNameContainingIgnoreCaseAndBranchIdGreaterThanOrderByBranchIdAsc(
+            String branchName, String branchId, Limit limit);
+
+    /**
+     * Keyset page of branches of a specific hotel, ordered by id
+     */
+    List<Branch> findAllByHotelAndBranchIdGreaterThanOrderByBranchIdAsc(
+            Hotel hotel, String branchId, Limit limit);
+
+    /**
+     * Keyset page of branches of a specific hotel matching a branch name search, ordered by id
+     */
+    List<Branch> findAllByHotelAndBranchNameContainingIgnoreCaseAndBranchIdGreaterThanOrderByBranchIdAsc(
+            Hotel hotel, String branchName, String branchId, Limit limit);
+
+    long countByBranchNameContainingIgnoreCase(String branchName);
+
+    long countByHotel(Hotel hotel);
+
+    long countByHotelAndBranchNameContainingIgnoreCase(Hotel hotel, String branchName);
+
+    /**
+     * Add a delta to the room count of a branch without loading it
+     * @param branchId the branch id
+     * @param delta the number of rooms added (positive) or removed (negative)
+     * @return number of updated rows
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Branch b SET b.roomCount = CASE WHEN b.roomCount + :delta < 0 THEN 0 ELSE b.roomCount + :delta END " +
+            "WHERE b.branchId = :branchId")
+    int adjustRoomCount(@Param("branchId") String branchId, @Param("delta") int delta);
+
+    /**
+     * Keyset page of branch ids with their hotel ids, used by the aggregate reconciler
+     * @param branchId the last branch id of the previous page, empty for the first page
+     * @param limit maximum number of rows
+     * @return rows of [branchId, hotelId] ordered by branch id
+     */
+    @Query(value = "SELECT branch_id, hotel_id FROM branch WHERE branch_id > ?1 ORDER BY branch_id LIMIT ?2",
+            nativeQuery = true)
+    List<Object[]> findIdsAfter(String branchId, int limit);
+
+    /**
+     * Recount the rooms of the given branches, only rows that drifted are written
+     * @param branchIds the branch ids
+     * @return number of corrected branches
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE branch b " +
+            "JOIN (SELECT b2.branch_id, COUNT(r.room_id) AS actual FROM branch b2 " +
+            "LEFT JOIN room r ON r.branch_id = b2.branch_id WHERE b2.branch_id IN (:branchIds) " +
+            "GROUP BY b2.branch_id) c ON c.branch_id = b.branch_id " +
+            "SET b.room_count = c.actual WHERE b.room_count <> c.actual",
+            nativeQuery = true)
+    int reconcileRoomCounts(@Param("branchIds") Collection<String> branchIds);
+
+    /**
+     * Find the hotel of each of the given branches, also tells which branch ids exist
+     * @param branchIds the branch ids
+     * @return rows of [branchId, hotelId]
+     */
+    @Query("SELECT b.branchId, b.hotel.hotelId FROM Branch b WHERE b.branchId IN :branchIds")
+    List<Object[]> findHotelIdsByBranchIdIn(@Param("branchIds") Collection<String> branchIds);
+
+    /**
+     * Find existing (hotel, branch name) pairs among the given hotels and names
+     * @param hotelIds the hotel ids
+     * @param branchNames the branch names
+     * @return rows of [hotelId, branchName]
+     */
+    @Query("SELECT b.hotel.hotelId, b.branchName FROM Branch b " +
+            "WHERE b.hotel.hotelId IN :hotelIds AND b.branchName IN :branchNames")
+    List<Object[]> findNamesByHotelIdInAndBranchNameIn(@Param("hotelIds") Collection<String> hotelIds,
+                                                       @Param("branchNames") Collection<String> branchNames);
+
+    /**
+     * Stream the exported columns of every branch, in id order
+     * @return rows of [branchId, hotelId, branchName, branchType, roomCount], must be consumed inside a transaction
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT b.branchId, b.hotel.hotelId, b.branchName, b.branchType, b.roomCount FROM Branch b ORDER BY b.branchId")
+    Stream<Object[]> streamExportColumns();
+}
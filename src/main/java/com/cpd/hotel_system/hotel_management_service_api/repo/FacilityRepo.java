@@ -2,9 +2,20 @@ package com.cpd.hotel_system.hotel_management_service_api.repo;
 
 import com.cpd.hotel_system.hotel_management_service_api.entity.Facility;
 import com.cpd.hotel_system.hotel_management_service_api.entity.Room;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 public interface FacilityRepo extends JpaRepository<Facility, Long> {
     /**
@@ -22,4 +33,52 @@ public interface FacilityRepo extends JpaRepository<Facility, Long> {
      * @return paginated list of facilities
      */
     Page<Facility> findAllByRoom(Room room, Pageable pageable);
-}
\ No newline at end of file
+
+    /**
+     * Keyset page of facilities ordered by id
+     * @param id the id of the last facility of the previous page, 0 for the first page
+     * @param limit maximum number of facilities to return
+     * @return facilities with an id greater than the given one
+     */
+    List<Facility> findAllByIdGreaterThanOrderByIdAsc(long id, Limit limit);
+
+    /**
+     * Keyset page of facilities of a specific room, ordered by id
+     */
+    List<Facility> findAllByRoomAndIdGreaterThanOrderByIdAsc(Room room, long id, Limit limit);
+
+    long countByRoom(Room room);
+
+    /**
+     * Find all facilities of the given rooms in a single query
+     * @param rooms the room entities
+     * @return facilities of every given room
+     */
+    List<Facility> findAllByRoomIn(Collection<Room> rooms);
+
+    /**
+     * Find existing (room, facility name) pairs among the given rooms and names
+     * @param roomIds the room ids
+     * @param names the facility names
+     * @return rows of [roomId, name]
+     */
+    @Query("SELECT f.room.roomId, f.name FROM Facility f WHERE f.room.roomId IN :roomIds AND f.name IN :names")
+    List<Object[]> findNamesByRoomIdInAndNameIn(@Param("roomIds") Collection<String> roomIds,
+                                               @Param("names") Collection<String> names);
+
+    /**
+     * Find the facility names of one room
+     * @param roomId the room id
+     * @return facility names of the room
+     */
+    @Query("SELECT f.name FROM Facility f WHERE f.room.roomId = :roomId")
+    List<String> findNamesByRoomId(@Param("roomId") String roomId);
+
+    /**
+     * Stream the exported columns of every facility, in id order
+     * @return rows of [id, roomId, name], must be consumed inside a transaction
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT f.id, f.room.roomId, f.name FROM Facility f ORDER BY f.id")
+    Stream<Object[]> streamExportColumns();
+}
@@ -0,0 +1,7 @@
+package com.cpd.hotel_system.hotel_management_service_api.repo;
+
+import com.cpd.hotel_system.hotel_management_service_api.entity.HotelDescription;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface HotelDescriptionRepo extends JpaRepository<HotelDescription, String> {
+}
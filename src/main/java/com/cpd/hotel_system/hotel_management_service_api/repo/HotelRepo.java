@@ -1,14 +1,30 @@
 package com.cpd.hotel_system.hotel_management_service_api.repo;
 
 import com.cpd.hotel_system.hotel_management_service_api.entity.Hotel;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 public interface HotelRepo extends JpaRepository<Hotel, String> {
 
-    @Query(value = "SELECT * FROM hotel WHERE hotel_name LIKE %?1% AND active_status=true ",
+    // Mapped columns only, so the old description column of existing schemas is never read
+    @Query(value = "SELECT hotel_id, hotel_name, star_rating, created_at, updated_at, active_status, starting_form " +
+            "FROM hotel WHERE hotel_name LIKE %?1% AND active_status=true ",
+            countQuery = "SELECT COUNT(*) FROM hotel WHERE hotel_name LIKE %?1% AND active_status=true ",
             nativeQuery = true)
     public Page<Hotel> searchAllHotels(String searchText, Pageable pageable);
 
@@ -17,4 +33,92 @@ public interface HotelRepo extends JpaRepository<Hotel, String> {
             nativeQuery = true)
     public long countAllHotels(String searchText);
 
+    @Query(value = "SELECT hotel_id, hotel_name, star_rating, created_at, updated_at, active_status, starting_form " +
+            "FROM hotel WHERE hotel_name LIKE %?1% AND active_status=true " +
+            "AND hotel_id > ?2 ORDER BY hotel_id LIMIT ?3",
+            nativeQuery = true)
+    public List<Hotel> searchAllHotelsAfter(String searchText, String hotelId, int limit);
+
+    /**
+     * Find hotels by id together with their branches in a single query
+     * @param hotelIds the hotel ids to load
+     * @return hotels with initialized branches, in no particular order
+     */
+    @EntityGraph(attributePaths = "branches")
+    List<Hotel> findAllByHotelIdIn(Collection<String> hotelIds);
+
+    /**
+     * Find a hotel together with its branches in a single query
+     * @param hotelId the hotel id
+     * @return Optional containing the hotel if found
+     */
+    @EntityGraph(attributePaths = "branches")
+    Optional<Hotel> findWithBranchesByHotelId(String hotelId);
+
+    /**
+     * Stream the id and name of every active hotel, used to build the search index
+     * @return stream of [hotelId, hotelName] pairs, must be consumed inside a transaction
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT h.hotelId, h.hotelName FROM Hotel h WHERE h.activeStatus = true")
+    Stream<Object[]> streamActiveHotelNames();
+
+    /**
+     * Lower the starting price of a hotel when a cheaper room appears.
+     * Zero means the hotel has no priced rooms yet.
+     * @param hotelId the hotel id
+     * @param price the price of the new or cheaper room
+     * @return number of updated rows
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Hotel h SET h.startingForm = :price " +
+            "WHERE h.hotelId = :hotelId AND (h.startingForm > :price OR h.startingForm = 0)")
+    int lowerStartingForm(@Param("hotelId") String hotelId, @Param("price") BigDecimal price);
+
+    /**
+     * Recompute the starting price of a hotel, but only when the removed or raised
+     * room price was the current minimum, which is the only case it can go up
+     * @param hotelId the hotel id
+     * @param price the previous price of the removed or changed room
+     * @return number of updated rows
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE hotel h SET h.starting_form = COALESCE((SELECT MIN(r.price) FROM room r " +
+            "JOIN branch b ON b.branch_id = r.branch_id WHERE b.hotel_id = h.hotel_id), 0) " +
+            "WHERE h.hotel_id = :hotelId AND h.starting_form = :price",
+            nativeQuery = true)
+    int recomputeStartingFormIfMin(@Param("hotelId") String hotelId, @Param("price") BigDecimal price);
+
+    /**
+     * Recompute the starting price of the given hotels, only rows that drifted are written
+     * @param hotelIds the hotel ids
+     * @return number of corrected hotels
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE hotel h " +
+            "JOIN (SELECT h2.hotel_id, COALESCE(MIN(r.price), 0) AS actual FROM hotel h2 " +
+            "LEFT JOIN branch b ON b.hotel_id = h2.hotel_id LEFT JOIN room r ON r.branch_id = b.branch_id " +
+            "WHERE h2.hotel_id IN (:hotelIds) GROUP BY h2.hotel_id) m ON m.hotel_id = h.hotel_id " +
+            "SET h.starting_form = m.actual WHERE h.starting_form <> m.actual",
+            nativeQuery = true)
+    int reconcileStartingForms(@Param("hotelIds") Collection<String> hotelIds);
+
+    /**
+     * Find which of the given hotel ids exist
+     * @param hotelIds the hotel ids to check
+     * @return the existing ids
+     */
+    @Query("SELECT h.hotelId FROM Hotel h WHERE h.hotelId IN :hotelIds")
+    List<String> findExistingIds(@Param("hotelIds") Collection<String> hotelIds);
+
+    /**
+     * Stream the exported columns of every hotel, in id order
+     * @return rows of [hotelId, hotelName, starRating, activeStatus, startingForm, encoding, content, contentLength],
+     * the description columns are null when the hotel has none. Must be consumed inside a transaction
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT h.hotelId, h.hotelName, h.starRating, h.activeStatus, h.startingForm, " +
+            "d.encoding, d.content, d.contentLength " +
+            "FROM Hotel h LEFT JOIN HotelDescription d ON d.hotelId = h.hotelId ORDER BY h.hotelId")
+    Stream<Object[]> streamExportColumns();
 }
@@ -0,0 +1,54 @@
+package com.cpd.hotel_system.hotel_management_service_api.repo;
+
+import com.cpd.hotel_system.hotel_management_service_api.entity.Room;
+import com.cpd.hotel_system.hotel_management_service_api.entity.RoomAvailability;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface RoomAvailabilityRepo extends JpaRepository<RoomAvailability, Long> {
+
+    /**
+     * Find and row-lock the calendars of a room for the given years,
+     * so concurrent holds on the same room are serialized without a global lock
+     * @param room the room entity
+     * @param years the calendar years
+     * @return the existing calendars ordered by year
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM RoomAvailability a WHERE a.room = :room AND a.year IN :years ORDER BY a.year")
+    List<RoomAvailability> findAllForUpdate(@Param("room") Room room, @Param("years") Collection<Integer> years);
+
+    /**
+     * Find the calendars of a room for the given years
+     * @param room the room entity
+     * @param years the calendar years
+     * @return the existing calendars
+     */
+    List<RoomAvailability> findAllByRoomAndYearIn(Room room, Collection<Integer> years);
+
+    /**
+     * Find the calendars of every room of a branch for the given years in one query
+     * @param branchId the branch id
+     * @param years the calendar years
+     * @return the existing calendars
+     */
+    @Query("SELECT a FROM RoomAvailability a WHERE a.room.branch.branchId = :branchId AND a.year IN :years")
+    List<RoomAvailability> findAllByBranchIdAndYearIn(@Param("branchId") String branchId,
+                                                      @Param("years") Collection<Integer> years);
+
+    /**
+     * Delete every calendar of a room
+     * @param room the room entity
+     */
+    @Modifying
+    @Query("DELETE FROM RoomAvailability a WHERE a.room = :room")
+    void deleteAllByRoom(@Param("room") Room room);
+
+}
@@ -1,12 +1,119 @@
 package com.cpd.hotel_system.hotel_management_service_api.repo;
 
+import com.cpd.hotel_system.hotel_management_service_api.entity.FileFormatter;
 import com.cpd.hotel_system.hotel_management_service_api.entity.Room;
 import com.cpd.hotel_system.hotel_management_service_api.entity.RoomImage;
+import com.cpd.hotel_system.hotel_management_service_api.enums.ImageStatus;
+import com.cpd.hotel_system.hotel_management_service_api.enums.VariantStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 public interface RoomImageRepo extends JpaRepository<RoomImage,Long> {
     Page<RoomImage> findAllByRoom(Room room, Pageable pageable);
 
+    /**
+     * Keyset page of room images ordered by id
+     * @param id the id of the last image of the previous page, 0 for the first page
+     * @param limit maximum number of images to return
+     * @return images with an id greater than the given one
+     */
+    List<RoomImage> findAllByIdGreaterThanOrderByIdAsc(long id, Limit limit);
+
+    /**
+     * Keyset page of images of a specific room, ordered by id
+     */
+    List<RoomImage> findAllByRoomAndIdGreaterThanOrderByIdAsc(Room room, long id, Limit limit);
+
+    long countByRoom(Room room);
+
+    /**
+     * Find all images of the given rooms in a single query
+     * @param rooms the room entities
+     * @return images of every given room
+     */
+    List<RoomImage> findAllByRoomIn(Collection<Room> rooms);
+
+    /**
+     * Keyset page of the ids of images whose variants still have to be generated,
+     * images stored before variants existed have no status at all
+     * @param afterId the last id of the previous page, 0 for the first page
+     * @param now images whose last failed attempt asked to retry later than this are left out
+     */
+    @Query("SELECT i.id FROM RoomImage i WHERE i.id > :afterId " +
+            "AND (i.variants.status IS NULL OR i.variants.status = :status) " +
+            "AND (i.variants.retryAt IS NULL OR i.variants.retryAt <= :now) " +
+            "AND (i.status IS NULL OR i.status = :ready) ORDER BY i.id")
+    List<Long> findIdsWithVariantStatus(@Param("afterId") long afterId, @Param("status") VariantStatus status,
+                                        @Param("now") LocalDateTime now,
+                                        @Param("ready") ImageStatus ready, Pageable pageable);
+
+    @Query("SELECT i.id FROM RoomImage i WHERE i.status = :status ORDER BY i.id")
+    List<Long> findIdsByStatus(@Param("status") ImageStatus status);
+
+    /**
+     * Keyset page of the ids of images whose file is still in the old binary columns,
+     * leaving out the ones the backfill already skipped
+     * @param afterId the last id of the previous page, 0 for the first page
+     * @param limit maximum number of ids
+     */
+    @Query(value = "SELECT id FROM room_image WHERE id > ?1 AND file_name IS NOT NULL " +
+            "AND legacy_file_skipped IS NULL ORDER BY id LIMIT ?2",
+            nativeQuery = true)
+    List<Long> findLegacyFileIdsAfter(long afterId, int limit);
+
+    /**
+     * Find which of the given images still have their file in the old binary columns
+     * @param ids the image ids
+     * @return the ids still in the old columns
+     */
+    @Query(value = "SELECT id FROM room_image WHERE id IN (:ids) AND file_name IS NOT NULL ORDER BY id",
+            nativeQuery = true)
+    List<Long> findLegacyFileIdsIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Mark images whose file does not fit the typed columns, so the backfill stops selecting them.
+     * They keep being read from the old columns.
+     * @param ids the image ids
+     * @return number of marked rows
+     */
+    @Modifying
+    @Query(value = "UPDATE room_image SET legacy_file_skipped = TRUE WHERE id IN (:ids)", nativeQuery = true)
+    int markLegacyFileSkipped(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Copy the file of the given images from the old binary columns to the typed ones and clear the old columns.
+     * A hex SHA-256 hash becomes its 32 bytes, the base64 MD5 of older uploads its 16 bytes.
+     * Values that don't fit the typed columns are left in place and still read from the old ones,
+     * see {@link #markLegacyFileSkipped}.
+     * Assignments run left to right, the old columns are cleared only after they were copied.
+     * @param ids the image ids
+     * @return number of migrated rows
+     */
+    @Modifying
+    @Query(value = "UPDATE room_image SET " +
+            "object_name = COALESCE(object_name, CONVERT(file_name USING utf8mb4)), " +
+            "object_url = COALESCE(object_url, CONVERT(resource_url USING utf8mb4)), " +
+            "object_directory = COALESCE(object_directory, CONVERT(directory USING utf8mb4)), " +
+            "content_sha256 = COALESCE(content_sha256, CASE WHEN CONVERT(hash USING utf8mb4) " +
+            "REGEXP '^[0-9a-fA-F]{64}$' THEN UNHEX(CONVERT(hash USING utf8mb4)) END), " +
+            "content_md5 = COALESCE(content_md5, CASE WHEN CONVERT(hash USING utf8mb4) " +
+            "REGEXP '^[A-Za-z0-9+/]{22}==$' THEN FROM_BASE64(CONVERT(hash USING utf8mb4)) END), " +
+            "file_name = NULL, resource_url = NULL, directory = NULL, hash = NULL " +
+            "WHERE id IN (:ids) AND file_name IS NOT NULL " +
+            "AND CHAR_LENGTH(CONVERT(file_name USING utf8mb4)) <= " + FileFormatter.MAX_FILE_NAME + " " +
+            "AND CHAR_LENGTH(COALESCE(CONVERT(resource_url USING utf8mb4), '')) <= " +
+            FileFormatter.MAX_RESOURCE_URL + " " +
+            "AND CHAR_LENGTH(COALESCE(CONVERT(directory USING utf8mb4), '')) <= " + FileFormatter.MAX_DIRECTORY,
+            nativeQuery = true)
+    int backfillFileColumns(@Param("ids") Collection<Long> ids);
+
 }
@@ -2,9 +2,80 @@ package com.cpd.hotel_system.hotel_management_service_api.repo;
 
 import com.cpd.hotel_system.hotel_management_service_api.entity.Branch;
 import com.cpd.hotel_system.hotel_management_service_api.entity.Room;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 public interface RoomRepo extends JpaRepository <Room, String> {
     boolean existsByRoomNumberAndBranch(String roomNumber, Branch branch);
 
+    /**
+     * Keyset page of rooms ordered by id
+     * @param roomId the id of the last room of the previous page, empty for the first page
+     * @param limit maximum number of rooms to return
+     * @return rooms with an id greater than the given one
+     */
+    List<Room> findAllByRoomIdGreaterThanOrderByRoomIdAsc(String roomId, Limit limit);
+
+    /**
+     * Stream the searchable columns of every room
+     * @return rows of [roomId, price, bedCount, type, isAvailable, branchId, hotelId, city]
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT r.roomId, r.price, r.bedCount, r.type, r.isAvailable, b.branchId, h.hotelId, a.city " +
+            "FROM Room r JOIN r.branch b LEFT JOIN b.hotel h LEFT JOIN b.address a")
+    Stream<Object[]> streamSearchColumns();
+
+    /**
+     * Find the ids of the rooms of a branch that are open for booking
+     * @param branchId the branch id
+     * @return the room ids
+     */
+    @Query("SELECT r.roomId FROM Room r WHERE r.branch.branchId = :branchId AND r.isAvailable = true")
+    List<String> findBookableRoomIdsByBranchId(@Param("branchId") String branchId);
+
+    /**
+     * Find every room number already used in a branch, used to validate bulk creates in one query
+     * @param branchId the branch id
+     * @return the room numbers
+     */
+    @Query("SELECT r.roomNumber FROM Room r WHERE r.branch.branchId = :branchId")
+    List<String> findRoomNumbersByBranchId(@Param("branchId") String branchId);
+
+    /**
+     * Find which of the given room ids exist
+     * @param roomIds the room ids to check
+     * @return the existing ids
+     */
+    @Query("SELECT r.roomId FROM Room r WHERE r.roomId IN :roomIds")
+    List<String> findExistingIds(@Param("roomIds") Collection<String> roomIds);
+
+    /**
+     * Find existing (branch, room number) pairs among the given branches and numbers
+     * @param branchIds the branch ids
+     * @param roomNumbers the room numbers
+     * @return rows of [branchId, roomNumber]
+     */
+    @Query("SELECT r.branch.branchId, r.roomNumber FROM Room r " +
+            "WHERE r.branch.branchId IN :branchIds AND r.roomNumber IN :roomNumbers")
+    List<Object[]> findNumbersByBranchIdInAndRoomNumberIn(@Param("branchIds") Collection<String> branchIds,
+                                                         @Param("roomNumbers") Collection<String> roomNumbers);
+
+    /**
+     * Stream the exported columns of every room, in id order
+     * @return rows of [roomId, branchId, roomNumber, type, bedCount, price, isAvailable], must be consumed inside a transaction
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT r.roomId, r.branch.branchId, r.roomNumber, r.type, r.bedCount, r.price, r.isAvailable " +
+            "FROM Room r ORDER BY r.roomId")
+    Stream<Object[]> streamExportColumns();
 }
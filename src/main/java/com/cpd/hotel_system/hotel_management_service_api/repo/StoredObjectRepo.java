@@ -0,0 +1,43 @@
+package com.cpd.hotel_system.hotel_management_service_api.repo;
+
+import com.cpd.hotel_system.hotel_management_service_api.entity.StoredObject;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface StoredObjectRepo extends JpaRepository<StoredObject, Long> {
+
+    Optional<StoredObject> findBySha256(String sha256);
+
+    Optional<StoredObject> findByObjectKey(String objectKey);
+
+    /**
+     * Take one more reference on an object
+     * @param id the stored object id
+     * @return 0 when the object was deleted in the meantime
+     */
+    @Modifying
+    @Query("UPDATE StoredObject s SET s.refCount = s.refCount + 1 WHERE s.id = :id")
+    int acquire(@Param("id") long id);
+
+    /**
+     * Drop one reference on an object, never below zero
+     * @param id the stored object id
+     * @return the number of updated rows
+     */
+    @Modifying
+    @Query("UPDATE StoredObject s SET s.refCount = s.refCount - 1 WHERE s.id = :id AND s.refCount > 0")
+    int release(@Param("id") long id);
+
+    /**
+     * Delete an object once nothing references it, a concurrent acquire keeps it alive
+     * @param id the stored object id
+     * @return 1 when the row was deleted and its bytes must go too
+     */
+    @Modifying
+    @Query("DELETE FROM StoredObject s WHERE s.id = :id AND s.refCount = 0")
+    int deleteIfUnreferenced(@Param("id") long id);
+}
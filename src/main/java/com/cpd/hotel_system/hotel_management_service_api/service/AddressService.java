@@ -4,14 +4,18 @@ import com.cpd.hotel_system.hotel_management_service_api.dto.request.RequestAddr
 import com.cpd.hotel_system.hotel_management_service_api.dto.request.RequestBranchDto;
 import com.cpd.hotel_system.hotel_management_service_api.dto.response.ResponseAddressDto;
 import com.cpd.hotel_system.hotel_management_service_api.dto.response.ResponseBranchDto;
+import com.cpd.hotel_system.hotel_management_service_api.dto.response.ResponseNearbyBranchDto;
 import com.cpd.hotel_system.hotel_management_service_api.dto.response.paginate.AddressPaginateResponseDto;
 import com.cpd.hotel_system.hotel_management_service_api.dto.response.paginate.BranchPaginateResponseDto;
 
+import java.util.List;
+
 public interface AddressService {
     public void create(RequestAddressDto dto);
     public void update(RequestAddressDto dto,String addressId);
     public void delete(String addressId);
     public ResponseAddressDto findById(String branchId);
     public ResponseAddressDto findByBranchId(String branchId);
+    public List<ResponseNearbyBranchDto> findNearby(double latitude, double longitude, Double radiusKm, int limit);
 
 }
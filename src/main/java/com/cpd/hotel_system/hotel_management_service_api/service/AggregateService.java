@@ -0,0 +1,14 @@
+package com.cpd.hotel_system.hotel_management_service_api.service;
+
+import java.math.BigDecimal;
+
+public interface AggregateService {
+    public void roomAdded(String branchId, String hotelId, BigDecimal price);
+    public void roomsAdded(String branchId, String hotelId, int count, BigDecimal minPrice);
+    public void roomRemoved(String branchId, String hotelId, BigDecimal price);
+    public void roomChanged(String oldBranchId, String oldHotelId, BigDecimal oldPrice,
+                            String newBranchId, String newHotelId, BigDecimal newPrice);
+    public void branchMoved(String branchId, String oldHotelId, String newHotelId);
+    public int reconcile();
+
+}
@@ -0,0 +1,14 @@
+package com.cpd.hotel_system.hotel_management_service_api.service;
+
+import com.cpd.hotel_system.hotel_management_service_api.dto.request.RequestRoomHoldDto;
+import com.cpd.hotel_system.hotel_management_service_api.dto.response.ResponseFreeRoomsDto;
+
+import java.time.LocalDate;
+
+public interface AvailabilityService {
+    public void hold(RequestRoomHoldDto dto);
+    public void release(RequestRoomHoldDto dto);
+    public boolean isFree(String roomId, LocalDate checkIn, LocalDate checkOut);
+    public ResponseFreeRoomsDto findFreeRooms(String branchId, LocalDate checkIn, LocalDate checkOut);
+
+}
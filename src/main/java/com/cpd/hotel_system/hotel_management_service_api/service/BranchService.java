@@ -12,5 +12,7 @@ public interface BranchService {
     public ResponseBranchDto findById(String branchId);
     public BranchPaginateResponseDto findAll(int page, int size,String searchText);
     public BranchPaginateResponseDto findAllByHotelId(int page, int size,String hotelId,String searchText);
+    public BranchPaginateResponseDto findAllByCursor(String cursor, int size, String searchText, boolean withCount);
+    public BranchPaginateResponseDto findAllByHotelIdAndCursor(String cursor, int size, String hotelId, String searchText, boolean withCount);
 
 }
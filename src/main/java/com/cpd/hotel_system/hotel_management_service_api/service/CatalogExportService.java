@@ -0,0 +1,8 @@
+package com.cpd.hotel_system.hotel_management_service_api.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface CatalogExportService {
+    public void exportCatalog(OutputStream out) throws IOException;
+}
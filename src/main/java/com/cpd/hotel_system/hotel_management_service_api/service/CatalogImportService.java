@@ -0,0 +1,9 @@
+package com.cpd.hotel_system.hotel_management_service_api.service;
+
+import com.cpd.hotel_system.hotel_management_service_api.dto.response.ResponseImportReportDto;
+
+import java.io.InputStream;
+
+public interface CatalogImportService {
+    public ResponseImportReportDto importCatalog(InputStream body, String format);
+}
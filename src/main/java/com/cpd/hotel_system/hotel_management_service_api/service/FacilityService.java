@@ -1,13 +1,18 @@
 package com.cpd.hotel_system.hotel_management_service_api.service;
 
 import com.cpd.hotel_system.hotel_management_service_api.dto.request.RequestFacilityDto;
+import com.cpd.hotel_system.hotel_management_service_api.dto.response.ResponseFacilityCatalogDto;
 import com.cpd.hotel_system.hotel_management_service_api.dto.response.ResponseFacilityDto;
 import com.cpd.hotel_system.hotel_management_service_api.dto.response.paginate.FacilityPaginateResponseDto;
 
+import java.util.List;
+
 public interface FacilityService {
     public void create(RequestFacilityDto dto);
     public void update(RequestFacilityDto dto, String facilityId);
     public void delete(String facilityId);
     public ResponseFacilityDto findById(String facilityId);
     public FacilityPaginateResponseDto findAll(int page, int size, String roomId);
+    public FacilityPaginateResponseDto findAllByCursor(String cursor, int size, String roomId, boolean withCount);
+    public List<ResponseFacilityCatalogDto> findCatalog();
 }
@@ -1,11 +1,25 @@
 package com.cpd.hotel_system.hotel_management_service_api.service;
 
 
-import com.cpd.hotel_system.hotel_management_service_api.util.CommonFileSavedBinaryDataDTO;
+import com.cpd.hotel_system.hotel_management_service_api.util.CommonFileSavedSimpleDataDTO;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
+
 public interface FileService {
-    public CommonFileSavedBinaryDataDTO createResource(MultipartFile file, String directory, String bucket);
+    public String bucket();
+    public CommonFileSavedSimpleDataDTO createResource(MultipartFile file, String directory, String bucket);
+    public CommonFileSavedSimpleDataDTO createResource(InputStream content, long contentLength, String contentType,
+                                                       String originalFilename, String directory, String bucket);
+    public String putResource(InputStream content, long contentLength, String contentType, String directory,
+                              String fileName, String bucket);
+    public InputStream openResource(String bucket, String directory, String fileName);
+    public long copyResource(String bucket, String directory, String fileName, long position, long count,
+                             WritableByteChannel target);
+    public boolean exists(String bucket, String directory, String fileName);
+    public long resourceLength(String bucket, String directory, String fileName);
+    public String resourceUrl(String bucket, String directory, String fileName);
     public void deleteResource(String bucket,String directory, String fileName);
     public byte[] downloadFile(String bucket, String fileName);
-}
\ No newline at end of file
+}
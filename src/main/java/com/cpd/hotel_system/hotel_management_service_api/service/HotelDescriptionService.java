@@ -0,0 +1,18 @@
+package com.cpd.hotel_system.hotel_management_service_api.service;
+
+import com.cpd.hotel_system.hotel_management_service_api.dto.response.ResponseHotelDescriptionDto;
+import com.cpd.hotel_system.hotel_management_service_api.entity.HotelDescription;
+import com.cpd.hotel_system.hotel_management_service_api.enums.ContentEncoding;
+
+import java.io.OutputStream;
+
+public interface HotelDescriptionService {
+    public HotelDescription encode(String hotelId, String text);
+    public String decode(ContentEncoding encoding, byte[] content, int contentLength);
+    public void save(String hotelId, String text);
+    public void delete(String hotelId);
+    public ResponseHotelDescriptionDto find(String hotelId);
+    public String findText(String hotelId);
+    public long copy(ResponseHotelDescriptionDto description, OutputStream out);
+    public int backfill();
+}
@@ -16,5 +16,6 @@ public interface HotelService {
     public void delete(String hotelId);
     public ResponseHotelDto findById(String hotelId) throws SQLException;
     public HotelPaginateResponseDto findAll(int page, int size, String searchText);
+    public HotelPaginateResponseDto findAllByCursor(String cursor, int size, String searchText, boolean withCount);
 
 }
@@ -0,0 +1,9 @@
+package com.cpd.hotel_system.hotel_management_service_api.service;
+
+import com.cpd.hotel_system.hotel_management_service_api.entity.Room;
+
+import java.io.InputStream;
+
+public interface ImageIngestService {
+    public long submit(Room room, InputStream content, long contentLength, String contentType, String fileName);
+}
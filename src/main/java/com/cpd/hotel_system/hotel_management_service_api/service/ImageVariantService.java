@@ -0,0 +1,7 @@
+package com.cpd.hotel_system.hotel_management_service_api.service;
+
+public interface ImageVariantService {
+    public void schedule(long imageId);
+    public void deleteVariants(String directory, String fileName);
+    public int sweep();
+}
@@ -0,0 +1,10 @@
+package com.cpd.hotel_system.hotel_management_service_api.service;
+
+import com.cpd.hotel_system.hotel_management_service_api.dto.response.ResponseMediaObjectDto;
+
+import java.io.OutputStream;
+
+public interface MediaService {
+    public ResponseMediaObjectDto find(String key);
+    public long copy(ResponseMediaObjectDto media, long position, long count, OutputStream out);
+}
@@ -0,0 +1,13 @@
+package com.cpd.hotel_system.hotel_management_service_api.service;
+
+import com.cpd.hotel_system.hotel_management_service_api.util.CommonFileSavedSimpleDataDTO;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.InputStream;
+
+public interface MediaStoreService {
+    public CommonFileSavedSimpleDataDTO acquire(MultipartFile file);
+    public CommonFileSavedSimpleDataDTO acquire(InputStream content, long contentLength, String contentType,
+                                                String fileName, String computedSha256);
+    public void release(String directory, String fileName);
+}
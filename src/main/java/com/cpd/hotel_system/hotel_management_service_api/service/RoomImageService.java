@@ -1,15 +1,28 @@
 package com.cpd.hotel_system.hotel_management_service_api.service;
 
+import com.cpd.hotel_system.hotel_management_service_api.dto.request.RequestRoomImageBatchDto;
 import com.cpd.hotel_system.hotel_management_service_api.dto.request.RequestRoomImageDto;
+import com.cpd.hotel_system.hotel_management_service_api.dto.response.ResponseImageStatusDto;
 import com.cpd.hotel_system.hotel_management_service_api.dto.response.ResponseRoomImageDto;
 import com.cpd.hotel_system.hotel_management_service_api.dto.response.paginate.RoomImagePaginateResponseDto;
 
+import java.io.InputStream;
+import java.util.List;
+
 public interface RoomImageService {
 
     public void create(RequestRoomImageDto dto);
+    public List<ResponseRoomImageDto> createAll(RequestRoomImageBatchDto dto);
+    public void upload(String roomId, InputStream content, long contentLength, String contentType, String fileName);
+    public ResponseImageStatusDto ingest(RequestRoomImageDto dto);
+    public ResponseImageStatusDto ingest(String roomId, InputStream content, long contentLength, String contentType,
+                                         String fileName);
+    public ResponseImageStatusDto findStatus(String imageId);
     public void update(RequestRoomImageDto dto,String imageId);
     public void delete(String imageId);
     public ResponseRoomImageDto findById(String imageId);
     public RoomImagePaginateResponseDto findAll(int page, int size, String roomId);
+    public RoomImagePaginateResponseDto findAllByCursor(String cursor, int size, String roomId, boolean withCount);
+    public int backfillFileColumns();
 
 }
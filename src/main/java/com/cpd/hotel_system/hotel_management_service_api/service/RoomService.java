@@ -1,7 +1,10 @@
 package com.cpd.hotel_system.hotel_management_service_api.service;
 
 import com.cpd.hotel_system.hotel_management_service_api.dto.request.RequestHotelDto;
+import com.cpd.hotel_system.hotel_management_service_api.dto.request.RequestBulkRoomDto;
 import com.cpd.hotel_system.hotel_management_service_api.dto.request.RequestRoomDto;
+import com.cpd.hotel_system.hotel_management_service_api.dto.request.RequestRoomSearchDto;
+import com.cpd.hotel_system.hotel_management_service_api.dto.response.ResponseBulkRoomDto;
 import com.cpd.hotel_system.hotel_management_service_api.dto.response.ResponseRoomDto;
 import com.cpd.hotel_system.hotel_management_service_api.dto.response.paginate.HotelPaginateResponseDto;
 import com.cpd.hotel_system.hotel_management_service_api.dto.response.paginate.RoomPaginateResponseDto;
@@ -9,9 +12,12 @@ import com.cpd.hotel_system.hotel_management_service_api.dto.response.paginate.R
 public interface RoomService {
 
     public void create(RequestRoomDto dto);
+    public ResponseBulkRoomDto bulkCreate(RequestBulkRoomDto dto);
     public void update(RequestRoomDto dto,String roomId);
     public void delete(String roomId);
     public ResponseRoomDto findById(String roomId);
     public RoomPaginateResponseDto findAll(int page, int size);
+    public RoomPaginateResponseDto findAllByCursor(String cursor, int size, boolean withCount);
+    public RoomPaginateResponseDto search(RequestRoomSearchDto criteria, int page, int size);
 
 }
@@ -2,16 +2,26 @@ package com.cpd.hotel_system.hotel_management_service_api.service.impl;
 
 import com.cpd.hotel_system.hotel_management_service_api.dto.request.RequestAddressDto;
 import com.cpd.hotel_system.hotel_management_service_api.dto.response.ResponseAddressDto;
+import com.cpd.hotel_system.hotel_management_service_api.dto.response.ResponseNearbyBranchDto;
 import com.cpd.hotel_system.hotel_management_service_api.entity.Address;
 import com.cpd.hotel_system.hotel_management_service_api.entity.Branch;
+import com.cpd.hotel_system.hotel_management_service_api.exceptions.IndexNotReadyException;
+import com.cpd.hotel_system.hotel_management_service_api.index.BranchGeoIndex;
+import com.cpd.hotel_system.hotel_management_service_api.index.RoomSearchIndex;
 import com.cpd.hotel_system.hotel_management_service_api.repo.AddressRepo;
 import com.cpd.hotel_system.hotel_management_service_api.repo.BranchRepo;
 import com.cpd.hotel_system.hotel_management_service_api.service.AddressService;
+import com.cpd.hotel_system.hotel_management_service_api.util.AfterCommit;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -20,6 +30,8 @@ public class AddressServiceImpl implements AddressService {
 
     private final AddressRepo addressRepo;
     private final BranchRepo branchRepo;
+    private final BranchGeoIndex branchGeoIndex;
+    private final RoomSearchIndex roomSearchIndex;
 
     @Override
     public void create(RequestAddressDto dto) {
@@ -48,6 +60,7 @@ public class AddressServiceImpl implements AddressService {
                 .build();
 
         addressRepo.save(address);
+        indexAddress(address, null);
     }
 
     @Override
@@ -59,6 +72,7 @@ public class AddressServiceImpl implements AddressService {
                 ));
 
         // If branch is being changed, validate new branch
+        String previousBranchId = null;
         if (dto.getBranchId() != null &&
                 !dto.getBranchId().equals(address.getBranch().getBranchId())) {
             Branch newBranch = branchRepo.findById(dto.getBranchId())
@@ -73,6 +87,7 @@ public class AddressServiceImpl implements AddressService {
                 );
             }
 
+            previousBranchId = address.getBranch().getBranchId();
             address.setBranch(newBranch);
         }
 
@@ -84,18 +99,44 @@ public class AddressServiceImpl implements AddressService {
         address.setLongitude(dto.getLongitude());
 
         addressRepo.save(address);
+        indexAddress(address, previousBranchId);
     }
 
     @Override
     public void delete(String addressId) {
         // Check if address exists
-        if (!addressRepo.existsById(addressId)) {
-            throw new RuntimeException(
-                    String.format("Address not found with id: %s", addressId)
-            );
-        }
+        Address address = addressRepo.findById(addressId)
+                .orElseThrow(() -> new RuntimeException(
+                        String.format("Address not found with id: %s", addressId)
+                ));
 
         addressRepo.deleteById(addressId);
+        String branchId = address.getBranch() != null ? address.getBranch().getBranchId() : null;
+        AfterCommit.run(() -> {
+            branchGeoIndex.remove(addressId);
+            if (branchId != null) {
+                roomSearchIndex.updateBranchCity(branchId, null);
+            }
+        });
+    }
+
+    /**
+     * Helper method to publish a saved address to the geo and room indexes once the transaction commits
+     * @param previousBranchId the branch the address moved away from, or null
+     */
+    private void indexAddress(Address address, String previousBranchId) {
+        String addressId = address.getAddressId();
+        String branchId = address.getBranch().getBranchId();
+        BigDecimal latitude = address.getLatitude();
+        BigDecimal longitude = address.getLongitude();
+        String city = address.getCity();
+        AfterCommit.run(() -> {
+            if (previousBranchId != null) {
+                roomSearchIndex.updateBranchCity(previousBranchId, null);
+            }
+            branchGeoIndex.put(addressId, branchId, latitude, longitude);
+            roomSearchIndex.updateBranchCity(branchId, city);
+        });
     }
 
     @Override
@@ -125,6 +166,58 @@ public class AddressServiceImpl implements AddressService {
         return mapToResponseDto(address);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<ResponseNearbyBranchDto> findNearby(double latitude, double longitude, Double radiusKm, int limit) {
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new RuntimeException(
+                    String.format("Invalid coordinates: %s, %s", latitude, longitude)
+            );
+        }
+        if (limit <= 0) {
+            return List.of();
+        }
+        if (!branchGeoIndex.isReady()) {
+            throw new IndexNotReadyException("Nearby search is not available yet, please try again shortly");
+        }
+
+        // Distances come from the index, only the hits are loaded from the database
+        List<BranchGeoIndex.Hit> hits = radiusKm == null
+                ? branchGeoIndex.nearest(latitude, longitude, limit)
+                : branchGeoIndex.withinRadius(latitude, longitude, radiusKm, limit);
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, Address> addresses = addressRepo.findAllWithBranchByAddressIdIn(
+                        hits.stream().map(BranchGeoIndex.Hit::addressId).toList()).stream()
+                .collect(Collectors.toMap(Address::getAddressId, Function.identity()));
+
+        return hits.stream()
+                .filter(hit -> addresses.containsKey(hit.addressId()))
+                .map(hit -> mapToNearbyDto(addresses.get(hit.addressId()), hit.distanceKm()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Helper method to map Address entity and its distance to ResponseNearbyBranchDto
+     */
+    private ResponseNearbyBranchDto mapToNearbyDto(Address address, double distanceKm) {
+        Branch branch = address.getBranch();
+        return ResponseNearbyBranchDto.builder()
+                .branchId(branch.getBranchId())
+                .branchName(branch.getBranchName())
+                .branchType(branch.getBranchType())
+                .hotelId(branch.getHotel() == null ? null : branch.getHotel().getHotelId())
+                .addressLine(address.getAddressLine())
+                .city(address.getCity())
+                .country(address.getCountry())
+                .latitude(address.getLatitude())
+                .longitude(address.getLongitude())
+                .distanceKm(distanceKm)
+                .build();
+    }
+
     /**
      * Helper method to map Address entity to ResponseAddressDto
      */
@@ -0,0 +1,158 @@
+package com.cpd.hotel_system.hotel_management_service_api.service.impl;
+
+import com.cpd.hotel_system.hotel_management_service_api.config.CatalogCache;
+import com.cpd.hotel_system.hotel_management_service_api.repo.BranchRepo;
+import com.cpd.hotel_system.hotel_management_service_api.repo.HotelRepo;
+import com.cpd.hotel_system.hotel_management_service_api.service.AggregateService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Keeps Branch.roomCount and Hotel.startingForm in step with the rooms.
+ * Room writes apply small conditional updates in the caller's transaction, and a
+ * scheduled job pages through the branches to repair any drift.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(propagation = Propagation.MANDATORY)
+public class AggregateServiceImpl implements AggregateService {
+
+    private final BranchRepo branchRepo;
+    private final HotelRepo hotelRepo;
+    private final CatalogCache catalogCache;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${catalog.aggregates.reconcile-batch-size:500}")
+    private int reconcileBatchSize;
+
+    @Override
+    public void roomAdded(String branchId, String hotelId, BigDecimal price) {
+        roomsAdded(branchId, hotelId, 1, price);
+    }
+
+    @Override
+    public void roomsAdded(String branchId, String hotelId, int count, BigDecimal minPrice) {
+        if (count <= 0) {
+            return;
+        }
+        branchRepo.adjustRoomCount(branchId, count);
+        catalogCache.evictBranch(branchId);
+        lowerStartingForm(hotelId, minPrice);
+    }
+
+    @Override
+    public void roomRemoved(String branchId, String hotelId, BigDecimal price) {
+        branchRepo.adjustRoomCount(branchId, -1);
+        catalogCache.evictBranch(branchId);
+        raiseStartingForm(hotelId, price);
+    }
+
+    @Override
+    public void roomChanged(String oldBranchId, String oldHotelId, BigDecimal oldPrice,
+                            String newBranchId, String newHotelId, BigDecimal newPrice) {
+        if (!Objects.equals(oldBranchId, newBranchId)) {
+            branchRepo.adjustRoomCount(oldBranchId, -1);
+            branchRepo.adjustRoomCount(newBranchId, 1);
+            catalogCache.evictBranch(oldBranchId);
+            catalogCache.evictBranch(newBranchId);
+        }
+
+        boolean sameHotel = Objects.equals(oldHotelId, newHotelId);
+        if (sameHotel && oldPrice != null && newPrice != null && oldPrice.compareTo(newPrice) == 0) {
+            return;
+        }
+        lowerStartingForm(newHotelId, newPrice);
+        // The old hotel only needs a recount when the room left it or got more expensive
+        if (!sameHotel || (oldPrice != null && newPrice != null && newPrice.compareTo(oldPrice) > 0)) {
+            raiseStartingForm(oldHotelId, oldPrice);
+        }
+    }
+
+    @Override
+    public void branchMoved(String branchId, String oldHotelId, String newHotelId) {
+        List<String> hotelIds = new ArrayList<>(2);
+        if (oldHotelId != null) {
+            hotelIds.add(oldHotelId);
+        }
+        if (newHotelId != null) {
+            hotelIds.add(newHotelId);
+        }
+        if (!hotelIds.isEmpty()) {
+            hotelRepo.reconcileStartingForms(hotelIds);
+            hotelIds.forEach(catalogCache::evictHotel);
+        }
+    }
+
+    /**
+     * Page through every branch and fix room counts and starting prices that drifted,
+     * one short transaction per page so the job never holds locks for long
+     * @return number of corrected rows
+     */
+    @Override
+    @Transactional(propagation = Propagation.NEVER)
+    @Scheduled(initialDelayString = "${catalog.aggregates.reconcile-initial-delay:PT5M}",
+            fixedDelayString = "${catalog.aggregates.reconcile-delay:PT6H}")
+    public int reconcile() {
+        String lastBranchId = "";
+        int corrected = 0;
+        while (true) {
+            List<Object[]> rows = branchRepo.findIdsAfter(lastBranchId, reconcileBatchSize);
+            if (rows.isEmpty()) {
+                break;
+            }
+
+            List<String> branchIds = new ArrayList<>(rows.size());
+            Set<String> hotelIds = new HashSet<>();
+            for (Object[] row : rows) {
+                branchIds.add((String) row[0]);
+                if (row[1] != null) {
+                    hotelIds.add((String) row[1]);
+                }
+            }
+
+            Integer pageCorrected = transactionTemplate.execute(status -> {
+                int fixed = branchRepo.reconcileRoomCounts(branchIds);
+                if (!hotelIds.isEmpty()) {
+                    fixed += hotelRepo.reconcileStartingForms(hotelIds);
+                }
+                return fixed;
+            });
+            if (pageCorrected != null && pageCorrected > 0) {
+                // Which rows changed isn't reported, evict the whole page
+                branchIds.forEach(catalogCache::evictBranch);
+                hotelIds.forEach(catalogCache::evictHotel);
+                corrected += pageCorrected;
+            }
+
+            lastBranchId = branchIds.get(branchIds.size() - 1);
+            if (rows.size() < reconcileBatchSize) {
+                break;
+            }
+        }
+        return corrected;
+    }
+
+    private void lowerStartingForm(String hotelId, BigDecimal price) {
+        if (hotelId != null && price != null && hotelRepo.lowerStartingForm(hotelId, price) > 0) {
+            catalogCache.evictHotel(hotelId);
+        }
+    }
+
+    private void raiseStartingForm(String hotelId, BigDecimal price) {
+        if (hotelId != null && price != null && hotelRepo.recomputeStartingFormIfMin(hotelId, price) > 0) {
+            catalogCache.evictHotel(hotelId);
+        }
+    }
+}
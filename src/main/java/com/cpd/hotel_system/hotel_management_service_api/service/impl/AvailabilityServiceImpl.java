@@ -0,0 +1,248 @@
+package com.cpd.hotel_system.hotel_management_service_api.service.impl;
+
+import com.cpd.hotel_system.hotel_management_service_api.dto.request.RequestRoomHoldDto;
+import com.cpd.hotel_system.hotel_management_service_api.dto.response.ResponseFreeRoomsDto;
+import com.cpd.hotel_system.hotel_management_service_api.entity.Room;
+import com.cpd.hotel_system.hotel_management_service_api.entity.RoomAvailability;
+import com.cpd.hotel_system.hotel_management_service_api.exceptions.RoomUnavailableException;
+import com.cpd.hotel_system.hotel_management_service_api.repo.BranchRepo;
+import com.cpd.hotel_system.hotel_management_service_api.repo.RoomAvailabilityRepo;
+import com.cpd.hotel_system.hotel_management_service_api.repo.RoomRepo;
+import com.cpd.hotel_system.hotel_management_service_api.service.AvailabilityService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class AvailabilityServiceImpl implements AvailabilityService {
+
+    private static final int CALENDAR_BYTES = 46;
+    private static final int MAX_NIGHTS = 366;
+    private static final int MAX_ATTEMPTS = 5;
+
+    private final RoomAvailabilityRepo roomAvailabilityRepo;
+    private final RoomRepo roomRepo;
+    private final BranchRepo branchRepo;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * One calendar year slice of a stay, days are zero based day-of-year indexes
+     */
+    private record YearRange(int year, int fromDay, int toDay) {
+    }
+
+    @Override
+    public void hold(RequestRoomHoldDto dto) {
+        List<YearRange> ranges = split(dto.getCheckIn(), dto.getCheckOut());
+        if (dto.getCheckIn().isBefore(LocalDate.now())) {
+            throw new RuntimeException(
+                    String.format("Check-in date %s is in the past", dto.getCheckIn())
+            );
+        }
+
+        withRetry(() -> transactionTemplate.executeWithoutResult(status -> {
+            Room room = findRoom(dto.getRoomId());
+            if (!room.isAvailable()) {
+                throw new RoomUnavailableException(
+                        String.format("Room with id: %s is not open for booking", dto.getRoomId())
+                );
+            }
+
+            Map<Integer, RoomAvailability> calendars = lockCalendars(room, ranges, true);
+            for (YearRange range : ranges) {
+                BitSet booked = BitSet.valueOf(calendars.get(range.year()).getBookedDays());
+                if (!booked.get(range.fromDay(), range.toDay()).isEmpty()) {
+                    throw new RoomUnavailableException(
+                            String.format("Room with id: %s is not available from %s to %s",
+                                    dto.getRoomId(), dto.getCheckIn(), dto.getCheckOut())
+                    );
+                }
+            }
+            for (YearRange range : ranges) {
+                RoomAvailability calendar = calendars.get(range.year());
+                BitSet booked = BitSet.valueOf(calendar.getBookedDays());
+                booked.set(range.fromDay(), range.toDay());
+                calendar.setBookedDays(toBytes(booked));
+            }
+            roomAvailabilityRepo.saveAll(calendars.values());
+        }));
+    }
+
+    @Override
+    public void release(RequestRoomHoldDto dto) {
+        List<YearRange> ranges = split(dto.getCheckIn(), dto.getCheckOut());
+
+        withRetry(() -> transactionTemplate.executeWithoutResult(status -> {
+            Room room = findRoom(dto.getRoomId());
+
+            // Releasing nights that were never held is a no-op
+            Map<Integer, RoomAvailability> calendars = lockCalendars(room, ranges, false);
+            for (YearRange range : ranges) {
+                RoomAvailability calendar = calendars.get(range.year());
+                if (calendar != null) {
+                    BitSet booked = BitSet.valueOf(calendar.getBookedDays());
+                    booked.clear(range.fromDay(), range.toDay());
+                    calendar.setBookedDays(toBytes(booked));
+                }
+            }
+            roomAvailabilityRepo.saveAll(calendars.values());
+        }));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean isFree(String roomId, LocalDate checkIn, LocalDate checkOut) {
+        List<YearRange> ranges = split(checkIn, checkOut);
+        Room room = findRoom(roomId);
+        if (!room.isAvailable()) {
+            return false;
+        }
+
+        Map<Integer, BitSet> calendars = roomAvailabilityRepo.findAllByRoomAndYearIn(room, years(ranges)).stream()
+                .collect(Collectors.toMap(RoomAvailability::getYear, a -> BitSet.valueOf(a.getBookedDays())));
+        return isFree(calendars, ranges);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ResponseFreeRoomsDto findFreeRooms(String branchId, LocalDate checkIn, LocalDate checkOut) {
+        List<YearRange> ranges = split(checkIn, checkOut);
+        if (!branchRepo.existsById(branchId)) {
+            throw new RuntimeException(
+                    String.format("Branch not found with id: %s", branchId)
+            );
+        }
+
+        // One query for the rooms and one for all their calendars, the range check runs on the bitsets
+        Map<String, Map<Integer, BitSet>> calendarsByRoom = new HashMap<>();
+        for (RoomAvailability calendar : roomAvailabilityRepo.findAllByBranchIdAndYearIn(branchId, years(ranges))) {
+            calendarsByRoom.computeIfAbsent(calendar.getRoom().getRoomId(), id -> new HashMap<>())
+                    .put(calendar.getYear(), BitSet.valueOf(calendar.getBookedDays()));
+        }
+
+        List<String> freeRoomIds = roomRepo.findBookableRoomIdsByBranchId(branchId).stream()
+                .filter(roomId -> isFree(calendarsByRoom.getOrDefault(roomId, Map.of()), ranges))
+                .sorted()
+                .collect(Collectors.toList());
+
+        return ResponseFreeRoomsDto.builder()
+                .branchId(branchId)
+                .checkIn(checkIn)
+                .checkOut(checkOut)
+                .roomIds(freeRoomIds)
+                .count(freeRoomIds.size())
+                .build();
+    }
+
+    /**
+     * Helper method to lock the calendars of a room in year order, creating the missing ones when asked.
+     * A concurrent insert of the same calendar fails on the unique key and the caller retries.
+     */
+    private Map<Integer, RoomAvailability> lockCalendars(Room room, List<YearRange> ranges, boolean create) {
+        Map<Integer, RoomAvailability> calendars = new HashMap<>();
+        for (RoomAvailability calendar : roomAvailabilityRepo.findAllForUpdate(room, years(ranges))) {
+            calendars.put(calendar.getYear(), calendar);
+        }
+        if (create) {
+            for (YearRange range : ranges) {
+                if (!calendars.containsKey(range.year())) {
+                    RoomAvailability calendar = roomAvailabilityRepo.saveAndFlush(RoomAvailability.builder()
+                            .room(room)
+                            .year(range.year())
+                            .bookedDays(new byte[CALENDAR_BYTES])
+                            .build());
+                    calendars.put(range.year(), calendar);
+                }
+            }
+        }
+        return calendars;
+    }
+
+    /**
+     * Helper method to run a write, retrying when it lost a race against another booking of the same room
+     */
+    private void withRetry(Runnable write) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                write.run();
+                return;
+            } catch (ConcurrencyFailureException | DataIntegrityViolationException e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw new RuntimeException("Room calendar is busy, please try again", e);
+                }
+                try {
+                    Thread.sleep(ThreadLocalRandom.current().nextLong(5, 20L * attempt));
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Interrupted while waiting for the room calendar", interrupted);
+                }
+            }
+        }
+    }
+
+    private Room findRoom(String roomId) {
+        return roomRepo.findById(roomId)
+                .orElseThrow(() -> new RuntimeException(
+                        String.format("Room not found with id: %s", roomId)
+                ));
+    }
+
+    private static boolean isFree(Map<Integer, BitSet> calendars, List<YearRange> ranges) {
+        for (YearRange range : ranges) {
+            BitSet booked = calendars.get(range.year());
+            int firstBooked = booked == null ? -1 : booked.nextSetBit(range.fromDay());
+            if (firstBooked >= 0 && firstBooked < range.toDay()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Helper method to split the nights of a stay into per-year day ranges
+     */
+    private static List<YearRange> split(LocalDate checkIn, LocalDate checkOut) {
+        if (checkIn == null || checkOut == null || !checkIn.isBefore(checkOut)) {
+            throw new RuntimeException(
+                    String.format("Invalid stay from %s to %s", checkIn, checkOut)
+            );
+        }
+        if (ChronoUnit.DAYS.between(checkIn, checkOut) > MAX_NIGHTS) {
+            throw new RuntimeException(
+                    String.format("A stay can't be longer than %d nights", MAX_NIGHTS)
+            );
+        }
+
+        LocalDate lastNight = checkOut.minusDays(1);
+        List<YearRange> ranges = new ArrayList<>(2);
+        for (int year = checkIn.getYear(); year <= lastNight.getYear(); year++) {
+            int fromDay = year == checkIn.getYear() ? checkIn.getDayOfYear() - 1 : 0;
+            int toDay = year == lastNight.getYear() ? lastNight.getDayOfYear() : LocalDate.of(year, 1, 1).lengthOfYear();
+            ranges.add(new YearRange(year, fromDay, toDay));
+        }
+        return ranges;
+    }
+
+    private static List<Integer> years(List<YearRange> ranges) {
+        return ranges.stream().map(YearRange::year).collect(Collectors.toList());
+    }
+
+    private static byte[] toBytes(BitSet booked) {
+        return Arrays.copyOf(booked.toByteArray(), CALENDAR_BYTES);
+    }
+}
@@ -1,14 +1,22 @@
 package com.cpd.hotel_system.hotel_management_service_api.service.impl;
 
+import com.cpd.hotel_system.hotel_management_service_api.config.CacheConfig;
+import com.cpd.hotel_system.hotel_management_service_api.config.CatalogCache;
 import com.cpd.hotel_system.hotel_management_service_api.dto.request.RequestBranchDto;
 import com.cpd.hotel_system.hotel_management_service_api.dto.response.ResponseBranchDto;
 import com.cpd.hotel_system.hotel_management_service_api.dto.response.paginate.BranchPaginateResponseDto;
 import com.cpd.hotel_system.hotel_management_service_api.entity.Branch;
 import com.cpd.hotel_system.hotel_management_service_api.entity.Hotel;
+import com.cpd.hotel_system.hotel_management_service_api.index.RoomSearchIndex;
 import com.cpd.hotel_system.hotel_management_service_api.repo.BranchRepo;
 import com.cpd.hotel_system.hotel_management_service_api.repo.HotelRepo;
+import com.cpd.hotel_system.hotel_management_service_api.service.AggregateService;
 import com.cpd.hotel_system.hotel_management_service_api.service.BranchService;
+import com.cpd.hotel_system.hotel_management_service_api.util.CursorCodec;
+import com.cpd.hotel_system.hotel_management_service_api.util.AfterCommit;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -26,6 +34,10 @@ public class BranchServiceImpl implements BranchService {
 
     private final BranchRepo branchRepo;
     private final HotelRepo hotelRepo;
+    private final CursorCodec cursorCodec;
+    private final CatalogCache catalogCache;
+    private final RoomSearchIndex roomSearchIndex;
+    private final AggregateService aggregateService;
 
     @Override
     public void create(RequestBranchDto dto) {
@@ -47,11 +59,13 @@ public class BranchServiceImpl implements BranchService {
                 .branchId(UUID.randomUUID().toString())
                 .branchName(dto.getBranchName())
                 .branchType(dto.getBranchType())
-                .roomCount(dto.getRoomCount())
+                // Maintained from the rooms, see AggregateService
+                .roomCount(0)
                 .hotel(hotel)
                 .build();
 
         branchRepo.save(branch);
+        catalogCache.evictHotel(hotel.getHotelId());
     }
 
     @Override
@@ -62,6 +76,10 @@ public class BranchServiceImpl implements BranchService {
                         String.format("Branch not found with id: %s", branchId)
                 ));
 
+        catalogCache.evictBranch(branchId);
+        catalogCache.evictHotel(branch.getHotel().getHotelId());
+        String oldHotelId = branch.getHotel().getHotelId();
+
         // If hotel is being changed, validate new hotel
         if (dto.getHotelId() != null &&
                 !dto.getHotelId().equals(branch.getHotel().getHotelId())) {
@@ -70,6 +88,9 @@ public class BranchServiceImpl implements BranchService {
                             String.format("Hotel not found with id: %s", dto.getHotelId())
                     ));
             branch.setHotel(newHotel);
+            catalogCache.evictHotel(newHotel.getHotelId());
+            String newHotelId = newHotel.getHotelId();
+            AfterCommit.run(() -> roomSearchIndex.updateBranchHotel(branchId, newHotelId));
         }
 
         // Check if new branch name conflicts with existing branches in the same hotel
@@ -83,9 +104,12 @@ public class BranchServiceImpl implements BranchService {
         // Update branch fields
         branch.setBranchName(dto.getBranchName());
         branch.setBranchType(dto.getBranchType());
-        branch.setRoomCount(dto.getRoomCount());
 
         branchRepo.save(branch);
+        if (!oldHotelId.equals(branch.getHotel().getHotelId())) {
+            // The rooms of the branch now count towards the new hotel's starting price
+            aggregateService.branchMoved(branchId, oldHotelId, branch.getHotel().getHotelId());
+        }
     }
 
     @Override
@@ -111,10 +135,13 @@ public class BranchServiceImpl implements BranchService {
         }
 
         branchRepo.deleteById(branchId);
+        catalogCache.evictBranch(branchId);
+        catalogCache.evictHotel(branch.getHotel().getHotelId());
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.BRANCHES, key = "#branchId")
     public ResponseBranchDto findById(String branchId) {
         Branch branch = branchRepo.findById(branchId)
                 .orElseThrow(() -> new RuntimeException(
@@ -161,6 +188,65 @@ public class BranchServiceImpl implements BranchService {
         return buildPaginateResponse(branchPage);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public BranchPaginateResponseDto findAllByCursor(String cursor, int size, String searchText, boolean withCount) {
+        size = cursorCodec.pageSize(size);
+        String afterBranchId = cursorCodec.decode(cursor);
+        // Fetch one extra row to know whether there is a next page
+        Limit limit = Limit.of(size + 1);
+        List<Branch> branches;
+        Long dataCount = null;
+
+        if (searchText == null || searchText.trim().isEmpty()) {
+            branches = branchRepo.findAllByBranchIdGreaterThanOrderByBranchIdAsc(afterBranchId, limit);
+            if (withCount) {
+                dataCount = branchRepo.count();
+            }
+        } else {
+            branches = branchRepo.findAllByBranchNameContainingIgnoreCaseAndBranchIdGreaterThanOrderByBranchIdAsc(
+                    searchText.trim(), afterBranchId, limit);
+            if (withCount) {
+                dataCount = branchRepo.countByBranchNameContainingIgnoreCase(searchText.trim());
+            }
+        }
+
+        return buildCursorResponse(branches, size, dataCount);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BranchPaginateResponseDto findAllByHotelIdAndCursor(String cursor, int size, String hotelId,
+                                                               String searchText, boolean withCount) {
+        size = cursorCodec.pageSize(size);
+        // Validate hotel exists
+        Hotel hotel = hotelRepo.findById(hotelId)
+                .orElseThrow(() -> new RuntimeException(
+                        String.format("Hotel not found with id: %s", hotelId)
+                ));
+
+        String afterBranchId = cursorCodec.decode(cursor);
+        Limit limit = Limit.of(size + 1);
+        List<Branch> branches;
+        Long dataCount = null;
+
+        if (searchText == null || searchText.trim().isEmpty()) {
+            branches = branchRepo.findAllByHotelAndBranchIdGreaterThanOrderByBranchIdAsc(
+                    hotel, afterBranchId, limit);
+            if (withCount) {
+                dataCount = branchRepo.countByHotel(hotel);
+            }
+        } else {
+            branches = branchRepo.findAllByHotelAndBranchNameContainingIgnoreCaseAndBranchIdGreaterThanOrderByBranchIdAsc(
+                    hotel, searchText.trim(), afterBranchId, limit);
+            if (withCount) {
+                dataCount = branchRepo.countByHotelAndBranchNameContainingIgnoreCase(hotel, searchText.trim());
+            }
+        }
+
+        return buildCursorResponse(branches, size, dataCount);
+    }
+
     /**
      * Helper method to map Branch entity to ResponseBranchDto
      */
@@ -187,4 +273,20 @@ public class BranchServiceImpl implements BranchService {
                 .dataCount(branchPage.getTotalElements())
                 .build();
     }
+
+    /**
+     * Helper method to build a keyset page from size + 1 fetched rows
+     */
+    private BranchPaginateResponseDto buildCursorResponse(List<Branch> branches, int size, Long dataCount) {
+        boolean hasNext = branches.size() > size;
+        List<Branch> pageContent = hasNext ? branches.subList(0, size) : branches;
+
+        return BranchPaginateResponseDto.builder()
+                .dataList(pageContent.stream()
+                        .map(this::mapToResponseDto)
+                        .collect(Collectors.toList()))
+                .dataCount(dataCount)
+                .nextCursor(hasNext ? cursorCodec.encode(pageContent.get(size - 1).getBranchId()) : null)
+                .build();
+    }
 }
\ No newline at end of file
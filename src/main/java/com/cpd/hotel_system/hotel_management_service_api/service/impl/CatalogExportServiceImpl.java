@@ -0,0 +1,166 @@
+package com.cpd.hotel_system.hotel_management_service_api.service.impl;
+
+import com.cpd.hotel_system.hotel_management_service_api.dto.catalog.CatalogRecordDto;
+import com.cpd.hotel_system.hotel_management_service_api.enums.BranchType;
+import com.cpd.hotel_system.hotel_management_service_api.enums.CatalogRecordType;
+import com.cpd.hotel_system.hotel_management_service_api.enums.ContentEncoding;
+import com.cpd.hotel_system.hotel_management_service_api.repo.AddressRepo;
+import com.cpd.hotel_system.hotel_management_service_api.repo.BranchRepo;
+import com.cpd.hotel_system.hotel_management_service_api.repo.FacilityRepo;
+import com.cpd.hotel_system.hotel_management_service_api.repo.HotelRepo;
+import com.cpd.hotel_system.hotel_management_service_api.repo.RoomRepo;
+import com.cpd.hotel_system.hotel_management_service_api.service.CatalogExportService;
+import com.cpd.hotel_system.hotel_management_service_api.service.HotelDescriptionService;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Writes the whole catalog as NDJSON, one {@link CatalogRecordDto} per line, in the format read by the import.
+ * Every type is streamed with a server side cursor, parents before children, inside one repeatable read
+ * transaction so all lines come from the same snapshot. Rows are read as column projections, no entity
+ * enters the persistence context and memory stays flat whatever the catalog size.
+ */
+@Service
+@RequiredArgsConstructor
+public class CatalogExportServiceImpl implements CatalogExportService {
+
+    private final HotelRepo hotelRepo;
+    private final BranchRepo branchRepo;
+    private final AddressRepo addressRepo;
+    private final RoomRepo roomRepo;
+    private final FacilityRepo facilityRepo;
+    private final HotelDescriptionService hotelDescriptionService;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void exportCatalog(OutputStream out) throws IOException {
+        // The export reads descriptions from their own table only, move any the backfill has not reached yet
+        hotelDescriptionService.backfill();
+
+        TransactionTemplate snapshot = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        snapshot.setReadOnly(true);
+        snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+
+        ObjectWriter writer = objectMapper.writerFor(CatalogRecordDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(SerializationFeature.CLOSE_CLOSEABLE);
+        try (JsonGenerator generator = objectMapper.getFactory()
+                .createGenerator(out, JsonEncoding.UTF8)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            // Lines are ended explicitly, no separator between root values
+            generator.setRootValueSeparator(null);
+            try {
+                snapshot.executeWithoutResult(status -> {
+                    write(generator, writer, hotelRepo.streamExportColumns(), this::toHotelRecord);
+                    write(generator, writer, branchRepo.streamExportColumns(), this::toBranchRecord);
+                    write(generator, writer, addressRepo.streamExportColumns(), this::toAddressRecord);
+                    write(generator, writer, roomRepo.streamExportColumns(), this::toRoomRecord);
+                    write(generator, writer, facilityRepo.streamExportColumns(), this::toFacilityRecord);
+                });
+            } catch (UncheckedIOException e) {
+                // The client went away, the transaction is rolled back and the cursors closed
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Helper method to write every row of a stream as one line, closing the cursor at the end
+     */
+    private void write(JsonGenerator generator, ObjectWriter writer,
+                       Stream<Object[]> rows, Function<Object[], CatalogRecordDto> mapper) {
+        try (rows) {
+            rows.forEach(row -> {
+                try {
+                    writer.writeValue(generator, mapper.apply(row));
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private CatalogRecordDto toHotelRecord(Object[] row) {
+        return CatalogRecordDto.builder()
+                .type(CatalogRecordType.HOTEL)
+                .ref((String) row[0])
+                .hotelName((String) row[1])
+                .starRating((Integer) row[2])
+                .description(descriptionOf(row))
+                .activeStatus((Boolean) row[3])
+                .startingForm((BigDecimal) row[4])
+                .build();
+    }
+
+    private CatalogRecordDto toBranchRecord(Object[] row) {
+        return CatalogRecordDto.builder()
+                .type(CatalogRecordType.BRANCH)
+                .ref((String) row[0])
+                .parentRef((String) row[1])
+                .branchName((String) row[2])
+                .branchType((BranchType) row[3])
+                .roomCount((Integer) row[4])
+                .build();
+    }
+
+    private CatalogRecordDto toAddressRecord(Object[] row) {
+        return CatalogRecordDto.builder()
+                .type(CatalogRecordType.ADDRESS)
+                .ref((String) row[0])
+                .parentRef((String) row[1])
+                .addressLine((String) row[2])
+                .city((String) row[3])
+                .country((String) row[4])
+                .latitude((BigDecimal) row[5])
+                .longitude((BigDecimal) row[6])
+                .build();
+    }
+
+    private CatalogRecordDto toRoomRecord(Object[] row) {
+        return CatalogRecordDto.builder()
+                .type(CatalogRecordType.ROOM)
+                .ref((String) row[0])
+                .parentRef((String) row[1])
+                .roomNumber((String) row[2])
+                .roomType((String) row[3])
+                .bedCount((Integer) row[4])
+                .price((BigDecimal) row[5])
+                .available((Boolean) row[6])
+                .build();
+    }
+
+    private CatalogRecordDto toFacilityRecord(Object[] row) {
+        return CatalogRecordDto.builder()
+                .type(CatalogRecordType.FACILITY)
+                .ref(String.valueOf(row[0]))
+                .parentRef((String) row[1])
+                .name((String) row[2])
+                .build();
+    }
+
+    private String descriptionOf(Object[] row) {
+        if (row[5] == null) {
+            return null;
+        }
+        return hotelDescriptionService.decode((ContentEncoding) row[5], (byte[]) row[6], (Integer) row[7]);
+    }
+}
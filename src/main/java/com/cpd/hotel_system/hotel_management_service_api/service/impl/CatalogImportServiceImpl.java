@@ -0,0 +1,579 @@
+package com.cpd.hotel_system.hotel_management_service_api.service.impl;
+
+import com.cpd.hotel_system.hotel_management_service_api.dto.catalog.CatalogRecordDto;
+import com.cpd.hotel_system.hotel_management_service_api.dto.response.ResponseImportReportDto;
+import com.cpd.hotel_system.hotel_management_service_api.dto.response.ResponseRowErrorDto;
+import com.cpd.hotel_system.hotel_management_service_api.entity.HotelDescription;
+import com.cpd.hotel_system.hotel_management_service_api.enums.CatalogRecordType;
+import com.cpd.hotel_system.hotel_management_service_api.index.BranchGeoIndex;
+import com.cpd.hotel_system.hotel_management_service_api.index.HotelSearchIndex;
+import com.cpd.hotel_system.hotel_management_service_api.index.RoomSearchIndex;
+import com.cpd.hotel_system.hotel_management_service_api.repo.AddressRepo;
+import com.cpd.hotel_system.hotel_management_service_api.repo.BranchRepo;
+import com.cpd.hotel_system.hotel_management_service_api.repo.FacilityRepo;
+import com.cpd.hotel_system.hotel_management_service_api.repo.HotelRepo;
+import com.cpd.hotel_system.hotel_management_service_api.repo.RoomRepo;
+import com.cpd.hotel_system.hotel_management_service_api.service.AggregateService;
+import com.cpd.hotel_system.hotel_management_service_api.service.HotelDescriptionService;
+import com.cpd.hotel_system.hotel_management_service_api.service.CatalogImportService;
+import com.cpd.hotel_system.hotel_management_service_api.util.CsvRecordReader;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Streams a catalog file line by line and writes it in chunks of {@value #CHUNK_SIZE} lines,
+ * one transaction per chunk. Only the current chunk is held in memory: parent references are
+ * resolved against the chunk itself and, with one IN-query per type, against the database.
+ */
+@Service
+@RequiredArgsConstructor
+public class CatalogImportServiceImpl implements CatalogImportService {
+
+    private static final int CHUNK_SIZE = 1_000;
+    private static final int MAX_REPORTED_ERRORS = 1_000;
+
+    private final HotelRepo hotelRepo;
+    private final BranchRepo branchRepo;
+    private final AddressRepo addressRepo;
+    private final RoomRepo roomRepo;
+    private final FacilityRepo facilityRepo;
+    private final AggregateService aggregateService;
+    private final HotelDescriptionService hotelDescriptionService;
+    private final HotelSearchIndex hotelSearchIndex;
+    private final BranchGeoIndex branchGeoIndex;
+    private final RoomSearchIndex roomSearchIndex;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    private record Line(long number, CatalogRecordDto record) {
+    }
+
+    @Override
+    public ResponseImportReportDto importCatalog(InputStream body, String format) {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        if (!csv && !"ndjson".equalsIgnoreCase(format)) {
+            throw new RuntimeException(
+                    String.format("Unsupported import format: %s, expected ndjson or csv", format)
+            );
+        }
+
+        Report report = new Report(csv ? "csv" : "ndjson");
+        List<Line> chunk = new ArrayList<>(CHUNK_SIZE);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8), 1 << 16)) {
+            if (csv) {
+                readCsv(reader, report, chunk);
+            } else {
+                readNdjson(reader, report, chunk);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read the import file", e);
+        }
+        writeChunk(chunk, report);
+        return report.toDto();
+    }
+
+    private void readNdjson(BufferedReader reader, Report report, List<Line> chunk) throws IOException {
+        ObjectReader recordReader = objectMapper.readerFor(CatalogRecordDto.class);
+        long lineNumber = 0;
+        String text;
+        while ((text = reader.readLine()) != null) {
+            lineNumber++;
+            if (text.isBlank()) {
+                continue;
+            }
+            report.linesRead++;
+            try {
+                addLine(new Line(lineNumber, recordReader.readValue(text)), report, chunk);
+            } catch (JsonProcessingException e) {
+                report.error(lineNumber, null, "Invalid JSON: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    private void readCsv(BufferedReader reader, Report report, List<Line> chunk) throws IOException {
+        CsvRecordReader csvReader = new CsvRecordReader(reader);
+        List<String> header = csvReader.next();
+        if (header == null) {
+            return;
+        }
+        List<String> columns = header.stream().map(String::trim).collect(Collectors.toList());
+
+        List<String> fields;
+        while ((fields = csvReader.next()) != null) {
+            long lineNumber = csvReader.getRecordLineNumber();
+            report.linesRead++;
+            Map<String, String> values = new LinkedHashMap<>();
+            for (int i = 0; i < columns.size() && i < fields.size(); i++) {
+                if (!fields.get(i).isEmpty()) {
+                    values.put(columns.get(i), fields.get(i));
+                }
+            }
+            try {
+                addLine(new Line(lineNumber, objectMapper.convertValue(values, CatalogRecordDto.class)), report, chunk);
+            } catch (IllegalArgumentException e) {
+                report.error(lineNumber, null, "Invalid CSV row: " + e.getMessage());
+            }
+        }
+    }
+
+    private void addLine(Line line, Report report, List<Line> chunk) {
+        if (line.record().getType() == null) {
+            report.error(line.number(), line.record().getRef(), "Record type is required");
+            return;
+        }
+        chunk.add(line);
+        if (chunk.size() == CHUNK_SIZE) {
+            writeChunk(chunk, report);
+        }
+    }
+
+    /**
+     * Helper method to validate and insert one chunk in its own transaction.
+     * A database error rolls back the whole chunk and every line of it is reported as failed.
+     */
+    private void writeChunk(List<Line> chunk, Report report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        ChunkWriter writer = new ChunkWriter(chunk);
+        try {
+            transactionTemplate.executeWithoutResult(status -> writer.write());
+        } catch (DataAccessException e) {
+            String message = "Chunk rolled back: " + e.getMostSpecificCause().getMessage();
+            for (Line line : chunk) {
+                report.error(line.number(), line.record().getRef(),
+                        writer.errors.getOrDefault(line.number(), message));
+            }
+            chunk.clear();
+            return;
+        }
+
+        writer.errors.forEach((number, message) -> report.error(number, writer.refOf(number), message));
+        report.hotelsCreated += writer.hotels.size();
+        report.branchesCreated += writer.branches.size();
+        report.addressesCreated += writer.addresses.size();
+        report.roomsCreated += writer.rooms.size();
+        report.facilitiesCreated += writer.facilities.size();
+        writer.afterCommit();
+        chunk.clear();
+    }
+
+    /**
+     * Validation and inserts of one chunk, records are written parents first
+     */
+    private final class ChunkWriter {
+        private final List<Line> chunk;
+        private final Map<Long, String> errors = new HashMap<>();
+        private final Map<Long, String> refs = new HashMap<>();
+
+        // id -> record of the rows inserted by this chunk
+        private final Map<String, CatalogRecordDto> hotels = new LinkedHashMap<>();
+        private final Map<String, CatalogRecordDto> branches = new LinkedHashMap<>();
+        private final Map<String, CatalogRecordDto> addresses = new LinkedHashMap<>();
+        private final Map<String, CatalogRecordDto> rooms = new LinkedHashMap<>();
+        private final List<CatalogRecordDto> facilities = new ArrayList<>();
+
+        // branch id -> hotel id of every branch referenced by the chunk
+        private final Map<String, String> hotelOfBranch = new HashMap<>();
+
+        private ChunkWriter(List<Line> chunk) {
+            this.chunk = chunk;
+        }
+
+        private String refOf(long number) {
+            return refs.get(number);
+        }
+
+        private void reject(Line line, String message) {
+            errors.put(line.number(), message);
+        }
+
+        private void write() {
+            Map<CatalogRecordType, List<Line>> byType = new EnumMap<>(CatalogRecordType.class);
+            for (Line line : chunk) {
+                refs.put(line.number(), line.record().getRef());
+                byType.computeIfAbsent(line.record().getType(), t -> new ArrayList<>()).add(line);
+            }
+
+            prepareHotels(byType.getOrDefault(CatalogRecordType.HOTEL, List.of()));
+            prepareBranches(byType.getOrDefault(CatalogRecordType.BRANCH, List.of()));
+            prepareAddresses(byType.getOrDefault(CatalogRecordType.ADDRESS, List.of()));
+            prepareRooms(byType.getOrDefault(CatalogRecordType.ROOM, List.of()));
+            prepareFacilities(byType.getOrDefault(CatalogRecordType.FACILITY, List.of()));
+
+            insert();
+
+            // Aggregates of the touched branches and hotels, one update per branch
+            Map<String, List<CatalogRecordDto>> roomsByBranch = rooms.values().stream()
+                    .collect(Collectors.groupingBy(CatalogRecordDto::getParentRef));
+            roomsByBranch.forEach((branchId, branchRooms) -> aggregateService.roomsAdded(
+                    branchId,
+                    hotelOfBranch.get(branchId),
+                    branchRooms.size(),
+                    branchRooms.stream().map(CatalogRecordDto::getPrice).min(BigDecimal::compareTo).orElse(null)));
+        }
+
+        private void prepareHotels(List<Line> lines) {
+            Set<String> existing = existing(lines, hotelRepo::findExistingIds);
+            for (Line line : lines) {
+                CatalogRecordDto record = line.record();
+                String id = idOf(record);
+                if (isBlank(record.getHotelName())) {
+                    reject(line, "Hotel name is required");
+                } else if (existing.contains(id) || hotels.containsKey(id)) {
+                    reject(line, String.format("Hotel with id %s already exists", id));
+                } else {
+                    hotels.put(id, record);
+                }
+            }
+        }
+
+        private void prepareBranches(List<Line> lines) {
+            Set<String> existing = existing(lines, ids -> branchRepo.findHotelIdsByBranchIdIn(ids).stream()
+                    .map(row -> (String) row[0]).collect(Collectors.toList()));
+            Set<String> parents = parents(lines, hotels.keySet(), hotelRepo::findExistingIds);
+            Set<String> names = lines.stream().map(l -> l.record().getBranchName())
+                    .filter(n -> !isBlank(n)).collect(Collectors.toSet());
+            Set<String> usedNames = pairs(parents.isEmpty() || names.isEmpty() ? List.of()
+                    : branchRepo.findNamesByHotelIdInAndBranchNameIn(parents, names));
+
+            for (Line line : lines) {
+                CatalogRecordDto record = line.record();
+                String id = idOf(record);
+                if (isBlank(record.getBranchName()) || record.getBranchType() == null) {
+                    reject(line, "Branch name and branch type are required");
+                } else if (!parents.contains(record.getParentRef())) {
+                    reject(line, String.format("Hotel not found with id: %s", record.getParentRef()));
+                } else if (existing.contains(id) || branches.containsKey(id)) {
+                    reject(line, String.format("Branch with id %s already exists", id));
+                } else if (!usedNames.add(record.getParentRef() + '\u0000' + record.getBranchName())) {
+                    reject(line, String.format("Branch with name '%s' already exists for this hotel", record.getBranchName()));
+                } else {
+                    branches.put(id, record);
+                    hotelOfBranch.put(id, record.getParentRef());
+                }
+            }
+        }
+
+        private void prepareAddresses(List<Line> lines) {
+            Set<String> existing = existing(lines, addressRepo::findExistingIds);
+            Set<String> parents = branchParents(lines);
+            Set<String> withAddress = new HashSet<>(parents.isEmpty() ? List.of() : addressRepo.findBranchIdsWithAddress(parents));
+
+            for (Line line : lines) {
+                CatalogRecordDto record = line.record();
+                String id = idOf(record);
+                if (isBlank(record.getAddressLine()) || isBlank(record.getCity()) || isBlank(record.getCountry())
+                        || record.getLatitude() == null || record.getLongitude() == null) {
+                    reject(line, "Address line, city, country, latitude and longitude are required");
+                } else if (!parents.contains(record.getParentRef())) {
+                    reject(line, String.format("Branch not found with id: %s", record.getParentRef()));
+                } else if (existing.contains(id) || addresses.containsKey(id)) {
+                    reject(line, String.format("Address with id %s already exists", id));
+                } else if (!withAddress.add(record.getParentRef())) {
+                    reject(line, String.format("Address already exists for branch id: %s", record.getParentRef()));
+                } else {
+                    addresses.put(id, record);
+                }
+            }
+        }
+
+        private void prepareRooms(List<Line> lines) {
+            Set<String> existing = existing(lines, roomRepo::findExistingIds);
+            Set<String> parents = branchParents(lines);
+            Set<String> numbers = lines.stream().map(l -> l.record().getRoomNumber())
+                    .filter(n -> !isBlank(n)).collect(Collectors.toSet());
+            Set<String> usedNumbers = pairs(parents.isEmpty() || numbers.isEmpty() ? List.of()
+                    : roomRepo.findNumbersByBranchIdInAndRoomNumberIn(parents, numbers));
+
+            for (Line line : lines) {
+                CatalogRecordDto record = line.record();
+                String id = idOf(record);
+                if (isBlank(record.getRoomNumber()) || isBlank(record.getRoomType())) {
+                    reject(line, "Room number and room type are required");
+                } else if (record.getPrice() == null || record.getPrice().signum() <= 0) {
+                    reject(line, String.format("Room price must be greater than zero, got: %s", record.getPrice()));
+                } else if (!parents.contains(record.getParentRef())) {
+                    reject(line, String.format("Branch not found with id: %s", record.getParentRef()));
+                } else if (existing.contains(id) || rooms.containsKey(id)) {
+                    reject(line, String.format("Room with id %s already exists", id));
+                } else if (!usedNumbers.add(record.getParentRef() + '\u0000' + record.getRoomNumber())) {
+                    reject(line, String.format("Room number '%s' already exists in this branch", record.getRoomNumber()));
+                } else {
+                    rooms.put(id, record);
+                }
+            }
+        }
+
+        private void prepareFacilities(List<Line> lines) {
+            Set<String> parents = parents(lines, rooms.keySet(), roomRepo::findExistingIds);
+            Set<String> names = lines.stream().map(l -> l.record().getName())
+                    .filter(n -> !isBlank(n)).collect(Collectors.toSet());
+            Set<String> usedNames = pairs(parents.isEmpty() || names.isEmpty() ? List.of()
+                    : facilityRepo.findNamesByRoomIdInAndNameIn(parents, names));
+
+            for (Line line : lines) {
+                CatalogRecordDto record = line.record();
+                if (isBlank(record.getName())) {
+                    reject(line, "Facility name is required");
+                } else if (!parents.contains(record.getParentRef())) {
+                    reject(line, String.format("Room not found with id: %s", record.getParentRef()));
+                } else if (!usedNames.add(record.getParentRef() + '\u0000' + record.getName())) {
+                    reject(line, String.format("Facility '%s' already exists for this room", record.getName()));
+                } else {
+                    facilities.add(record);
+                }
+            }
+        }
+
+        /**
+         * Helper method to resolve branch parents, remembering the hotel of every branch found
+         */
+        private Set<String> branchParents(List<Line> lines) {
+            Set<String> parents = new HashSet<>();
+            Set<String> lookup = new HashSet<>();
+            for (Line line : lines) {
+                String parent = line.record().getParentRef();
+                if (parent == null) {
+                    continue;
+                }
+                if (branches.containsKey(parent) || hotelOfBranch.containsKey(parent)) {
+                    parents.add(parent);
+                } else {
+                    lookup.add(parent);
+                }
+            }
+            if (!lookup.isEmpty()) {
+                for (Object[] row : branchRepo.findHotelIdsByBranchIdIn(lookup)) {
+                    parents.add((String) row[0]);
+                    hotelOfBranch.put((String) row[0], (String) row[1]);
+                }
+            }
+            return parents;
+        }
+
+        private void insert() {
+            LocalDateTime now = LocalDateTime.now();
+            List<Map.Entry<String, CatalogRecordDto>> hotelRows = new ArrayList<>(hotels.entrySet());
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO hotel (hotel_id, hotel_name, star_rating, created_at, updated_at, " +
+                            "active_status, starting_form) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                    hotelRows, CHUNK_SIZE, (ps, row) -> {
+                        CatalogRecordDto record = row.getValue();
+                        ps.setString(1, row.getKey());
+                        ps.setString(2, record.getHotelName());
+                        ps.setInt(3, record.getStarRating() == null ? 0 : record.getStarRating());
+                        ps.setTimestamp(4, Timestamp.valueOf(now));
+                        ps.setTimestamp(5, Timestamp.valueOf(now));
+                        ps.setBoolean(6, record.getActiveStatus() == null || record.getActiveStatus());
+                        // Maintained from the rooms, see AggregateService
+                        ps.setBigDecimal(7, BigDecimal.ZERO);
+                    });
+
+            List<HotelDescription> descriptions = hotelRows.stream()
+                    .filter(row -> row.getValue().getDescription() != null && !row.getValue().getDescription().isEmpty())
+                    .map(row -> hotelDescriptionService.encode(row.getKey(), row.getValue().getDescription()))
+                    .toList();
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO hotel_description (hotel_id, encoding, content_length, content) VALUES (?, ?, ?, ?)",
+                    descriptions, CHUNK_SIZE, (ps, description) -> {
+                        ps.setString(1, description.getHotelId());
+                        ps.setString(2, description.getEncoding().name());
+                        ps.setInt(3, description.getContentLength());
+                        ps.setBytes(4, description.getContent());
+                    });
+
+            List<Map.Entry<String, CatalogRecordDto>> branchRows = new ArrayList<>(branches.entrySet());
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO branch (branch_id, room_count, branch_type, branch_name, hotel_id) VALUES (?, 0, ?, ?, ?)",
+                    branchRows, CHUNK_SIZE, (ps, row) -> {
+                        ps.setString(1, row.getKey());
+                        ps.setString(2, row.getValue().getBranchType().name());
+                        ps.setString(3, row.getValue().getBranchName());
+                        ps.setString(4, row.getValue().getParentRef());
+                    });
+
+            List<Map.Entry<String, CatalogRecordDto>> addressRows = new ArrayList<>(addresses.entrySet());
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO address (address_id, address_line, city, country, longitude, latitude, branch_id) " +
+                            "VALUES (?, ?, ?, ?, ?, ?, ?)",
+                    addressRows, CHUNK_SIZE, (ps, row) -> {
+                        CatalogRecordDto record = row.getValue();
+                        ps.setString(1, row.getKey());
+                        ps.setString(2, record.getAddressLine());
+                        ps.setString(3, record.getCity());
+                        ps.setString(4, record.getCountry());
+                        ps.setBigDecimal(5, record.getLongitude());
+                        ps.setBigDecimal(6, record.getLatitude());
+                        ps.setString(7, record.getParentRef());
+                    });
+
+            List<Map.Entry<String, CatalogRecordDto>> roomRows = new ArrayList<>(rooms.entrySet());
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO room (room_id, room_number, room_type, bed_count, price, is_available, branch_id) " +
+                            "VALUES (?, ?, ?, ?, ?, ?, ?)",
+                    roomRows, CHUNK_SIZE, (ps, row) -> {
+                        CatalogRecordDto record = row.getValue();
+                        ps.setString(1, row.getKey());
+                        ps.setString(2, record.getRoomNumber());
+                        ps.setString(3, record.getRoomType());
+                        ps.setInt(4, record.getBedCount() == null ? 0 : record.getBedCount());
+                        ps.setBigDecimal(5, record.getPrice());
+                        ps.setBoolean(6, record.getAvailable() == null || record.getAvailable());
+                        ps.setString(7, record.getParentRef());
+                    });
+
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO facility (name, room_id) VALUES (?, ?)",
+                    facilities, CHUNK_SIZE, (ps, record) -> {
+                        ps.setString(1, record.getName());
+                        ps.setString(2, record.getParentRef());
+                    });
+        }
+
+        /**
+         * Helper method to publish the committed rows to the in-memory indexes
+         */
+        private void afterCommit() {
+            hotels.forEach((id, record) -> {
+                if (record.getActiveStatus() == null || record.getActiveStatus()) {
+                    hotelSearchIndex.put(id, record.getHotelName());
+                }
+            });
+            addresses.forEach((id, record) -> {
+                branchGeoIndex.put(id, record.getParentRef(), record.getLatitude(), record.getLongitude());
+                roomSearchIndex.updateBranchCity(record.getParentRef(), record.getCity());
+            });
+            rooms.forEach((id, record) -> roomSearchIndex.put(
+                    id,
+                    record.getPrice(),
+                    record.getBedCount() == null ? 0 : record.getBedCount(),
+                    record.getRoomType(),
+                    record.getAvailable() == null || record.getAvailable(),
+                    record.getParentRef(),
+                    hotelOfBranch.get(record.getParentRef()),
+                    null));
+            facilities.forEach(record -> roomSearchIndex.addFacility(record.getParentRef(), record.getName()));
+        }
+
+        /**
+         * Helper method to find which of the explicit refs of the lines already exist in the database
+         */
+        private Set<String> existing(List<Line> lines, Function<Collection<String>, List<String>> query) {
+            Set<String> ids = lines.stream().map(l -> l.record().getRef())
+                    .filter(ref -> !isBlank(ref)).collect(Collectors.toSet());
+            return ids.isEmpty() ? Set.of() : new HashSet<>(query.apply(ids));
+        }
+
+        /**
+         * Helper method to resolve parent refs against the rows of this chunk first, then the database
+         */
+        private Set<String> parents(List<Line> lines, Set<String> inChunk,
+                                    Function<Collection<String>, List<String>> query) {
+            Set<String> parents = new HashSet<>();
+            Set<String> lookup = new HashSet<>();
+            for (Line line : lines) {
+                String parent = line.record().getParentRef();
+                if (parent != null) {
+                    (inChunk.contains(parent) ? parents : lookup).add(parent);
+                }
+            }
+            if (!lookup.isEmpty()) {
+                parents.addAll(query.apply(lookup));
+            }
+            return parents;
+        }
+
+        private Set<String> pairs(List<Object[]> rows) {
+            Set<String> pairs = new HashSet<>();
+            for (Object[] row : rows) {
+                pairs.add(row[0] + "\u0000" + row[1]);
+            }
+            return pairs;
+        }
+
+        /**
+         * Helper method to take the ref as the id, generating one when the record has none
+         */
+        private String idOf(CatalogRecordDto record) {
+            if (isBlank(record.getRef())) {
+                record.setRef(UUID.randomUUID().toString());
+            }
+            return record.getRef();
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    /**
+     * Running totals of one import, only the first errors are kept
+     */
+    private static final class Report {
+        private final String format;
+        private long linesRead;
+        private long hotelsCreated;
+        private long branchesCreated;
+        private long addressesCreated;
+        private long roomsCreated;
+        private long facilitiesCreated;
+        private long failedLines;
+        private final List<ResponseRowErrorDto> errors = new ArrayList<>();
+
+        private Report(String format) {
+            this.format = format;
+        }
+
+        private void error(long line, String reference, String message) {
+            failedLines++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(ResponseRowErrorDto.builder().row(line).reference(reference).message(message).build());
+            }
+        }
+
+        private ResponseImportReportDto toDto() {
+            return ResponseImportReportDto.builder()
+                    .format(format)
+                    .linesRead(linesRead)
+                    .hotelsCreated(hotelsCreated)
+                    .branchesCreated(branchesCreated)
+                    .addressesCreated(addressesCreated)
+                    .roomsCreated(roomsCreated)
+                    .facilitiesCreated(facilitiesCreated)
+                    .failedLines(failedLines)
+                    .errors(errors)
+                    .errorsTruncated(failedLines > errors.size())
+                    .build();
+        }
+    }
+}
@@ -1,14 +1,22 @@
 package com.cpd.hotel_system.hotel_management_service_api.service.impl;
 
+import com.cpd.hotel_system.hotel_management_service_api.config.CacheConfig;
+import com.cpd.hotel_system.hotel_management_service_api.config.CatalogCache;
 import com.cpd.hotel_system.hotel_management_service_api.dto.request.RequestFacilityDto;
+import com.cpd.hotel_system.hotel_management_service_api.dto.response.ResponseFacilityCatalogDto;
 import com.cpd.hotel_system.hotel_management_service_api.dto.response.ResponseFacilityDto;
 import com.cpd.hotel_system.hotel_management_service_api.dto.response.paginate.FacilityPaginateResponseDto;
 import com.cpd.hotel_system.hotel_management_service_api.entity.Facility;
 import com.cpd.hotel_system.hotel_management_service_api.entity.Room;
+import com.cpd.hotel_system.hotel_management_service_api.index.RoomSearchIndex;
 import com.cpd.hotel_system.hotel_management_service_api.repo.FacilityRepo;
 import com.cpd.hotel_system.hotel_management_service_api.repo.RoomRepo;
 import com.cpd.hotel_system.hotel_management_service_api.service.FacilityService;
+import com.cpd.hotel_system.hotel_management_service_api.util.AfterCommit;
+import com.cpd.hotel_system.hotel_management_service_api.util.CursorCodec;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -25,6 +33,9 @@ public class FacilityServiceImpl implements FacilityService {
 
     private final FacilityRepo facilityRepo;
     private final RoomRepo roomRepo;
+    private final CursorCodec cursorCodec;
+    private final CatalogCache catalogCache;
+    private final RoomSearchIndex roomSearchIndex;
 
     @Override
     public void create(RequestFacilityDto dto) {
@@ -48,6 +59,10 @@ public class FacilityServiceImpl implements FacilityService {
                 .build();
 
         facilityRepo.save(facility);
+        catalogCache.evictRoom(room.getRoomId());
+        String roomId = room.getRoomId();
+        String name = facility.getName();
+        AfterCommit.run(() -> roomSearchIndex.addFacility(roomId, name));
     }
 
     @Override
@@ -68,6 +83,10 @@ public class FacilityServiceImpl implements FacilityService {
                         String.format("Facility not found with id: %s", facilityId)
                 ));
 
+        catalogCache.evictFacility(id);
+        String oldRoomId = facility.getRoom().getRoomId();
+        catalogCache.evictRoom(oldRoomId);
+
         // If room is being changed, validate new room
         if (dto.getRoomId() != null &&
                 !dto.getRoomId().equals(facility.getRoom().getRoomId())) {
@@ -84,6 +103,7 @@ public class FacilityServiceImpl implements FacilityService {
             }
 
             facility.setRoom(newRoom);
+            catalogCache.evictRoom(newRoom.getRoomId());
         } else {
             // If room is not changing, check if new name conflicts in current room
             if (!dto.getName().equals(facility.getName()) &&
@@ -98,6 +118,10 @@ public class FacilityServiceImpl implements FacilityService {
         facility.setName(dto.getName());
 
         facilityRepo.save(facility);
+        indexFacilities(oldRoomId);
+        if (!oldRoomId.equals(facility.getRoom().getRoomId())) {
+            indexFacilities(facility.getRoom().getRoomId());
+        }
     }
 
     @Override
@@ -113,17 +137,22 @@ public class FacilityServiceImpl implements FacilityService {
         }
 
         // Check if facility exists
-        if (!facilityRepo.existsById(id)) {
-            throw new RuntimeException(
-                    String.format("Facility not found with id: %s", facilityId)
-            );
-        }
+        Facility facility = facilityRepo.findById(id)
+                .orElseThrow(() -> new RuntimeException(
+                        String.format("Facility not found with id: %s", facilityId)
+                ));
 
         facilityRepo.deleteById(id);
+        catalogCache.evictFacility(id);
+        catalogCache.evictRoom(facility.getRoom().getRoomId());
+        indexFacilities(facility.getRoom().getRoomId());
     }
 
     @Override
     @Transactional(readOnly = true)
+    // Keyed on the parsed id, so "007" and "7" share the entry that evictFacility removes
+    @Cacheable(cacheNames = CacheConfig.FACILITIES, key = "T(java.lang.Long).parseLong(#facilityId)",
+            condition = "#facilityId != null && #facilityId.matches('[0-9]{1,18}')")
     public ResponseFacilityDto findById(String facilityId) {
         // Parse facilityId to Long
         long id;
@@ -166,6 +195,68 @@ public class FacilityServiceImpl implements FacilityService {
         return buildPaginateResponse(facilityPage);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public FacilityPaginateResponseDto findAllByCursor(String cursor, int size, String roomId, boolean withCount) {
+        size = cursorCodec.pageSize(size);
+        long afterId = cursorCodec.decodeLong(cursor);
+        // Fetch one extra row to know whether there is a next page
+        Limit limit = Limit.of(size + 1);
+        List<Facility> facilities;
+        Long dataCount = null;
+
+        if (roomId == null || roomId.trim().isEmpty()) {
+            facilities = facilityRepo.findAllByIdGreaterThanOrderByIdAsc(afterId, limit);
+            if (withCount) {
+                dataCount = facilityRepo.count();
+            }
+        } else {
+            // Validate room exists
+            Room room = roomRepo.findById(roomId)
+                    .orElseThrow(() -> new RuntimeException(
+                            String.format("Room not found with id: %s", roomId)
+                    ));
+
+            facilities = facilityRepo.findAllByRoomAndIdGreaterThanOrderByIdAsc(room, afterId, limit);
+            if (withCount) {
+                dataCount = facilityRepo.countByRoom(room);
+            }
+        }
+
+        boolean hasNext = facilities.size() > size;
+        List<Facility> pageContent = hasNext ? facilities.subList(0, size) : facilities;
+
+        return FacilityPaginateResponseDto.builder()
+                .dataList(pageContent.stream()
+                        .map(this::mapToResponseDto)
+                        .collect(Collectors.toList()))
+                .dataCount(dataCount)
+                .nextCursor(hasNext ? cursorCodec.encode(pageContent.get(size - 1).getId()) : null)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ResponseFacilityCatalogDto> findCatalog() {
+        return roomSearchIndex.facilityCatalog().stream()
+                .map(facility -> ResponseFacilityCatalogDto.builder()
+                        .facilityId(facility.facilityId())
+                        .name(facility.name())
+                        .roomCount(facility.roomCount())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Helper method to reload the facility set of a room in the search index.
+     * The pending changes are flushed by the query, two names differing only in case count once.
+     * The names are read inside the transaction and published once it commits.
+     */
+    private void indexFacilities(String roomId) {
+        List<String> names = facilityRepo.findNamesByRoomId(roomId);
+        AfterCommit.run(() -> roomSearchIndex.setFacilities(roomId, names));
+    }
+
     /**
      * Helper method to map Facility entity to ResponseFacilityDto
      */
@@ -5,48 +5,165 @@ import com.amazonaws.services.s3.AmazonS3Client;
 import com.amazonaws.services.s3.model.*;
 import com.amazonaws.util.IOUtils;
 
+import com.cpd.hotel_system.hotel_management_service_api.config.MediaUploadPool;
 import com.cpd.hotel_system.hotel_management_service_api.service.FileService;
-import com.cpd.hotel_system.hotel_management_service_api.util.CommonFileSavedBinaryDataDTO;
-import com.cpd.hotel_system.hotel_management_service_api.util.FileDataExtractor;
+import com.cpd.hotel_system.hotel_management_service_api.util.CommonFileSavedSimpleDataDTO;
 import com.cpd.hotel_system.hotel_management_service_api.util.ImageUploadGenerator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
-import javax.sql.rowset.serial.SerialBlob;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.sql.SQLException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Service
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = "catalog.storage.type", havingValue = "s3", matchIfMissing = true)
 public class FileServiceImpl implements FileService {
     private final AmazonS3 s3;
     private final AmazonS3Client s3Client;
-    private final FileDataExtractor fileDataExtractor;
     private final ImageUploadGenerator imageUploadGenerator;
+    private final MediaUploadPool mediaUploadPool;
+
+    // S3 rejects parts smaller than 5 MB, except the last one
+    private static final long MIN_PART_SIZE = 5L * 1024 * 1024;
+
+    @Value("${bucketName}")
+    private String bucketName;
+
+    @Value("${catalog.media.multipart-threshold}")
+    private DataSize multipartThreshold;
+
+    @Value("${catalog.media.part-size}")
+    private DataSize partSize;
+
+    @Value("${catalog.media.part-concurrency}")
+    private int partConcurrency;
+
+    @Override
+    public String bucket() {
+        return bucketName;
+    }
 
     @Override
-    public CommonFileSavedBinaryDataDTO createResource(MultipartFile file, String directory,
+    public CommonFileSavedSimpleDataDTO createResource(MultipartFile file, String directory,
                                                        String bucket) {
-        try {
-            String originalFilename = file.getOriginalFilename();
-            String newFileName = imageUploadGenerator.generateCPDResourceName(
-                    originalFilename, UUID.randomUUID().toString());
-            PutObjectResult putObjectResult = s3Client.putObject(new
-                    PutObjectRequest(bucket, directory + "" + newFileName, file.getInputStream(),
-                    new ObjectMetadata()).withCannedAcl(CannedAccessControlList.PublicRead));
-
-            return new CommonFileSavedBinaryDataDTO(
-                    new SerialBlob(putObjectResult.getContentMd5().getBytes()),
-                    directory,
-                    new SerialBlob(newFileName.getBytes()),
-                    new SerialBlob(s3Client.getResourceUrl(bucket, directory + newFileName).getBytes()));
-        } catch (SQLException | IOException e) {
+        // The part is already spooled to disk by the container, stream it from there
+        try (InputStream content = file.getInputStream()) {
+            return createResource(content, file.getSize(), file.getContentType(), file.getOriginalFilename(),
+                    directory, bucket);
+        } catch (IOException e) {
             throw new RuntimeException(e);
         }
     }
 
+    @Override
+    public CommonFileSavedSimpleDataDTO createResource(InputStream content, long contentLength, String contentType,
+                                                       String originalFilename, String directory, String bucket) {
+        String newFileName = imageUploadGenerator.generateCPDResourceName(
+                imageUploadGenerator.safeFileName(originalFilename), UUID.randomUUID().toString());
+
+        // With a known length the SDK streams the body instead of buffering it to compute one,
+        // and it still verifies the MD5 of what it sent against the ETag
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setContentLength(contentLength);
+        if (contentType != null) {
+            metadata.setContentType(contentType);
+        }
+        MessageDigest sha256 = sha256();
+        InputStream hashed = new DigestInputStream(content, sha256) {
+            // The SDK buffers its own mark for retries, a reset here would hash bytes twice
+            @Override
+            public boolean markSupported() {
+                return false;
+            }
+        };
+        if (contentLength >= multipartThreshold.toBytes()) {
+            putMultipart(bucket, directory + newFileName, hashed, contentLength, metadata);
+        } else {
+            s3Client.putObject(new
+                    PutObjectRequest(bucket, directory + "" + newFileName, hashed,
+                    metadata).withCannedAcl(CannedAccessControlList.PublicRead));
+        }
+
+        return new CommonFileSavedSimpleDataDTO(
+                HexFormat.of().formatHex(sha256.digest()),
+                directory,
+                newFileName,
+                s3Client.getResourceUrl(bucket, directory + newFileName).toString());
+    }
+
+    @Override
+    public String putResource(InputStream content, long contentLength, String contentType, String directory,
+                              String fileName, String bucket) {
+        // Stored at the exact key, used for objects derived from another one
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setContentLength(contentLength);
+        if (contentType != null) {
+            metadata.setContentType(contentType);
+        }
+        s3Client.putObject(new PutObjectRequest(bucket, directory + fileName, content, metadata)
+                .withCannedAcl(CannedAccessControlList.PublicRead));
+        return s3Client.getResourceUrl(bucket, directory + fileName);
+    }
+
+    @Override
+    public InputStream openResource(String bucket, String directory, String fileName) {
+        return s3.getObject(bucket, directory + fileName).getObjectContent();
+    }
+
+    @Override
+    public long copyResource(String bucket, String directory, String fileName, long position, long count,
+                             WritableByteChannel target) {
+        if (count <= 0) {
+            return 0;
+        }
+        // Only the requested bytes are fetched
+        GetObjectRequest request = new GetObjectRequest(bucket, directory + fileName)
+                .withRange(position, position + count - 1);
+        try (S3Object object = s3.getObject(request);
+             InputStream content = object.getObjectContent()) {
+            return content.transferTo(Channels.newOutputStream(target));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public boolean exists(String bucket, String directory, String fileName) {
+        return s3.doesObjectExist(bucket, directory + fileName);
+    }
+
+    @Override
+    public long resourceLength(String bucket, String directory, String fileName) {
+        if (!s3.doesObjectExist(bucket, directory + fileName)) {
+            return -1;
+        }
+        return s3.getObjectMetadata(bucket, directory + fileName).getContentLength();
+    }
+
+    @Override
+    public String resourceUrl(String bucket, String directory, String fileName) {
+        return s3Client.getResourceUrl(bucket, directory + fileName);
+    }
+
     @Override
     public void deleteResource(String bucket, String directory, String fileName) {
         s3Client.deleteObject(bucket, directory + fileName);
@@ -63,6 +180,121 @@ public class FileServiceImpl implements FileService {
         }
     }
 
+    /**
+     * Helper method to send a large body as a multipart upload, parts going up in parallel on the shared pool.
+     * The body is still read once and in order, so the digest sees every byte exactly once. At most
+     * part-concurrency parts of this upload are buffered at a time. On any failure the upload is aborted,
+     * S3 drops the parts already sent and nothing is left to roll back.
+     */
+    private void putMultipart(String bucket, String key, InputStream content, long contentLength,
+                              ObjectMetadata metadata) {
+        long size = Math.max(partSize.toBytes(), MIN_PART_SIZE);
+        String uploadId = s3Client.initiateMultipartUpload(new InitiateMultipartUploadRequest(bucket, key, metadata)
+                .withCannedACL(CannedAccessControlList.PublicRead)).getUploadId();
+
+        Semaphore window = new Semaphore(Math.max(1, partConcurrency));
+        AtomicBoolean failed = new AtomicBoolean();
+        List<Future<PartETag>> parts = new ArrayList<>();
+        try {
+            long offset = 0;
+            for (int partNumber = 1; offset < contentLength; partNumber++) {
+                int length = (int) Math.min(size, contentLength - offset);
+                window.acquire();
+                try {
+                    mediaUploadPool.acquireBuffer();
+                } catch (InterruptedException e) {
+                    window.release();
+                    throw e;
+                }
+                byte[] buffer;
+                try {
+                    // A failed part surfaces below, when its future is read
+                    if (failed.get()) {
+                        mediaUploadPool.releaseBuffer();
+                        window.release();
+                        break;
+                    }
+                    buffer = content.readNBytes(length);
+                    if (buffer.length != length) {
+                        throw new IOException(String.format("Body ended after %d of %d bytes",
+                                offset + buffer.length, contentLength));
+                    }
+                } catch (IOException e) {
+                    mediaUploadPool.releaseBuffer();
+                    window.release();
+                    throw e;
+                }
+
+                UploadPartRequest request = new UploadPartRequest()
+                        .withBucketName(bucket)
+                        .withKey(key)
+                        .withUploadId(uploadId)
+                        .withPartNumber(partNumber)
+                        .withPartSize(length)
+                        .withInputStream(new ByteArrayInputStream(buffer));
+                parts.add(mediaUploadPool.submit(() -> {
+                    try {
+                        // Parts queued behind a failure are skipped, their permits still released
+                        return failed.get() ? null : s3Client.uploadPart(request).getPartETag();
+                    } catch (RuntimeException e) {
+                        failed.set(true);
+                        throw e;
+                    } finally {
+                        mediaUploadPool.releaseBuffer();
+                        window.release();
+                    }
+                }));
+                offset += length;
+            }
+
+            List<PartETag> etags = new ArrayList<>(parts.size());
+            for (Future<PartETag> part : parts) {
+                etags.add(part.get());
+            }
+            if (failed.get()) {
+                throw new RuntimeException("Multipart upload failed");
+            }
+            s3Client.completeMultipartUpload(new CompleteMultipartUploadRequest(bucket, key, uploadId, etags));
+        } catch (Exception e) {
+            failed.set(true);
+            abortMultipart(bucket, key, uploadId, parts);
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+            throw cause instanceof RuntimeException runtime ? runtime : new RuntimeException(cause);
+        }
+    }
+
+    /**
+     * Helper method to wait for the parts still in flight, then abort the upload so no part is left billed
+     */
+    private void abortMultipart(String bucket, String key, String uploadId, List<Future<PartETag>> parts) {
+        for (Future<PartETag> part : parts) {
+            try {
+                part.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException ignored) {
+                // Already the failure being handled
+            }
+        }
+        try {
+            s3Client.abortMultipartUpload(new AbortMultipartUploadRequest(bucket, key, uploadId));
+        } catch (RuntimeException e) {
+            System.err.println("Failed to abort multipart upload " + uploadId + ": " + e.getMessage());
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     /*public File convertMultipartToFile(MultipartFile file) throws IOException {
         File convFile = new File(file.getOriginalFilename());
         FileOutputStream fileOutputStream =  new FileOutputStream(convFile);
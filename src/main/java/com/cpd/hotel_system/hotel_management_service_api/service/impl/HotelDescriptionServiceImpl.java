@@ -0,0 +1,276 @@
+package com.cpd.hotel_system.hotel_management_service_api.service.impl;
+
+import com.cpd.hotel_system.hotel_management_service_api.dto.response.ResponseHotelDescriptionDto;
+import com.cpd.hotel_system.hotel_management_service_api.entity.HotelDescription;
+import com.cpd.hotel_system.hotel_management_service_api.enums.ContentEncoding;
+import com.cpd.hotel_system.hotel_management_service_api.exceptions.EntryNotFoundException;
+import com.cpd.hotel_system.hotel_management_service_api.repo.HotelDescriptionRepo;
+import com.cpd.hotel_system.hotel_management_service_api.repo.HotelRepo;
+import com.cpd.hotel_system.hotel_management_service_api.service.HotelDescriptionService;
+import com.cpd.hotel_system.hotel_management_service_api.util.ByteCodec;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+
+/**
+ * Hotel descriptions, deflated in their own table and only read by the detail paths.
+ * Descriptions written before the table existed stay in the old hotel.description column until the
+ * backfill moves them, reads fall back to that column meanwhile. The column is no longer mapped on
+ * Hotel, so it is only ever touched here, with plain SQL.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class HotelDescriptionServiceImpl implements HotelDescriptionService {
+
+    private static final String UPSERT = "INSERT INTO hotel_description (hotel_id, encoding, content_length, content) " +
+            "VALUES (?, ?, ?, ?) ON DUPLICATE KEY UPDATE ";
+
+    private final HotelDescriptionRepo hotelDescriptionRepo;
+    private final HotelRepo hotelRepo;
+    private final ByteCodec byteCodec;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${catalog.hotels.description-backfill-batch-size:200}")
+    private int backfillBatchSize;
+
+    // Whether the old description column may still hold text. False when the schema has no such column,
+    // e.g. it was created after the column was unmapped, or once a backfill pass found nothing to move;
+    // nothing writes the column any more, so it stays empty from then on
+    private volatile boolean legacyPending;
+
+    /**
+     * Existing schemas declare the old column NOT NULL and ddl-auto never relaxes it,
+     * hotels are inserted without it so it is made nullable once, keeping its type.
+     * Only MySQL schemas ever had the column, on any other database nothing is touched.
+     */
+    @PostConstruct
+    void prepareLegacyColumn() {
+        String database = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        if (!"MySQL".equalsIgnoreCase(database)) {
+            legacyPending = false;
+            return;
+        }
+        List<Map<String, Object>> columns = jdbcTemplate.queryForList(
+                "SELECT IS_NULLABLE, COLUMN_TYPE FROM INFORMATION_SCHEMA.COLUMNS " +
+                        "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'hotel' AND COLUMN_NAME = 'description'");
+        if (columns.isEmpty()) {
+            legacyPending = false;
+            return;
+        }
+        if ("NO".equals(String.valueOf(columns.get(0).get("IS_NULLABLE")))) {
+            jdbcTemplate.execute("ALTER TABLE hotel MODIFY description "
+                    + columns.get(0).get("COLUMN_TYPE") + " NULL");
+        }
+        legacyPending = true;
+    }
+
+    /**
+     * Compress the text, unless deflating would not make it any smaller
+     */
+    @Override
+    public HotelDescription encode(String hotelId, String text) {
+        byte[] bytes = byteCodec.toBytes(text);
+        byte[] deflated = byteCodec.deflate(bytes);
+        boolean smaller = deflated.length < bytes.length;
+        return HotelDescription.builder()
+                .hotelId(hotelId)
+                .encoding(smaller ? ContentEncoding.DEFLATE : ContentEncoding.IDENTITY)
+                .contentLength(bytes.length)
+                .content(smaller ? deflated : bytes)
+                .build();
+    }
+
+    @Override
+    public String decode(ContentEncoding encoding, byte[] content, int contentLength) {
+        if (encoding != ContentEncoding.DEFLATE) {
+            return byteCodec.toText(content);
+        }
+        try {
+            return byteCodec.toText(byteCodec.inflate(content, contentLength));
+        } catch (DataFormatException e) {
+            throw new RuntimeException(String.format("Corrupt hotel description: %s", e.getMessage()), e);
+        }
+    }
+
+    @Override
+    public void save(String hotelId, String text) {
+        if (legacyPending) {
+            // A description not moved by the backfill yet is replaced, not moved later
+            jdbcTemplate.update("UPDATE hotel SET description = NULL WHERE hotel_id = ? AND description IS NOT NULL",
+                    hotelId);
+        }
+        if (text == null || text.isEmpty()) {
+            delete(hotelId);
+            return;
+        }
+        // An upsert, so it never races the backfill inserting the same hotel
+        HotelDescription description = encode(hotelId, text);
+        jdbcTemplate.update(UPSERT + "encoding = VALUES(encoding), content_length = VALUES(content_length), " +
+                        "content = VALUES(content)",
+                description.getHotelId(), description.getEncoding().name(), description.getContentLength(),
+                description.getContent());
+    }
+
+    /**
+     * A plain DELETE, so it also removes a row the backfill committed after this transaction first read
+     */
+    @Override
+    public void delete(String hotelId) {
+        jdbcTemplate.update("DELETE FROM hotel_description WHERE hotel_id = ?", hotelId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ResponseHotelDescriptionDto find(String hotelId) {
+        return hotelDescriptionRepo.findById(hotelId)
+                .map(description -> ResponseHotelDescriptionDto.builder()
+                        .hotelId(hotelId)
+                        .encoding(description.getEncoding().name())
+                        .contentLength(description.getContentLength())
+                        .content(description.getContent())
+                        .build())
+                .orElseGet(() -> {
+                    // Not moved by the backfill yet, or the hotel has no description
+                    byte[] legacy = findLegacy(hotelId);
+                    return ResponseHotelDescriptionDto.builder()
+                            .hotelId(hotelId)
+                            .encoding(ContentEncoding.IDENTITY.name())
+                            .contentLength(legacy.length)
+                            .content(legacy)
+                            .build();
+                });
+    }
+
+    /**
+     * Helper method to read the description a hotel still keeps in its own row
+     * @return the bytes, empty once moved or when the hotel has none
+     */
+    private byte[] findLegacy(String hotelId) {
+        if (!legacyPending) {
+            if (!hotelRepo.existsById(hotelId)) {
+                throw new EntryNotFoundException("Hotel not found");
+            }
+            return new byte[0];
+        }
+        List<byte[]> rows = jdbcTemplate.query("SELECT description FROM hotel WHERE hotel_id = ?",
+                (rs, rowNum) -> rs.getBytes(1), hotelId);
+        if (rows.isEmpty()) {
+            throw new EntryNotFoundException("Hotel not found");
+        }
+        return rows.get(0) == null ? new byte[0] : rows.get(0);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String findText(String hotelId) {
+        ResponseHotelDescriptionDto description = find(hotelId);
+        return decode(ContentEncoding.valueOf(description.getEncoding()), description.getContent(),
+                (int) description.getContentLength());
+    }
+
+    /**
+     * Write the decoded text, inflating it while it is written
+     * @return number of bytes written
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long copy(ResponseHotelDescriptionDto description, OutputStream out) {
+        try {
+            if (!ContentEncoding.DEFLATE.name().equals(description.getEncoding())) {
+                out.write(description.getContent());
+                return description.getContent().length;
+            }
+            try (InputStream text = byteCodec.inflate(description.getContent())) {
+                return text.transferTo(out);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Move descriptions still in the hotel row to the description table, one short transaction per page.
+     * Each page re-reads its rows under a lock, so a description cleared or a hotel deleted since the page
+     * was selected is not copied back. A description saved meanwhile is newer and kept.
+     * The moved text reads the same, no cache is evicted.
+     * Once a pass finds nothing to move, later runs return at once instead of scanning the hotel table again.
+     * @return number of moved descriptions
+     */
+    @Override
+    @Transactional(propagation = Propagation.NEVER)
+    @Scheduled(initialDelayString = "${catalog.hotels.description-backfill-initial-delay:PT3M}",
+            fixedDelayString = "${catalog.hotels.description-backfill-delay:PT1H}")
+    public int backfill() {
+        if (!legacyPending) {
+            return 0;
+        }
+        String lastHotelId = "";
+        int moved = 0;
+        while (true) {
+            List<String> hotelIds = jdbcTemplate.queryForList(
+                    "SELECT hotel_id FROM hotel WHERE hotel_id > ? AND LENGTH(description) > 0 " +
+                            "ORDER BY hotel_id LIMIT ?", String.class, lastHotelId, backfillBatchSize);
+            if (hotelIds.isEmpty()) {
+                break;
+            }
+
+            Integer pageMoved = transactionTemplate.execute(status -> movePage(hotelIds));
+            moved += pageMoved == null ? 0 : pageMoved;
+
+            lastHotelId = hotelIds.get(hotelIds.size() - 1);
+            if (hotelIds.size() < backfillBatchSize) {
+                break;
+            }
+        }
+        if (moved == 0) {
+            legacyPending = false;
+        }
+        return moved;
+    }
+
+    /**
+     * Helper method to move one page, the hotel rows stay locked until the descriptions are written and cleared
+     * @return number of moved descriptions
+     */
+    private int movePage(List<String> hotelIds) {
+        String placeholders = String.join(", ", Collections.nCopies(hotelIds.size(), "?"));
+        List<HotelDescription> descriptions = jdbcTemplate.query(
+                "SELECT hotel_id, description FROM hotel WHERE hotel_id IN (" + placeholders + ") " +
+                        "AND LENGTH(description) > 0 FOR UPDATE",
+                (rs, rowNum) -> encode(rs.getString(1), byteCodec.toText(rs.getBytes(2))), hotelIds.toArray());
+        if (descriptions.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(
+                UPSERT + "hotel_id = hotel_id",
+                descriptions, descriptions.size(), (ps, description) -> {
+                    ps.setString(1, description.getHotelId());
+                    ps.setString(2, description.getEncoding().name());
+                    ps.setInt(3, description.getContentLength());
+                    ps.setBytes(4, description.getContent());
+                });
+        jdbcTemplate.batchUpdate("UPDATE hotel SET description = NULL WHERE hotel_id = ?",
+                descriptions, descriptions.size(), (ps, description) ->
+                        ps.setString(1, description.getHotelId()));
+        return descriptions.size();
+    }
+}
@@ -1,5 +1,7 @@
 package com.cpd.hotel_system.hotel_management_service_api.service.impl;
 
+import com.cpd.hotel_system.hotel_management_service_api.config.CacheConfig;
+import com.cpd.hotel_system.hotel_management_service_api.config.CatalogCache;
 import com.cpd.hotel_system.hotel_management_service_api.dto.request.RequestHotelDto;
 import com.cpd.hotel_system.hotel_management_service_api.dto.response.ResponseBranchDto;
 import com.cpd.hotel_system.hotel_management_service_api.dto.response.ResponseHotelDto;
@@ -7,16 +9,26 @@ import com.cpd.hotel_system.hotel_management_service_api.dto.response.paginate.H
 import com.cpd.hotel_system.hotel_management_service_api.entity.Branch;
 import com.cpd.hotel_system.hotel_management_service_api.entity.Hotel;
 import com.cpd.hotel_system.hotel_management_service_api.exceptions.EntryNotFoundException;
+import com.cpd.hotel_system.hotel_management_service_api.index.HotelSearchIndex;
 import com.cpd.hotel_system.hotel_management_service_api.repo.HotelRepo;
+import com.cpd.hotel_system.hotel_management_service_api.service.HotelDescriptionService;
 import com.cpd.hotel_system.hotel_management_service_api.service.HotelService;
-import com.cpd.hotel_system.hotel_management_service_api.util.ByteCodeHandler;
+import com.cpd.hotel_system.hotel_management_service_api.util.AfterCommit;
+import com.cpd.hotel_system.hotel_management_service_api.util.CursorCodec;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,38 +37,60 @@ public class HotelServiceImpl implements HotelService {
 
     private final HotelRepo hotelRepo;
 
-    private final ByteCodeHandler byteCodeHandler;
+    private final HotelDescriptionService hotelDescriptionService;
 
+    private final HotelSearchIndex hotelSearchIndex;
+
+    private final CursorCodec cursorCodec;
+
+    private final CatalogCache catalogCache;
 
     @Override
+    @Transactional
     public void create(RequestHotelDto dto)  {
 
-        Hotel hotel= null;
-        try {
-            hotel = toHotel(dto);
-        } catch (SQLException e) {
-            throw new RuntimeException(e);
-        }
+        Hotel hotel = toHotel(dto);
         hotelRepo.save(hotel);
+        hotelDescriptionService.save(hotel.getHotelId(), dto.getDescription());
+        String hotelId = hotel.getHotelId();
+        String name = hotel.getHotelName();
+        AfterCommit.run(() -> hotelSearchIndex.put(hotelId, name));
     }
 
     @Override
+    @Transactional
     public void update(RequestHotelDto dto, String hotelId) throws SQLException {
                 Hotel selectedHotel=hotelRepo.findById(hotelId).orElseThrow(()->new EntryNotFoundException("Hotel not found"));
                 selectedHotel.setHotelName(dto.getHotelName());
                 selectedHotel.setStarRating(dto.getStarRating());
-                selectedHotel.setDescription(byteCodeHandler.stringToBlob(dto.getDescription()));
                 selectedHotel.setUpdatedAt(LocalDateTime.now());
-                selectedHotel.setStartingForm(dto.getStartingForm());
                 hotelRepo.save(selectedHotel);
+                hotelDescriptionService.save(hotelId, dto.getDescription());
+                catalogCache.evictHotel(hotelId);
+                String name = selectedHotel.getHotelName();
+                if (selectedHotel.isActiveStatus()) {
+                    AfterCommit.run(() -> hotelSearchIndex.put(hotelId, name));
+                } else {
+                    AfterCommit.run(() -> hotelSearchIndex.remove(hotelId));
+                }
     }
 
     @Override
+    @Transactional
     public void delete(String hotelId) {
 
         //first method
         Hotel selectedHotel=hotelRepo.findById(hotelId).orElseThrow(()->new EntryNotFoundException("Hotel not found"));
         hotelRepo.delete(selectedHotel);
+        // Delete the hotel row first, a description backfill page holding it is waited for, then its copy removed
+        hotelRepo.flush();
+        hotelDescriptionService.delete(hotelId);
+        catalogCache.evictHotel(hotelId);
+        // Branches are removed by the cascade
+        if (selectedHotel.getBranches() != null) {
+            selectedHotel.getBranches().forEach(branch -> catalogCache.evictBranch(branch.getBranchId()));
+        }
+        AfterCommit.run(() -> hotelSearchIndex.remove(hotelId));
 
         //second method
       /*  hotelRepo.findById(hotelId).orElseThrow(()->new EntryNotFoundException("Hotel not found"));
@@ -64,39 +98,105 @@ public class HotelServiceImpl implements HotelService {
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.HOTELS, key = "#hotelId")
     public ResponseHotelDto findById(String hotelId) throws SQLException {
-        Hotel hotel=hotelRepo.findById(hotelId).orElseThrow(()->new EntryNotFoundException("Hotel not found"));
-        return toResponseHotelDto(hotel);
+        Hotel hotel=hotelRepo.findWithBranchesByHotelId(hotelId).orElseThrow(()->new EntryNotFoundException("Hotel not found"));
+        ResponseHotelDto response = toResponseHotelDto(hotel);
+        // Only the detail carries the description, lists leave it out
+        response.setDescription(hotelDescriptionService.findText(hotelId));
+        return response;
     }
 
     @Override
     public HotelPaginateResponseDto findAll(int page, int size, String searchText) {
+        if (page < 0 || size <= 0) {
+            throw new RuntimeException(
+                    String.format("Invalid page request: page %d, size %d", page, size)
+            );
+        }
+
+        if (!hotelSearchIndex.isReady()) {
+            // Index is still loading, fall back to the table scan
+            return HotelPaginateResponseDto.builder()
+                    .dataCount(hotelRepo.countAllHotels(searchText))
+                    .dataList(
+                            hotelRepo.searchAllHotels(searchText, PageRequest.of(page,size))
+                                    .stream().map(this::toResponseHotelDtoUnchecked)
+                                    .collect(Collectors.toList())
+                    ).build();
+        }
+
+        HotelSearchIndex.SearchResult result = hotelSearchIndex.search(searchText, Math.multiplyExact((long) page, size), size);
 
         return HotelPaginateResponseDto.builder()
-                .dataCount(hotelRepo.countAllHotels(searchText))
+                .dataCount(result.total())
                 .dataList(
-                        hotelRepo.searchAllHotels(searchText, PageRequest.of(page,size))
-                                .stream().map(e ->{
-                                    try {
-                                        return toResponseHotelDto(e);
-                                    } catch (SQLException ex) {
-                                        throw new RuntimeException(ex);
-                                    }
-                                }).collect(Collectors.toList())
+                        loadInOrder(result.hotelIds()).stream()
+                                .map(this::toResponseHotelDtoUnchecked)
+                                .collect(Collectors.toList())
                 ).build();
     }
 
-    private Hotel toHotel(RequestHotelDto dto) throws SQLException {
+    @Override
+    public HotelPaginateResponseDto findAllByCursor(String cursor, int size, String searchText, boolean withCount) {
+        size = cursorCodec.pageSize(size);
+        String afterHotelId = cursorCodec.decode(cursor);
+        List<Hotel> hotels;
+        Long dataCount = null;
+
+        // Fetch one extra row to know whether there is a next page
+        if (hotelSearchIndex.isReady()) {
+            HotelSearchIndex.SearchResult result = hotelSearchIndex.searchAfter(searchText, afterHotelId, size + 1);
+            hotels = loadInOrder(result.hotelIds());
+            if (withCount) {
+                dataCount = result.total();
+            }
+        } else {
+            hotels = hotelRepo.searchAllHotelsAfter(searchText == null ? "" : searchText, afterHotelId, size + 1);
+            if (withCount) {
+                dataCount = hotelRepo.countAllHotels(searchText == null ? "" : searchText);
+            }
+        }
+
+        boolean hasNext = hotels.size() > size;
+        if (hasNext) {
+            hotels = hotels.subList(0, size);
+        }
+
+        return HotelPaginateResponseDto.builder()
+                .dataCount(dataCount)
+                .nextCursor(hasNext ? cursorCodec.encode(hotels.get(hotels.size() - 1).getHotelId()) : null)
+                .dataList(
+                        hotels.stream()
+                                .map(this::toResponseHotelDtoUnchecked)
+                                .collect(Collectors.toList())
+                ).build();
+    }
+
+    /**
+     * Helper method to load hotels by id, keeping the order of the given ids
+     */
+    private List<Hotel> loadInOrder(List<String> hotelIds) {
+        // Branches are fetched in the same query, toResponseHotelDto must not trigger lazy loads
+        Map<String, Hotel> hotels = hotelRepo.findAllByHotelIdIn(hotelIds).stream()
+                .collect(Collectors.toMap(Hotel::getHotelId, Function.identity()));
+        return hotelIds.stream()
+                .map(hotels::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private Hotel toHotel(RequestHotelDto dto) {
     return dto==null?null:
                 Hotel.builder().
                         hotelId(UUID.randomUUID().toString())
                         .hotelName(dto.getHotelName())
                         .starRating(dto.getStarRating())
-                        .description(byteCodeHandler.stringToBlob(dto.getDescription()))
                         .createdAt(LocalDateTime.now())
                         .updatedAt(LocalDateTime.now())
                         .activeStatus(true)
-                        .startingForm(dto.getStartingForm())
+                        // Maintained from the rooms, see AggregateService
+                        .startingForm(BigDecimal.ZERO)
                         .build();
     }
 
@@ -107,7 +207,6 @@ public class HotelServiceImpl implements HotelService {
                         .activeStatus(hotel.isActiveStatus())
                         .createdAt(hotel.getCreatedAt())
                         .updatedAt(hotel.getUpdatedAt())
-                        .description(byteCodeHandler.blobToString(hotel.getDescription()))
                         .hotelName(hotel.getHotelName())
                         .starRating(hotel.getStarRating())
                         .startingForm(hotel.getStartingForm())
@@ -123,6 +222,14 @@ public class HotelServiceImpl implements HotelService {
                         .build();
     }
 
+    private ResponseHotelDto toResponseHotelDtoUnchecked(Hotel hotel) {
+        try {
+            return toResponseHotelDto(hotel);
+        } catch (SQLException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
     private ResponseBranchDto toResponseBranchDto(Branch branch) throws SQLException{
             return branch==null?null:
                     ResponseBranchDto.builder()
@@ -0,0 +1,413 @@
+package com.cpd.hotel_system.hotel_management_service_api.service.impl;
+
+import com.cpd.hotel_system.hotel_management_service_api.config.CatalogCache;
+import com.cpd.hotel_system.hotel_management_service_api.entity.FileFormatter;
+import com.cpd.hotel_system.hotel_management_service_api.entity.ImageVariants;
+import com.cpd.hotel_system.hotel_management_service_api.entity.Room;
+import com.cpd.hotel_system.hotel_management_service_api.entity.RoomImage;
+import com.cpd.hotel_system.hotel_management_service_api.enums.ImageStatus;
+import com.cpd.hotel_system.hotel_management_service_api.enums.VariantStatus;
+import com.cpd.hotel_system.hotel_management_service_api.exceptions.IngestQueueFullException;
+import com.cpd.hotel_system.hotel_management_service_api.repo.RoomImageRepo;
+import com.cpd.hotel_system.hotel_management_service_api.service.ImageIngestService;
+import com.cpd.hotel_system.hotel_management_service_api.service.ImageVariantService;
+import com.cpd.hotel_system.hotel_management_service_api.service.MediaStoreService;
+import com.cpd.hotel_system.hotel_management_service_api.util.CommonFileSavedSimpleDataDTO;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Accepts room images to a local spool and stores them in the background.
+ * The request only writes the body to disk and inserts a PENDING image, a worker
+ * then stores the spooled file through {@link MediaStoreService} and flips the
+ * image to READY, retrying with backoff and marking it FAILED after the last attempt.
+ * The number and size of spooled uploads is bounded, beyond that new uploads are refused.
+ * The spool outlives restarts, images still PENDING are queued again on startup.
+ * It is local to the node, so the directory must be on a persistent volume.
+ */
+@Service
+public class ImageIngestServiceImpl implements ImageIngestService {
+
+    private static final String DATA_SUFFIX = ".bin";
+    private static final String PART_SUFFIX = ".part";
+    private static final String META_SUFFIX = ".properties";
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final RoomImageRepo roomImageRepo;
+    private final MediaStoreService mediaStoreService;
+    private final ImageVariantService imageVariantService;
+    private final CatalogCache catalogCache;
+    private final TransactionTemplate transactionTemplate;
+    private final ScheduledThreadPoolExecutor executor;
+    private final Path spoolDirectory;
+
+    // Spooled bytes by image id and the totals reserved, guarded by this
+    private final Map<Long, Long> spooled = new HashMap<>();
+    private int pendingCount;
+    private long spooledBytes;
+    // Uploads are refused until the spool left by the previous run is queued again
+    private volatile boolean accepting;
+
+    @Value("${catalog.media.ingest-max-pending:200}")
+    private int maxPending;
+
+    @Value("${catalog.media.ingest-max-spool-size:10GB}")
+    private DataSize maxSpoolSize;
+
+    @Value("${catalog.media.ingest-max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${catalog.media.ingest-retry-delay:PT10S}")
+    private Duration retryDelay;
+
+    public ImageIngestServiceImpl(RoomImageRepo roomImageRepo, MediaStoreService mediaStoreService,
+                                  ImageVariantService imageVariantService, CatalogCache catalogCache,
+                                  TransactionTemplate transactionTemplate,
+                                  @Value("${catalog.media.spool-dir}") String spoolDirectory,
+                                  @Value("${catalog.media.ingest-threads:4}") int threads) {
+        this.roomImageRepo = roomImageRepo;
+        this.mediaStoreService = mediaStoreService;
+        this.imageVariantService = imageVariantService;
+        this.catalogCache = catalogCache;
+        this.transactionTemplate = transactionTemplate;
+        this.spoolDirectory = Paths.get(spoolDirectory);
+        try {
+            Files.createDirectories(this.spoolDirectory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create image spool directory " + spoolDirectory, e);
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ScheduledThreadPoolExecutor(threads, runnable -> {
+            Thread thread = new Thread(runnable, "image-ingest-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Spool an upload and queue it for storage
+     * @return id of the PENDING room image
+     */
+    @Override
+    public long submit(Room room, InputStream content, long contentLength, String contentType, String fileName) {
+        if (!accepting) {
+            throw new IngestQueueFullException("Image ingestion is starting, please retry shortly");
+        }
+        reserve(contentLength);
+        long imageId;
+        try {
+            imageId = roomImageRepo.save(RoomImage.builder()
+                    .room(room)
+                    .status(ImageStatus.PENDING)
+                    .ingestAttempts(0)
+                    .build()).getId();
+        } catch (RuntimeException e) {
+            unreserve(contentLength);
+            throw e;
+        }
+        synchronized (this) {
+            spooled.put(imageId, contentLength);
+        }
+
+        boolean queued = false;
+        try {
+            spool(imageId, content, contentLength, contentType, fileName);
+            executor.execute(() -> ingest(imageId, 1));
+            queued = true;
+            return imageId;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to spool room image: " + e.getMessage());
+        } finally {
+            if (!queued) {
+                finish(imageId);
+                try {
+                    roomImageRepo.deleteById(imageId);
+                } catch (Exception e) {
+                    System.err.println("Failed to remove unspooled room image " + imageId + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Queue the images the previous run left PENDING, fail the ones whose spooled body is gone
+     * and drop spool files nothing refers to any more
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() throws IOException {
+        try (DirectoryStream<Path> parts = Files.newDirectoryStream(spoolDirectory, "*" + PART_SUFFIX)) {
+            for (Path part : parts) {
+                Files.deleteIfExists(part);
+            }
+        }
+
+        Set<Long> pending = new HashSet<>(roomImageRepo.findIdsByStatus(ImageStatus.PENDING));
+        for (Long imageId : pending) {
+            Path data = dataPath(imageId);
+            if (Files.exists(data) && Files.exists(metaPath(imageId))) {
+                long length = Files.size(data);
+                synchronized (this) {
+                    spooled.put(imageId, length);
+                    pendingCount++;
+                    spooledBytes += length;
+                }
+                executor.execute(() -> ingest(imageId, 1));
+            } else {
+                deleteSpool(imageId);
+                recordFailure(imageId, 0, "The spooled upload was lost");
+            }
+        }
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(spoolDirectory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                int dot = name.indexOf('.');
+                if (dot > 0 && name.substring(0, dot).chars().allMatch(Character::isDigit)
+                        && !pending.contains(Long.parseLong(name.substring(0, dot)))) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+        accepting = true;
+    }
+
+    /**
+     * Helper method to store one spooled upload and mark its image READY, retrying on failure.
+     * An image deleted while queued only has its spool dropped.
+     */
+    private void ingest(long imageId, int attempt) {
+        Optional<RoomImage> image = roomImageRepo.findById(imageId);
+        if (image.isEmpty() || image.get().getStatus() != ImageStatus.PENDING) {
+            finish(imageId);
+            return;
+        }
+
+        CommonFileSavedSimpleDataDTO resource = null;
+        try {
+            Properties meta = new Properties();
+            try (InputStream in = Files.newInputStream(metaPath(imageId))) {
+                meta.load(in);
+            }
+            try (InputStream content = Files.newInputStream(dataPath(imageId))) {
+                // The hash was computed while spooling, identical bytes already stored are not sent again
+                resource = mediaStoreService.acquire(content, Long.parseLong(meta.getProperty("contentLength")),
+                        meta.getProperty("contentType"), meta.getProperty("fileName"), meta.getProperty("sha256"));
+            }
+            FileFormatter fileFormatter = FileFormatter.of(resource);
+
+            String roomId = transactionTemplate.execute(status -> roomImageRepo.findById(imageId)
+                    .filter(pendingImage -> pendingImage.getStatus() == ImageStatus.PENDING)
+                    .map(pendingImage -> {
+                        pendingImage.setFileFormatter(fileFormatter);
+                        pendingImage.setStatus(ImageStatus.READY);
+                        pendingImage.setIngestAttempts(attempt);
+                        pendingImage.setIngestError(null);
+                        pendingImage.setVariants(ImageVariants.builder().status(VariantStatus.PENDING).build());
+                        return pendingImage.getRoom().getRoomId();
+                    })
+                    .orElse(null));
+            if (roomId == null) {
+                // Deleted while it was being stored
+                mediaStoreService.release(resource.getDirectory(), fileFormatter.getFileName());
+            } else {
+                catalogCache.evictRoomImage(imageId);
+                catalogCache.evictRoom(roomId);
+                imageVariantService.schedule(imageId);
+            }
+            finish(imageId);
+        } catch (Exception e) {
+            if (resource != null) {
+                try {
+                    mediaStoreService.release(resource.getDirectory(), resource.getFileName());
+                } catch (Exception ex) {
+                    System.err.println("Failed to release resource of room image " + imageId + ": " + ex.getMessage());
+                }
+            }
+            retryOrFail(imageId, attempt, e);
+        }
+    }
+
+    /**
+     * Helper method to queue another attempt with exponential backoff, or give up after the last one
+     */
+    private void retryOrFail(long imageId, int attempt, Exception e) {
+        String error = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+        if (attempt >= maxAttempts) {
+            recordFailure(imageId, attempt, error);
+            finish(imageId);
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> roomImageRepo.findById(imageId)
+                    .ifPresent(image -> {
+                        image.setIngestAttempts(attempt);
+                        image.setIngestError(truncate(error));
+                    }));
+            catalogCache.evictRoomImage(imageId);
+        } catch (Exception ex) {
+            // Only the progress shown to the client is stale
+            System.err.println("Failed to record attempt of room image " + imageId + ": " + ex.getMessage());
+        }
+        long delay = retryDelay.toMillis() << Math.min(attempt - 1, 10);
+        executor.schedule(() -> ingest(imageId, attempt + 1), delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void recordFailure(long imageId, int attempts, String error) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> roomImageRepo.findById(imageId)
+                    .filter(image -> image.getStatus() == ImageStatus.PENDING)
+                    .ifPresent(image -> {
+                        image.setStatus(ImageStatus.FAILED);
+                        image.setIngestAttempts(attempts);
+                        image.setIngestError(truncate(error));
+                    }));
+            catalogCache.evictRoomImage(imageId);
+        } catch (Exception e) {
+            System.err.println("Failed to mark room image " + imageId + " as failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Helper method to write the body and its metadata to the spool, forced to disk before the
+     * upload is acknowledged. The data file only appears, by an atomic rename, once complete.
+     */
+    private void spool(long imageId, InputStream content, long contentLength, String contentType,
+                       String fileName) throws IOException {
+        Path part = spoolDirectory.resolve(imageId + PART_SUFFIX);
+        MessageDigest sha256 = sha256();
+        long written = 0;
+        try (FileChannel channel = FileChannel.open(part, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+             ReadableByteChannel source = Channels.newChannel(new DigestInputStream(content, sha256))) {
+            while (written < contentLength) {
+                long transferred = channel.transferFrom(source, written, contentLength - written);
+                if (transferred <= 0) {
+                    break;
+                }
+                written += transferred;
+            }
+            channel.force(true);
+        } catch (IOException e) {
+            Files.deleteIfExists(part);
+            throw e;
+        }
+        if (written != contentLength) {
+            Files.deleteIfExists(part);
+            throw new IOException(String.format("Body ended after %d of %d bytes", written, contentLength));
+        }
+
+        Properties meta = new Properties();
+        meta.setProperty("contentLength", String.valueOf(contentLength));
+        meta.setProperty("contentType", contentType == null ? "application/octet-stream" : contentType);
+        meta.setProperty("fileName", fileName == null ? "" : fileName);
+        meta.setProperty("sha256", HexFormat.of().formatHex(sha256.digest()));
+        try (FileChannel channel = FileChannel.open(metaPath(imageId), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            OutputStream out = Channels.newOutputStream(channel);
+            meta.store(out, null);
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(part, dataPath(imageId), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Helper method to take room for an upload in the spool, refusing it when the spool is full
+     */
+    private synchronized void reserve(long contentLength) {
+        if (pendingCount >= maxPending || spooledBytes + contentLength > maxSpoolSize.toBytes()) {
+            throw new IngestQueueFullException(String.format(
+                    "Image ingestion queue is full (%d uploads, %d bytes pending), please retry later",
+                    pendingCount, spooledBytes));
+        }
+        pendingCount++;
+        spooledBytes += contentLength;
+    }
+
+    private synchronized void unreserve(long contentLength) {
+        pendingCount--;
+        spooledBytes -= contentLength;
+    }
+
+    /**
+     * Helper method to drop the spool files of an upload and give its room back
+     */
+    private void finish(long imageId) {
+        deleteSpool(imageId);
+        synchronized (this) {
+            Long length = spooled.remove(imageId);
+            if (length != null) {
+                unreserve(length);
+            }
+        }
+    }
+
+    private void deleteSpool(long imageId) {
+        try {
+            Files.deleteIfExists(dataPath(imageId));
+            Files.deleteIfExists(metaPath(imageId));
+            Files.deleteIfExists(spoolDirectory.resolve(imageId + PART_SUFFIX));
+        } catch (IOException e) {
+            System.err.println("Failed to delete spool of room image " + imageId + ": " + e.getMessage());
+        }
+    }
+
+    private Path dataPath(long imageId) {
+        return spoolDirectory.resolve(imageId + DATA_SUFFIX);
+    }
+
+    private Path metaPath(long imageId) {
+        return spoolDirectory.resolve(imageId + META_SUFFIX);
+    }
+
+    private static String truncate(String error) {
+        return error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Whatever is still spooled is queued again on the next start
+        executor.shutdownNow();
+    }
+}
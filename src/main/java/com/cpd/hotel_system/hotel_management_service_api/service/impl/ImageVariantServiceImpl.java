@@ -0,0 +1,372 @@
+package com.cpd.hotel_system.hotel_management_service_api.service.impl;
+
+import com.cpd.hotel_system.hotel_management_service_api.config.CatalogCache;
+import com.cpd.hotel_system.hotel_management_service_api.entity.ImageVariants;
+import com.cpd.hotel_system.hotel_management_service_api.entity.RoomImage;
+import com.cpd.hotel_system.hotel_management_service_api.enums.ImageStatus;
+import com.cpd.hotel_system.hotel_management_service_api.enums.ImageVariant;
+import com.cpd.hotel_system.hotel_management_service_api.enums.VariantStatus;
+import com.cpd.hotel_system.hotel_management_service_api.repo.RoomImageRepo;
+import com.cpd.hotel_system.hotel_management_service_api.service.FileService;
+import com.cpd.hotel_system.hotel_management_service_api.service.ImageVariantService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.IIOException;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Produces the resized variants of room images on a small bounded pool, off the request threads.
+ * Variant keys derive from the stored object, so images sharing deduplicated bytes share their
+ * variants too. An image that could not be queued, or was queued when the service stopped, is
+ * still PENDING and picked up by the sweeper. A failed attempt leaves it PENDING with a backoff,
+ * only a source that cannot be decoded, or one failing every attempt, is marked FAILED.
+ */
+@Service
+public class ImageVariantServiceImpl implements ImageVariantService {
+
+    private static final String JPEG = "image/jpeg";
+    // Bounds the decoded source in heap, 40M pixels is 160 MB as ARGB
+    private static final long MAX_DECODED_PIXELS = 40_000_000L;
+
+    private final RoomImageRepo roomImageRepo;
+    private final FileService fileService;
+    private final CatalogCache catalogCache;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor executor;
+    // Ids queued or in progress, so the sweeper does not queue them twice
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+
+
+    @Value("${catalog.media.variant-quality:0.82}")
+    private float quality;
+
+    @Value("${catalog.media.variant-sweep-batch-size:500}")
+    private int sweepBatchSize;
+
+    @Value("${catalog.media.variant-max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${catalog.media.variant-retry-backoff:PT1M}")
+    private Duration retryBackoff;
+
+    public ImageVariantServiceImpl(RoomImageRepo roomImageRepo, FileService fileService,
+                                   CatalogCache catalogCache, TransactionTemplate transactionTemplate,
+                                   @Value("${catalog.media.variant-threads:2}") int threads,
+                                   @Value("${catalog.media.variant-queue-size:500}") int queueSize) {
+        this.roomImageRepo = roomImageRepo;
+        this.fileService = fileService;
+        this.catalogCache = catalogCache;
+        this.transactionTemplate = transactionTemplate;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueSize), runnable -> {
+                    Thread thread = new Thread(runnable, "image-variants-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    // Resizing is background work, uploads and reads come first
+                    thread.setPriority(Thread.NORM_PRIORITY - 1);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Queue the generation of an image's variants, a full queue leaves it to the sweeper
+     */
+    @Override
+    public void schedule(long imageId) {
+        if (!queued.add(imageId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(imageId);
+                } finally {
+                    queued.remove(imageId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            queued.remove(imageId);
+        }
+    }
+
+    @Override
+    public void deleteVariants(String directory, String fileName) {
+        String variantDirectory = ImageVariant.directoryFor(directory);
+        for (ImageVariant variant : ImageVariant.values()) {
+            try {
+                fileService.deleteResource(fileService.bucket(), variantDirectory, variant.fileNameFor(fileName));
+                catalogCache.evictMediaObject(variantDirectory + variant.fileNameFor(fileName));
+            } catch (RuntimeException e) {
+                System.err.println("Failed to delete image variant: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Page through the images still waiting for variants and queue them, stopping once the queue is full
+     * @return number of images queued
+     */
+    @Override
+    @Scheduled(initialDelayString = "${catalog.media.variant-sweep-initial-delay:PT2M}",
+            fixedDelayString = "${catalog.media.variant-sweep-delay:PT1M}")
+    public int sweep() {
+        long lastId = 0;
+        int scheduled = 0;
+        while (executor.getQueue().remainingCapacity() > 0) {
+            List<Long> ids = roomImageRepo.findIdsWithVariantStatus(lastId, VariantStatus.PENDING,
+                    LocalDateTime.now(), ImageStatus.READY, PageRequest.of(0, sweepBatchSize));
+            for (Long id : ids) {
+                if (executor.getQueue().remainingCapacity() == 0) {
+                    return scheduled;
+                }
+                if (!queued.contains(id)) {
+                    schedule(id);
+                    scheduled++;
+                }
+            }
+            if (ids.size() < sweepBatchSize) {
+                break;
+            }
+            lastId = ids.get(ids.size() - 1);
+        }
+        return scheduled;
+    }
+
+    /**
+     * Helper method to generate and record the variants of one image. Runs without a transaction,
+     * only the final update opens one, so no connection is held while decoding or uploading.
+     */
+    private void generate(long imageId) {
+        Optional<RoomImage> image = roomImageRepo.findById(imageId);
+        // An image still being ingested has no source yet, it is queued again once stored
+        if (image.isEmpty() || image.get().getFileFormatter() == null
+                || statusOf(image.get()) == VariantStatus.READY) {
+            return;
+        }
+        String directory = image.get().getFileFormatter().getDirectory();
+        String fileName = image.get().getFileFormatter().getFileName();
+
+        ImageVariants variants;
+        try {
+            variants = existingVariants(directory, fileName);
+            if (variants == null) {
+                variants = render(directory, fileName);
+            }
+        } catch (Exception e) {
+            // Storage or network trouble, the source may well render on a later attempt
+            variants = retryLater(image.get(), e);
+        }
+        record(imageId, fileName, variants);
+    }
+
+    /**
+     * Helper method to keep an image whose attempt failed PENDING until a backoff has passed,
+     * doubling the backoff per attempt. It is marked FAILED once max-attempts is used up.
+     */
+    private ImageVariants retryLater(RoomImage image, Exception e) {
+        Integer previous = image.getVariants() == null ? null : image.getVariants().getAttempts();
+        int attempts = (previous == null ? 0 : previous) + 1;
+        if (attempts >= maxAttempts) {
+            System.err.println("Giving up on the variants of room image " + image.getId()
+                    + " after " + attempts + " attempts: " + e.getMessage());
+            return ImageVariants.builder().status(VariantStatus.FAILED).attempts(attempts).build();
+        }
+        System.err.println("Failed to generate variants of room image " + image.getId()
+                + " (attempt " + attempts + "), retrying later: " + e.getMessage());
+        Duration backoff = retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 16));
+        return ImageVariants.builder()
+                .status(VariantStatus.PENDING)
+                .attempts(attempts)
+                .retryAt(LocalDateTime.now().plus(backoff))
+                .build();
+    }
+
+    /**
+     * Helper method to reuse the variants already generated for the same stored object
+     * @return the recorded variants, or null when any of them is missing
+     */
+    private ImageVariants existingVariants(String directory, String fileName) {
+        String variantDirectory = ImageVariant.directoryFor(directory);
+        Map<ImageVariant, String> urls = new EnumMap<>(ImageVariant.class);
+        for (ImageVariant variant : ImageVariant.values()) {
+            if (!fileService.exists(fileService.bucket(), variantDirectory, variant.fileNameFor(fileName))) {
+                return null;
+            }
+            urls.put(variant, fileService.resourceUrl(fileService.bucket(), variantDirectory,
+                    variant.fileNameFor(fileName)));
+        }
+        return ready(urls);
+    }
+
+    /**
+     * Helper method to decode the source once and store every variant from it.
+     * Variants never upscale, a source narrower than a variant is stored at its own width.
+     * @return SKIPPED variants when the source is not a still image ImageIO can read, e.g. a video,
+     * FAILED variants when it claims an image format but cannot be decoded
+     */
+    private ImageVariants render(String directory, String fileName) throws IOException {
+        BufferedImage source;
+        try (InputStream content = fileService.openResource(fileService.bucket(), directory, fileName);
+             ImageInputStream input = ImageIO.createImageInputStream(content)) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                return ImageVariants.builder().status(VariantStatus.SKIPPED).build();
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                source = reader.read(0, subsampled(reader));
+            } catch (IIOException e) {
+                // The reader rejected the bytes themselves, retrying cannot help
+                System.err.println("Room image " + fileName + " cannot be decoded: " + e.getMessage());
+                return ImageVariants.builder().status(VariantStatus.FAILED).build();
+            } finally {
+                reader.dispose();
+            }
+        }
+
+        String variantDirectory = ImageVariant.directoryFor(directory);
+        Map<ImageVariant, String> urls = new EnumMap<>(ImageVariant.class);
+        BufferedImage current = source;
+        // Largest first, each smaller variant is scaled down from the previous one
+        ImageVariant[] variants = ImageVariant.values();
+        for (int i = variants.length - 1; i >= 0; i--) {
+            current = scaleDown(current, variants[i].getWidth());
+            byte[] encoded = encodeJpeg(current);
+            urls.put(variants[i], fileService.putResource(new ByteArrayInputStream(encoded), encoded.length, JPEG,
+                    variantDirectory, variants[i].fileNameFor(fileName), fileService.bucket()));
+        }
+        return ready(urls);
+    }
+
+    /**
+     * Helper method to decode only every n-th pixel of a large source, the decoded image stays at
+     * least as wide as the largest variant and within the pixel budget
+     */
+    private ImageReadParam subsampled(ImageReader reader) throws IOException {
+        long width = reader.getWidth(0);
+        long height = reader.getHeight(0);
+        int step = (int) Math.max(1, width / ImageVariant.FULL.getWidth());
+        while ((width / step) * (height / step) > MAX_DECODED_PIXELS) {
+            step++;
+        }
+        ImageReadParam param = reader.getDefaultReadParam();
+        param.setSourceSubsampling(step, step, 0, 0);
+        return param;
+    }
+
+    /**
+     * Helper method to scale down to the given width in halving bilinear steps, which keeps the
+     * quality of a multi-step resize without the cost of bicubic. Transparency is drawn onto white.
+     */
+    private static BufferedImage scaleDown(BufferedImage image, int maxWidth) {
+        int targetWidth = Math.min(maxWidth, image.getWidth());
+        BufferedImage current = image;
+        int width = image.getWidth();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            int height = Math.max(1, (int) Math.round((double) image.getHeight() * width / image.getWidth()));
+            BufferedImage next = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                        RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setColor(Color.WHITE);
+                graphics.fillRect(0, 0, width, height);
+                graphics.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        } while (width > targetWidth);
+        return current;
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (MemoryCacheImageOutputStream output = new MemoryCacheImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Helper method to store the outcome, unless the image was deleted or replaced meanwhile.
+     * A replaced image was reset to PENDING and queued again for its new source.
+     * The room embeds its images, so its cached entry is evicted along with the image's.
+     */
+    private void record(long imageId, String sourceFileName, ImageVariants variants) {
+        Optional<String> roomId = transactionTemplate.execute(status -> roomImageRepo.findById(imageId)
+                .filter(image -> image.getFileFormatter() != null
+                        && sourceFileName.equals(image.getFileFormatter().getFileName()))
+                .map(image -> {
+                    image.setVariants(variants);
+                    return image.getRoom().getRoomId();
+                }));
+        if (roomId != null && roomId.isPresent()) {
+            catalogCache.evictRoomImage(imageId);
+            catalogCache.evictRoom(roomId.get());
+        }
+    }
+
+    private static ImageVariants ready(Map<ImageVariant, String> urls) {
+        return ImageVariants.builder()
+                .status(VariantStatus.READY)
+                .thumbnailUrl(urls.get(ImageVariant.THUMBNAIL))
+                .cardUrl(urls.get(ImageVariant.CARD))
+                .fullUrl(urls.get(ImageVariant.FULL))
+                .build();
+    }
+
+    private static VariantStatus statusOf(RoomImage image) {
+        return image.getVariants() == null || image.getVariants().getStatus() == null
+                ? VariantStatus.PENDING : image.getVariants().getStatus();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,226 @@
+package com.cpd.hotel_system.hotel_management_service_api.service.impl;
+
+import com.cpd.hotel_system.hotel_management_service_api.service.FileService;
+import com.cpd.hotel_system.hotel_management_service_api.util.CommonFileSavedSimpleDataDTO;
+import com.cpd.hotel_system.hotel_management_service_api.util.ImageUploadGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Stores resources on the local filesystem, for on-prem deployments and for testing without a network.
+ * A resource lives at root/bucket/key, the key being the same directory + file name as in S3.
+ * Writes go to a temporary file that is forced to disk and renamed into place, so a
+ * reader never sees a partial file. Reads use FileChannel transfers and memory-mapped files.
+ */
+@Service
+@ConditionalOnProperty(name = "catalog.storage.type", havingValue = "local")
+public class LocalFileServiceImpl implements FileService {
+
+    private static final String PART_SUFFIX = ".part";
+
+    private final ImageUploadGenerator imageUploadGenerator;
+    private final Path root;
+    private final String baseUrl;
+    private final String bucket;
+
+    public LocalFileServiceImpl(ImageUploadGenerator imageUploadGenerator,
+                                @Value("${catalog.storage.local.root}") String root,
+                                @Value("${catalog.storage.local.base-url}") String baseUrl,
+                                @Value("${catalog.storage.local.bucket}") String bucket) {
+        this.imageUploadGenerator = imageUploadGenerator;
+        this.bucket = bucket;
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl : baseUrl + "/";
+        try {
+            Files.createDirectories(this.root);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create storage directory " + root, e);
+        }
+    }
+
+    @Override
+    public String bucket() {
+        return bucket;
+    }
+
+    @Override
+    public CommonFileSavedSimpleDataDTO createResource(MultipartFile file, String directory, String bucket) {
+        try (InputStream content = file.getInputStream()) {
+            return createResource(content, file.getSize(), file.getContentType(), file.getOriginalFilename(),
+                    directory, bucket);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public CommonFileSavedSimpleDataDTO createResource(InputStream content, long contentLength, String contentType,
+                                                       String originalFilename, String directory, String bucket) {
+        String newFileName = imageUploadGenerator.generateCPDResourceName(
+                imageUploadGenerator.safeFileName(originalFilename), UUID.randomUUID().toString());
+        MessageDigest sha256;
+        try {
+            sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        write(new DigestInputStream(content, sha256), contentLength, bucket, directory + newFileName);
+        return new CommonFileSavedSimpleDataDTO(
+                HexFormat.of().formatHex(sha256.digest()),
+                directory,
+                newFileName,
+                resourceUrl(bucket, directory, newFileName));
+    }
+
+    @Override
+    public String putResource(InputStream content, long contentLength, String contentType, String directory,
+                              String fileName, String bucket) {
+        write(content, contentLength, bucket, directory + fileName);
+        return resourceUrl(bucket, directory, fileName);
+    }
+
+    @Override
+    public InputStream openResource(String bucket, String directory, String fileName) {
+        try {
+            return Files.newInputStream(resolve(bucket, directory + fileName));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Straight from the page cache to the target, without copying through the heap when
+     * the target is a file or socket channel
+     */
+    @Override
+    public long copyResource(String bucket, String directory, String fileName, long position, long count,
+                             WritableByteChannel target) {
+        try (FileChannel channel = FileChannel.open(resolve(bucket, directory + fileName), StandardOpenOption.READ)) {
+            long end = Math.min(channel.size(), position + count);
+            long offset = position;
+            while (offset < end) {
+                long transferred = channel.transferTo(offset, end - offset, target);
+                if (transferred <= 0) {
+                    break;
+                }
+                offset += transferred;
+            }
+            return offset - position;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public boolean exists(String bucket, String directory, String fileName) {
+        return Files.isRegularFile(resolve(bucket, directory + fileName));
+    }
+
+    @Override
+    public long resourceLength(String bucket, String directory, String fileName) {
+        try {
+            return Files.size(resolve(bucket, directory + fileName));
+        } catch (NoSuchFileException e) {
+            return -1;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public String resourceUrl(String bucket, String directory, String fileName) {
+        return baseUrl + directory + fileName;
+    }
+
+    @Override
+    public void deleteResource(String bucket, String directory, String fileName) {
+        try {
+            Files.deleteIfExists(resolve(bucket, directory + fileName));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public byte[] downloadFile(String bucket, String fileName) {
+        try (FileChannel channel = FileChannel.open(resolve(bucket, fileName), StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            byte[] bytes = new byte[mapped.remaining()];
+            mapped.get(bytes);
+            return bytes;
+        } catch (NoSuchFileException e) {
+            throw new RuntimeException(String.format("Resource not found: %s", fileName));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Helper method to write exactly contentLength bytes to the key, replacing any existing file atomically
+     */
+    private void write(InputStream content, long contentLength, String bucket, String key) {
+        Path target = resolve(bucket, key);
+        Path part = target.resolveSibling(target.getFileName() + "." + UUID.randomUUID() + PART_SUFFIX);
+        try {
+            Files.createDirectories(target.getParent());
+            long written = 0;
+            try (FileChannel channel = FileChannel.open(part, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.WRITE);
+                 ReadableByteChannel source = Channels.newChannel(content)) {
+                while (written < contentLength) {
+                    long transferred = channel.transferFrom(source, written, contentLength - written);
+                    if (transferred <= 0) {
+                        break;
+                    }
+                    written += transferred;
+                }
+                channel.force(true);
+            }
+            if (written != contentLength) {
+                throw new IOException(String.format("Body ended after %d of %d bytes", written, contentLength));
+            }
+            Files.move(part, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            try {
+                Files.deleteIfExists(part);
+            } catch (IOException ignored) {
+                // The failure being handled matters more
+            }
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Helper method to map a key to its file, rejecting keys that would escape the bucket directory
+     */
+    private Path resolve(String bucket, String key) {
+        Path bucketRoot = root.resolve(bucket).normalize();
+        Path path = bucketRoot.resolve(key).normalize();
+        if (!bucketRoot.startsWith(root) || !path.startsWith(bucketRoot) || path.equals(bucketRoot)) {
+            throw new RuntimeException(String.format("Invalid resource key: %s", key));
+        }
+        return path;
+    }
+}
@@ -0,0 +1,114 @@
+package com.cpd.hotel_system.hotel_management_service_api.service.impl;
+
+import com.cpd.hotel_system.hotel_management_service_api.config.CacheConfig;
+import com.cpd.hotel_system.hotel_management_service_api.config.MediaBlobCache;
+import com.cpd.hotel_system.hotel_management_service_api.dto.response.ResponseMediaObjectDto;
+import com.cpd.hotel_system.hotel_management_service_api.entity.StoredObject;
+import com.cpd.hotel_system.hotel_management_service_api.exceptions.EntryNotFoundException;
+import com.cpd.hotel_system.hotel_management_service_api.repo.StoredObjectRepo;
+import com.cpd.hotel_system.hotel_management_service_api.service.FileService;
+import com.cpd.hotel_system.hotel_management_service_api.service.MediaService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URLConnection;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Describes and streams stored media for the media endpoint.
+ * Every key is written once and never changed, so an ETag can stay valid for good.
+ */
+@Service
+@RequiredArgsConstructor
+public class MediaServiceImpl implements MediaService {
+
+    private final StoredObjectRepo storedObjectRepo;
+    private final FileService fileService;
+    private final MediaBlobCache mediaBlobCache;
+
+
+    /**
+     * Describe the object at the given key. Deduplicated objects carry the SHA-256 of their bytes
+     * as ETag, other objects (variants, images stored before deduplication) one derived from
+     * their unique key and length.
+     */
+    @Override
+    @Cacheable(cacheNames = CacheConfig.MEDIA_OBJECTS, key = "#key")
+    public ResponseMediaObjectDto find(String key) {
+        int slash = key.lastIndexOf('/');
+        String directory = key.substring(0, slash + 1);
+        String fileName = key.substring(slash + 1);
+        if (fileName.isEmpty()) {
+            throw new EntryNotFoundException("Media not found.");
+        }
+
+        Optional<StoredObject> object = storedObjectRepo.findByObjectKey(key);
+        if (object.isPresent()) {
+            return ResponseMediaObjectDto.builder()
+                    .directory(directory)
+                    .fileName(fileName)
+                    .contentLength(object.get().getContentLength())
+                    .contentType(Optional.ofNullable(object.get().getContentType())
+                            .orElseGet(() -> guessContentType(fileName)))
+                    .etag("\"" + object.get().getSha256() + "\"")
+                    .build();
+        }
+
+        long contentLength = fileService.resourceLength(fileService.bucket(), directory, fileName);
+        if (contentLength < 0) {
+            throw new EntryNotFoundException("Media not found.");
+        }
+        return ResponseMediaObjectDto.builder()
+                .directory(directory)
+                .fileName(fileName)
+                .contentLength(contentLength)
+                .contentType(guessContentType(fileName))
+                .etag("\"" + sha256Hex(key + ":" + contentLength) + "\"")
+                .build();
+    }
+
+    /**
+     * Stream a byte range of the object to the response, it never sits whole in heap.
+     * Small objects are served from the off-heap cache, keyed by ETag so identical bytes are cached once.
+     * The key changes with the content, a cached entry can never be stale.
+     */
+    @Override
+    public long copy(ResponseMediaObjectDto media, long position, long count, OutputStream out) {
+        WritableByteChannel target = Channels.newChannel(out);
+        try {
+            if (mediaBlobCache.copy(media.getEtag(), media.getContentLength(), position, count, target,
+                    channel -> fileService.copyResource(fileService.bucket(), media.getDirectory(),
+                            media.getFileName(), 0, media.getContentLength(), channel))) {
+                return Math.max(0, Math.min(count, media.getContentLength() - position));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return fileService.copyResource(fileService.bucket(), media.getDirectory(), media.getFileName(), position,
+                count, target);
+    }
+
+    private static String guessContentType(String fileName) {
+        String contentType = URLConnection.guessContentTypeFromName(fileName);
+        return contentType == null ? "application/octet-stream" : contentType;
+    }
+
+    private static String sha256Hex(String value) {
+        try {
+            return HexFormat.of().formatHex(
+                    MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.cpd.hotel_system.hotel_management_service_api.service.impl;
+
+import com.cpd.hotel_system.hotel_management_service_api.config.CatalogCache;
+import com.cpd.hotel_system.hotel_management_service_api.entity.StoredObject;
+import com.cpd.hotel_system.hotel_management_service_api.repo.StoredObjectRepo;
+import com.cpd.hotel_system.hotel_management_service_api.service.FileService;
+import com.cpd.hotel_system.hotel_management_service_api.service.ImageVariantService;
+import com.cpd.hotel_system.hotel_management_service_api.service.MediaStoreService;
+import com.cpd.hotel_system.hotel_management_service_api.util.CommonFileSavedSimpleDataDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Content-addressed media storage on top of {@link FileService}.
+ * An upload whose SHA-256 is already stored takes a reference on the existing
+ * object instead of storing the bytes again. Objects live under a shared
+ * directory, not under the room, since many rooms may point at the same one.
+ */
+@Service
+@RequiredArgsConstructor
+public class MediaStoreServiceImpl implements MediaStoreService {
+
+    private static final String MEDIA_DIRECTORY = "media/";
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final StoredObjectRepo storedObjectRepo;
+    private final FileService fileService;
+    private final ImageVariantService imageVariantService;
+    private final TransactionTemplate transactionTemplate;
+    private final CatalogCache catalogCache;
+
+
+    @Override
+    public CommonFileSavedSimpleDataDTO acquire(MultipartFile file) {
+        // The part is on local disk, hashing it first avoids sending a duplicate to storage at all
+        String sha256;
+        try (InputStream content = file.getInputStream()) {
+            sha256 = sha256Of(content);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        Optional<CommonFileSavedSimpleDataDTO> existing = reuse(sha256, file.getSize());
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+        return register(fileService.createResource(file, MEDIA_DIRECTORY, fileService.bucket()), file.getSize(),
+                file.getContentType());
+    }
+
+    /**
+     * Store a streamed body, or take a reference on identical stored bytes.
+     * @param computedSha256 hex digest this service computed over the same bytes, e.g. while spooling them,
+     *                       or null to hash the body while it is stored. Never a client supplied value:
+     *                       matching a hash must not grant a reference to bytes the caller never sent.
+     */
+    @Override
+    public CommonFileSavedSimpleDataDTO acquire(InputStream content, long contentLength, String contentType,
+                                                String fileName, String computedSha256) {
+        // Without a digest the body is hashed while stored and deduplicated on that digest by register
+        if (computedSha256 != null && !computedSha256.isBlank()) {
+            Optional<CommonFileSavedSimpleDataDTO> existing = reuse(computedSha256.trim().toLowerCase(), contentLength);
+            if (existing.isPresent()) {
+                return existing.get();
+            }
+        }
+        return register(fileService.createResource(content, contentLength, contentType, fileName, MEDIA_DIRECTORY,
+                fileService.bucket()), contentLength, contentType);
+    }
+
+    @Override
+    public void release(String directory, String fileName) {
+        Boolean unreferenced = transactionTemplate.execute(status -> {
+            Optional<StoredObject> object = storedObjectRepo.findByObjectKey(directory + fileName);
+            if (object.isEmpty()) {
+                // Stored before deduplication, owned by a single image
+                return true;
+            }
+            storedObjectRepo.release(object.get().getId());
+            return storedObjectRepo.deleteIfUnreferenced(object.get().getId()) == 1;
+        });
+        if (Boolean.TRUE.equals(unreferenced)) {
+            fileService.deleteResource(fileService.bucket(), directory, fileName);
+            catalogCache.evictMediaObject(directory + fileName);
+            imageVariantService.deleteVariants(directory, fileName);
+        }
+    }
+
+    /**
+     * Helper method to take a reference on the object with the given hash and length, if there is one
+     */
+    private Optional<CommonFileSavedSimpleDataDTO> reuse(String sha256, long contentLength) {
+        return transactionTemplate.execute(status -> storedObjectRepo.findBySha256(sha256)
+                .filter(object -> object.getContentLength() == contentLength)
+                // A last release may have deleted it since the lookup
+                .filter(object -> storedObjectRepo.acquire(object.getId()) == 1)
+                .map(this::toResource));
+    }
+
+    /**
+     * Helper method to record a freshly stored object with one reference.
+     * When the same bytes were stored concurrently the other object wins and the fresh copy is deleted.
+     */
+    private CommonFileSavedSimpleDataDTO register(CommonFileSavedSimpleDataDTO resource, long contentLength,
+                                                  String contentType) {
+        String sha256 = resource.getHash();
+        String fileName = resource.getFileName();
+
+        for (int attempt = 1; ; attempt++) {
+            Optional<CommonFileSavedSimpleDataDTO> existing = reuse(sha256, contentLength);
+            if (existing.isPresent()) {
+                fileService.deleteResource(fileService.bucket(), resource.getDirectory(), fileName);
+                return existing.get();
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> storedObjectRepo.saveAndFlush(StoredObject.builder()
+                        .sha256(sha256)
+                        .objectKey(resource.getDirectory() + fileName)
+                        .directory(resource.getDirectory())
+                        .fileName(fileName)
+                        .resourceUrl(resource.getResourceUrl())
+                        .contentLength(contentLength)
+                        .contentType(contentType)
+                        .refCount(1)
+                        .createdAt(LocalDateTime.now())
+                        .build()));
+                return resource;
+            } catch (DataIntegrityViolationException e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    fileService.deleteResource(fileService.bucket(), resource.getDirectory(), fileName);
+                    throw new RuntimeException("Media object is busy, please try again", e);
+                }
+            }
+        }
+    }
+
+    private CommonFileSavedSimpleDataDTO toResource(StoredObject object) {
+        return new CommonFileSavedSimpleDataDTO(object.getSha256(), object.getDirectory(), object.getFileName(),
+                object.getResourceUrl());
+    }
+
+    private static String sha256Of(InputStream content) throws IOException {
+        MessageDigest sha256;
+        try {
+            sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (DigestInputStream digest = new DigestInputStream(content, sha256)) {
+            digest.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(sha256.digest());
+    }
+}
@@ -1,32 +1,62 @@
 package com.cpd.hotel_system.hotel_management_service_api.service.impl;
 
 import com.amazonaws.services.accessanalyzer.model.InternalServerException;
+import com.cpd.hotel_system.hotel_management_service_api.config.CacheConfig;
+import com.cpd.hotel_system.hotel_management_service_api.config.CatalogCache;
+import com.cpd.hotel_system.hotel_management_service_api.config.MediaUploadPool;
+import com.cpd.hotel_system.hotel_management_service_api.dto.request.RequestRoomImageBatchDto;
 import com.cpd.hotel_system.hotel_management_service_api.dto.request.RequestRoomImageDto;
+import com.cpd.hotel_system.hotel_management_service_api.dto.response.ResponseImageStatusDto;
 import com.cpd.hotel_system.hotel_management_service_api.dto.response.ResponseRoomImageDto;
 import com.cpd.hotel_system.hotel_management_service_api.dto.response.paginate.RoomImagePaginateResponseDto;
 import com.cpd.hotel_system.hotel_management_service_api.entity.FileFormatter;
+import com.cpd.hotel_system.hotel_management_service_api.entity.ImageVariants;
 import com.cpd.hotel_system.hotel_management_service_api.entity.Room;
 import com.cpd.hotel_system.hotel_management_service_api.entity.RoomImage;
+import com.cpd.hotel_system.hotel_management_service_api.enums.ImageStatus;
+import com.cpd.hotel_system.hotel_management_service_api.enums.VariantStatus;
 import com.cpd.hotel_system.hotel_management_service_api.exceptions.EntryNotFoundException;
 import com.cpd.hotel_system.hotel_management_service_api.repo.RoomImageRepo;
 import com.cpd.hotel_system.hotel_management_service_api.repo.RoomRepo;
-import com.cpd.hotel_system.hotel_management_service_api.service.FileService;
+import com.cpd.hotel_system.hotel_management_service_api.service.ImageIngestService;
+import com.cpd.hotel_system.hotel_management_service_api.service.ImageVariantService;
+import com.cpd.hotel_system.hotel_management_service_api.service.MediaStoreService;
 import com.cpd.hotel_system.hotel_management_service_api.service.RoomImageService;
-import com.cpd.hotel_system.hotel_management_service_api.util.CommonFileSavedBinaryDataDTO;
-import com.cpd.hotel_system.hotel_management_service_api.util.FileDataExtractor;
+import com.cpd.hotel_system.hotel_management_service_api.util.CommonFileSavedSimpleDataDTO;
+import com.cpd.hotel_system.hotel_management_service_api.util.CursorCodec;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
 
-import java.io.InputStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -36,53 +66,314 @@ public class RoomImageServiceImpl implements RoomImageService {
 
     private final RoomImageRepo roomImageRepo;
     private final RoomRepo roomRepo;
-    private final FileService fileService;
-    private final FileDataExtractor fileDataExtractor;
+    private final MediaStoreService mediaStoreService;
+    private final ImageVariantService imageVariantService;
+    private final ImageIngestService imageIngestService;
+    private final CursorCodec cursorCodec;
+    private final CatalogCache catalogCache;
+    private final MediaUploadPool mediaUploadPool;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
 
-    @Value("${bucketName}")
-    private String bucketName;
+    @Value("${catalog.images.max-upload-size}")
+    private DataSize maxUploadSize;
 
+    @Value("${catalog.images.max-batch-files}")
+    private int maxBatchFiles;
+
+    @Value("${catalog.images.batch-concurrency}")
+    private int batchConcurrency;
+
+    @Value("${catalog.images.file-backfill-batch-size:500}")
+    private int fileBackfillBatchSize;
+
+    // Uploads run outside a transaction so no database connection is held while bytes are in flight
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void create(RequestRoomImageDto dto) {
-        CommonFileSavedBinaryDataDTO resource = null;
+        MultipartFile file = dto.getFile();
+        if (file == null || file.isEmpty()) {
+            throw new RuntimeException("Image file is required");
+        }
+        store(dto.getRoomId(), file.getSize(), file.getContentType(), () -> mediaStoreService.acquire(file));
+    }
+
+    /**
+     * Store many images of one room, the files concurrently and the rows in one batch insert.
+     * Either every image is saved or none is, stored objects are released again on any failure.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<ResponseRoomImageDto> createAll(RequestRoomImageBatchDto dto) {
+        List<MultipartFile> files = dto.getFiles() == null ? List.of() : dto.getFiles().stream()
+                .filter(file -> file != null && !file.isEmpty())
+                .toList();
+        if (files.isEmpty()) {
+            throw new RuntimeException("At least one image file is required");
+        }
+        if (files.size() > maxBatchFiles) {
+            throw new RuntimeException(
+                    String.format("A batch holds at most %d images, got %d", maxBatchFiles, files.size())
+            );
+        }
+        files.forEach(file -> validateImage(file.getSize(), file.getContentType()));
+
+        Room room = roomRepo.findById(dto.getRoomId())
+                .orElseThrow(() -> new EntryNotFoundException("Room not found."));
+
+        List<CommonFileSavedSimpleDataDTO> resources = storeAll(files);
+        List<RoomImage> images;
+        try {
+            images = insertAll(room, resources);
+        } catch (Exception e) {
+            // Rollback: nothing was saved, release every stored object
+            releaseAll(resources);
+            throw new InternalServerException("Failed to create room images: " + e.getMessage());
+        }
+
+        catalogCache.evictRoom(room.getRoomId());
+        images.forEach(image -> imageVariantService.schedule(image.getId()));
+        return images.stream()
+                .map(RoomImageServiceImpl::mapToResponseDto)
+                .toList();
+    }
+
+    /**
+     * Helper method to store the files of a batch in parallel, at most batch-concurrency at a time.
+     * After a failure the files not started yet are skipped, and every object stored so far is released.
+     * @return stored objects in the order of the files
+     */
+    private List<CommonFileSavedSimpleDataDTO> storeAll(List<MultipartFile> files) {
+        Semaphore window = new Semaphore(Math.max(1, batchConcurrency));
+        AtomicBoolean failed = new AtomicBoolean();
+        List<Future<CommonFileSavedSimpleDataDTO>> uploads = new ArrayList<>(files.size());
+        Throwable failure = null;
+        boolean interrupted = false;
+
+        try {
+            for (MultipartFile file : files) {
+                window.acquire();
+                if (failed.get()) {
+                    window.release();
+                    break;
+                }
+                uploads.add(mediaUploadPool.submitFile(() -> {
+                    try {
+                        return failed.get() ? null : mediaStoreService.acquire(file);
+                    } catch (RuntimeException e) {
+                        failed.set(true);
+                        throw e;
+                    } finally {
+                        window.release();
+                    }
+                }));
+            }
+        } catch (InterruptedException e) {
+            failed.set(true);
+            failure = e;
+            interrupted = true;
+        }
+
+        // Every started upload is waited for, so none is left stored without an owner
+        List<CommonFileSavedSimpleDataDTO> resources = new ArrayList<>(uploads.size());
+        for (Future<CommonFileSavedSimpleDataDTO> upload : uploads) {
+            while (true) {
+                try {
+                    CommonFileSavedSimpleDataDTO resource = upload.get();
+                    if (resource != null) {
+                        resources.add(resource);
+                    }
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure = e.getCause();
+                    }
+                    break;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (failure != null) {
+            releaseAll(resources);
+            throw new InternalServerException("Failed to store room images: " + failure.getMessage());
+        }
+        return resources;
+    }
+
+    /**
+     * Helper method to insert the rows of a batch with a single batched statement in one transaction
+     * @return the saved images, with their generated ids
+     */
+    private List<RoomImage> insertAll(Room room, List<CommonFileSavedSimpleDataDTO> resources) {
+        List<RoomImage> images = new ArrayList<>(resources.size());
+        for (CommonFileSavedSimpleDataDTO resource : resources) {
+            images.add(RoomImage.builder()
+                    .fileFormatter(FileFormatter.of(resource))
+                    .variants(ImageVariants.builder().status(VariantStatus.PENDING).build())
+                    .room(room)
+                    .build());
+        }
+
+        KeyHolder keys = new GeneratedKeyHolder();
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(
+                        "INSERT INTO room_image (object_name, object_url, object_directory, content_sha256, " +
+                                "content_md5, variant_status, room_id) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                        Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        FileFormatter file = images.get(i).getFileFormatter();
+                        ps.setString(1, file.getFileName());
+                        ps.setString(2, file.getResourceUrl());
+                        ps.setString(3, file.getDirectory());
+                        ps.setBytes(4, file.getSha256());
+                        ps.setBytes(5, file.getMd5());
+                        ps.setString(6, VariantStatus.PENDING.name());
+                        ps.setString(7, room.getRoomId());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return images.size();
+                    }
+                },
+                keys));
+
+        for (int i = 0; i < images.size(); i++) {
+            images.get(i).setId(((Number) keys.getKeyList().get(i).values().iterator().next()).longValue());
+        }
+        return images;
+    }
+
+    /**
+     * Helper method to release stored objects whose images were not saved
+     */
+    private void releaseAll(List<CommonFileSavedSimpleDataDTO> resources) {
+        for (CommonFileSavedSimpleDataDTO resource : resources) {
+            try {
+                mediaStoreService.release(
+                        resource.getDirectory(),
+                        resource.getFileName()
+                );
+            } catch (Exception e) {
+                // Log the error but don't throw
+                System.err.println("Failed to delete resource during rollback: " + e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void upload(String roomId, InputStream content, long contentLength, String contentType, String fileName) {
+        // Only a digest computed here over the bytes may take a reference, a client claimed one never does
+        store(roomId, contentLength, contentType, () -> mediaStoreService.acquire(
+                content, contentLength, contentType, fileName, null));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResponseImageStatusDto ingest(RequestRoomImageDto dto) {
+        MultipartFile file = dto.getFile();
+        if (file == null || file.isEmpty()) {
+            throw new RuntimeException("Image file is required");
+        }
+        try (InputStream content = file.getInputStream()) {
+            return ingest(dto.getRoomId(), content, file.getSize(), file.getContentType(),
+                    file.getOriginalFilename());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    // Only spools the body, the image is stored in the background and its status polled
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResponseImageStatusDto ingest(String roomId, InputStream content, long contentLength, String contentType,
+                                         String fileName) {
+        validateImage(contentLength, contentType);
+        Room room = roomRepo.findById(roomId)
+                .orElseThrow(() -> new EntryNotFoundException("Room not found."));
+
+        long imageId = imageIngestService.submit(room, content, contentLength, contentType, fileName);
+        return ResponseImageStatusDto.builder()
+                .id(imageId)
+                .roomId(roomId)
+                .status(ImageStatus.PENDING.name())
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ResponseImageStatusDto findStatus(String imageId) {
+        // Parse imageId to Long
+        long id;
+        try {
+            id = Long.parseLong(imageId);
+        } catch (NumberFormatException e) {
+            throw new RuntimeException(
+                    String.format("Invalid image id format: %s", imageId)
+            );
+        }
+
+        RoomImage roomImage = roomImageRepo.findById(id)
+                .orElseThrow(() -> new EntryNotFoundException("Room image not found."));
+
+        return ResponseImageStatusDto.builder()
+                .id(roomImage.getId())
+                .roomId(roomImage.getRoom().getRoomId())
+                .status(statusOf(roomImage).name())
+                .attempts(roomImage.getIngestAttempts() == null ? 0 : roomImage.getIngestAttempts())
+                .error(roomImage.getIngestError())
+                .resourceUrl(roomImage.getFileFormatter() == null ? null
+                        : roomImage.getFileFormatter().getResourceUrl())
+                .build();
+    }
+
+    /**
+     * Helper method to store one image, or reuse identical stored bytes, and record it for the room.
+     * The reference on the stored object is released again when the database save fails.
+     */
+    private void store(String roomId, long contentLength, String contentType,
+                       Supplier<CommonFileSavedSimpleDataDTO> upload) {
+        validateImage(contentLength, contentType);
+        CommonFileSavedSimpleDataDTO resource = null;
 
         // Validate room exists
-        Optional<Room> selectedRoom = roomRepo.findById(dto.getRoomId());
+        Optional<Room> selectedRoom = roomRepo.findById(roomId);
         if (selectedRoom.isEmpty()) {
             throw new EntryNotFoundException("Room not found.");
         }
 
         try {
             // Create resource in S3 or file system
-            resource = fileService.createResource(
-                    dto.getFile(),
-                    "room/" + selectedRoom.get().getRoomId() + "/images/",
-                    bucketName
-            );
+            resource = upload.get();
 
             // Build and save room image entity
             RoomImage roomImage = RoomImage.builder()
-                    .fileFormatter(
-                            new FileFormatter(fileDataExtractor.blobToByteArray(resource.getFileName()),
-                                    fileDataExtractor.blobToByteArray(resource.getResourceUrl()),
-                                    resource.getDirectory().getBytes(),
-                                    fileDataExtractor.blobToByteArray(resource.getHash()))
-                    )
+                    .fileFormatter(FileFormatter.of(resource))
+                    .variants(ImageVariants.builder().status(VariantStatus.PENDING).build())
                     .room(selectedRoom.get())
                     .build();
 
-            roomImageRepo.save(roomImage);
+            RoomImage savedImage = roomImageRepo.save(roomImage);
+            catalogCache.evictRoom(selectedRoom.get().getRoomId());
+
+            // Saved and committed, the variants are generated in the background
+            imageVariantService.schedule(savedImage.getId());
 
         } catch (Exception e) {
-            // Rollback: delete uploaded resource if database save fails
+            // Rollback: release the stored object if database save fails
             if (resource != null) {
                 try {
-                    fileService.deleteResource(
-                            bucketName,
+                    mediaStoreService.release(
                             resource.getDirectory(),
-                            fileDataExtractor.extractActualFileName(
-                                    new InputStreamReader(resource.getFileName().getBinaryStream())
-                            )
+                            resource.getFileName()
                     );
                 } catch (Exception ex) {
                     // Log the error but don't throw
@@ -93,9 +384,35 @@ public class RoomImageServiceImpl implements RoomImageService {
         }
     }
 
+    /**
+     * Helper method to reject uploads without a usable length or that are not images
+     */
+    private void validateImage(long contentLength, String contentType) {
+        if (contentLength <= 0) {
+            throw new RuntimeException("Content-Length is required and must be greater than zero");
+        }
+        if (contentLength > maxUploadSize.toBytes()) {
+            throw new RuntimeException(
+                    String.format("Image is %d bytes, the limit is %d bytes", contentLength, maxUploadSize.toBytes())
+            );
+        }
+        String type = contentType == null ? "" : contentType.toLowerCase();
+        if (!type.startsWith("image/") && !type.startsWith("video/")) {
+            throw new RuntimeException(
+                    String.format("Unsupported content type: %s, expected an image or a video", contentType)
+            );
+        }
+    }
+
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void update(RequestRoomImageDto dto, String imageId) {
-        CommonFileSavedBinaryDataDTO resource = null;
+        CommonFileSavedSimpleDataDTO resource = null;
+        MultipartFile file = dto.getFile();
+        if (file == null || file.isEmpty()) {
+            throw new RuntimeException("Image file is required");
+        }
+        validateImage(file.getSize(), file.getContentType());
 
         // Parse imageId to Long
         long id;
@@ -112,6 +429,11 @@ public class RoomImageServiceImpl implements RoomImageService {
         if (selectedImage.isEmpty()) {
             throw new EntryNotFoundException("Room image not found.");
         }
+        if (statusOf(selectedImage.get()) == ImageStatus.PENDING) {
+            throw new RuntimeException(
+                    String.format("Room image %s is still being processed", imageId)
+            );
+        }
 
         // Validate room exists if changing room
         Room room;
@@ -126,44 +448,38 @@ public class RoomImageServiceImpl implements RoomImageService {
             room = selectedImage.get().getRoom();
         }
 
-        try {
-            // Delete old resource
-            try {
-                fileService.deleteResource(
-                        bucketName,
-                        fileDataExtractor.byteArrayToString(selectedImage.get().getFileFormatter().getDirectory()),
-                        fileDataExtractor.byteArrayToString(selectedImage.get().getFileFormatter().getFileName())
-                );
-            } catch (Exception e) {
-                throw new InternalServerException("Failed to delete existing image resource");
-            }
+        // The old resource is only released once the new one is stored and saved,
+        // a failed ingestion has none
+        FileFormatter oldFile = selectedImage.get().getFileFormatter();
+        String oldDirectory = oldFile == null ? null : oldFile.getDirectory();
+        String oldFileName = oldFile == null ? null : oldFile.getFileName();
 
-            // Create new resource
-            resource = fileService.createResource(
-                    dto.getFile(),
-                    "room/" + room.getRoomId() + "/images/",
-                    bucketName
-            );
+        try {
+            // Create new resource, a failed multipart upload is aborted by the file service
+            resource = mediaStoreService.acquire(file);
 
             // Update room image entity
-            selectedImage.get().getFileFormatter().setDirectory(resource.getDirectory().getBytes());
-            selectedImage.get().getFileFormatter().setFileName(fileDataExtractor.blobToByteArray(resource.getFileName()));
-            selectedImage.get().getFileFormatter().setHash(fileDataExtractor.blobToByteArray(resource.getHash()));
-            selectedImage.get().getFileFormatter().setResourceUrl(fileDataExtractor.blobToByteArray(resource.getResourceUrl()));
+            selectedImage.get().setFileFormatter(FileFormatter.of(resource));
+            selectedImage.get().setStatus(ImageStatus.READY);
+            selectedImage.get().setIngestError(null);
+            String oldRoomId = selectedImage.get().getRoom().getRoomId();
             selectedImage.get().setRoom(room);
+            selectedImage.get().setVariants(ImageVariants.builder().status(VariantStatus.PENDING).build());
 
-            roomImageRepo.save(selectedImage.get());
+            roomImageRepo.saveAndFlush(selectedImage.get());
+            // Evict once saved, a read in between would cache the old image again
+            catalogCache.evictRoomImage(id);
+            catalogCache.evictRoom(oldRoomId);
+            catalogCache.evictRoom(room.getRoomId());
+            imageVariantService.schedule(id);
 
         } catch (Exception e) {
-            // Rollback: delete new resource and restore old one if possible
+            // Rollback: release the new resource, the image still points at the old one
             if (resource != null) {
                 try {
-                    fileService.deleteResource(
-                            bucketName,
+                    mediaStoreService.release(
                             resource.getDirectory(),
-                            fileDataExtractor.extractActualFileName(
-                                    new InputStreamReader(resource.getFileName().getBinaryStream())
-                            )
+                            resource.getFileName()
                     );
                 } catch (Exception ex) {
                     System.err.println("Failed to delete resource during rollback: " + ex.getMessage());
@@ -171,9 +487,20 @@ public class RoomImageServiceImpl implements RoomImageService {
             }
             throw new InternalServerException("Failed to update room image: " + e.getMessage());
         }
+
+        if (oldFileName == null) {
+            return;
+        }
+        try {
+            mediaStoreService.release(oldDirectory, oldFileName);
+        } catch (Exception e) {
+            // The image already points at the new resource, the old object is only left orphaned
+            System.err.println("Failed to delete replaced resource: " + e.getMessage());
+        }
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void delete(String imageId) {
         // Parse imageId to Long
         long id;
@@ -192,15 +519,20 @@ public class RoomImageServiceImpl implements RoomImageService {
         }
 
         try {
-            // Delete resource from storage
-            fileService.deleteResource(
-                    bucketName,
-                    fileDataExtractor.byteArrayToString(selectedImage.get().getFileFormatter().getDirectory()),
-                    fileDataExtractor.byteArrayToString(selectedImage.get().getFileFormatter().getFileName())
-            );
-
-            // Delete from database
+            // Delete from database first, the bytes may be shared with other images
             roomImageRepo.deleteById(id);
+            catalogCache.evictRoomImage(id);
+            catalogCache.evictRoom(selectedImage.get().getRoom().getRoomId());
+
+            // Delete resource from storage once no image references it any more,
+            // an image still being ingested has none yet and its spool is dropped by the worker
+            FileFormatter file = selectedImage.get().getFileFormatter();
+            if (file != null) {
+                mediaStoreService.release(
+                        file.getDirectory(),
+                        file.getFileName()
+                );
+            }
 
         } catch (Exception e) {
             throw new InternalServerException("Failed to delete room image: " + e.getMessage());
@@ -209,6 +541,9 @@ public class RoomImageServiceImpl implements RoomImageService {
 
     @Override
     @Transactional(readOnly = true)
+    // Keyed on the parsed id, so "007" and "7" share the entry that evictRoomImage removes
+    @Cacheable(cacheNames = CacheConfig.ROOM_IMAGES, key = "T(java.lang.Long).parseLong(#imageId)",
+            condition = "#imageId != null && #imageId.matches('[0-9]{1,18}')")
     public ResponseRoomImageDto findById(String imageId) {
         // Parse imageId to Long
         long id;
@@ -247,26 +582,122 @@ public class RoomImageServiceImpl implements RoomImageService {
         return buildPaginateResponse(imagePage);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public RoomImagePaginateResponseDto findAllByCursor(String cursor, int size, String roomId, boolean withCount) {
+        size = cursorCodec.pageSize(size);
+        long afterId = cursorCodec.decodeLong(cursor);
+        // Fetch one extra row to know whether there is a next page
+        Limit limit = Limit.of(size + 1);
+        List<RoomImage> images;
+        Long dataCount = null;
+
+        if (roomId == null || roomId.trim().isEmpty()) {
+            images = roomImageRepo.findAllByIdGreaterThanOrderByIdAsc(afterId, limit);
+            if (withCount) {
+                dataCount = roomImageRepo.count();
+            }
+        } else {
+            // Validate room exists
+            Room room = roomRepo.findById(roomId)
+                    .orElseThrow(() -> new EntryNotFoundException("Room not found."));
+
+            images = roomImageRepo.findAllByRoomAndIdGreaterThanOrderByIdAsc(room, afterId, limit);
+            if (withCount) {
+                dataCount = roomImageRepo.countByRoom(room);
+            }
+        }
+
+        boolean hasNext = images.size() > size;
+        List<RoomImage> pageContent = hasNext ? images.subList(0, size) : images;
+
+        return RoomImagePaginateResponseDto.builder()
+                .dataList(pageContent.stream()
+                        .map(RoomImageServiceImpl::mapToResponseDto)
+                        .collect(Collectors.toList()))
+                .dataCount(dataCount)
+                .nextCursor(hasNext ? cursorCodec.encode(pageContent.get(size - 1).getId()) : null)
+                .build();
+    }
+
+    /**
+     * Move images stored before the typed file columns out of the old binary columns,
+     * one short transaction per page so uploads and reads carry on meanwhile.
+     * Rows read the same before and after, so no cached image has to be evicted.
+     * Rows with a value too long for the typed columns are logged and marked skipped, so later runs don't select them again.
+     * @return number of migrated images
+     */
+    @Override
+    @Transactional(propagation = Propagation.NEVER)
+    @Scheduled(initialDelayString = "${catalog.images.file-backfill-initial-delay:PT3M}",
+            fixedDelayString = "${catalog.images.file-backfill-delay:PT1H}")
+    public int backfillFileColumns() {
+        long lastId = 0;
+        int migrated = 0;
+        while (true) {
+            List<Long> ids = roomImageRepo.findLegacyFileIdsAfter(lastId, fileBackfillBatchSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+            Integer pageMigrated = transactionTemplate.execute(status -> {
+                int updated = roomImageRepo.backfillFileColumns(ids);
+                if (updated < ids.size()) {
+                    List<Long> skipped = roomImageRepo.findLegacyFileIdsIn(ids);
+                    if (!skipped.isEmpty()) {
+                        roomImageRepo.markLegacyFileSkipped(skipped);
+                        System.err.println("Room images left in the old file columns, values too long: " + skipped);
+                    }
+                }
+                return updated;
+            });
+            migrated += pageMigrated == null ? 0 : pageMigrated;
+
+            lastId = ids.get(ids.size() - 1);
+            if (ids.size() < fileBackfillBatchSize) {
+                break;
+            }
+        }
+        return migrated;
+    }
+
     /**
-     * Helper method to map RoomImage entity to ResponseRoomImageDto
+     * Helper method to map RoomImage entity to ResponseRoomImageDto, also used for the images embedded in rooms
      */
-    private ResponseRoomImageDto mapToResponseDto(RoomImage roomImage) {
+    static ResponseRoomImageDto mapToResponseDto(RoomImage roomImage) {
+        // Images still being ingested, or that failed to, have no file yet
+        FileFormatter file = roomImage.getFileFormatter() == null
+                ? new FileFormatter() : roomImage.getFileFormatter();
+        String resourceUrl = file.getResourceUrl();
+        // Until the variants are ready every size falls back to the original
+        ImageVariants variants = roomImage.getVariants();
+        VariantStatus variantStatus = variants == null || variants.getStatus() == null
+                ? VariantStatus.PENDING : variants.getStatus();
+        boolean ready = variantStatus == VariantStatus.READY;
         return ResponseRoomImageDto.builder()
                 .id(roomImage.getId())
-                .directory(fileDataExtractor.byteArrayToString(roomImage.getFileFormatter().getDirectory()))
-                .fileName(fileDataExtractor.byteArrayToString(roomImage.getFileFormatter().getFileName()))
-                .hash(fileDataExtractor.byteArrayToString(roomImage.getFileFormatter().getHash()))
-                .resourceUrl(fileDataExtractor.byteArrayToString(roomImage.getFileFormatter().getResourceUrl()))
+                .directory(file.getDirectory())
+                .fileName(file.getFileName())
+                .hash(file.hashText())
+                .resourceUrl(resourceUrl)
+                .thumbnailUrl(ready ? variants.getThumbnailUrl() : resourceUrl)
+                .cardUrl(ready ? variants.getCardUrl() : resourceUrl)
+                .fullUrl(ready ? variants.getFullUrl() : resourceUrl)
+                .variantStatus(variantStatus.name())
+                .status(statusOf(roomImage).name())
                 .roomId(roomImage.getRoom().getRoomId())
                 .build();
     }
 
+    private static ImageStatus statusOf(RoomImage roomImage) {
+        return roomImage.getStatus() == null ? ImageStatus.READY : roomImage.getStatus();
+    }
+
     /**
      * Helper method to build paginated response
      */
     private RoomImagePaginateResponseDto buildPaginateResponse(Page<RoomImage> imagePage) {
         List<ResponseRoomImageDto> dataList = imagePage.getContent().stream()
-                .map(this::mapToResponseDto)
+                .map(RoomImageServiceImpl::mapToResponseDto)
                 .collect(Collectors.toList());
 
         return RoomImagePaginateResponseDto.builder()
@@ -1,29 +1,51 @@
 package com.cpd.hotel_system.hotel_management_service_api.service.impl;
 
+import com.cpd.hotel_system.hotel_management_service_api.config.CacheConfig;
+import com.cpd.hotel_system.hotel_management_service_api.config.CatalogCache;
+import com.cpd.hotel_system.hotel_management_service_api.dto.request.RequestBulkRoomDto;
 import com.cpd.hotel_system.hotel_management_service_api.dto.request.RequestRoomDto;
+import com.cpd.hotel_system.hotel_management_service_api.dto.request.RequestRoomSearchDto;
+import com.cpd.hotel_system.hotel_management_service_api.dto.response.ResponseBulkRoomDto;
 import com.cpd.hotel_system.hotel_management_service_api.dto.response.ResponseFacilityDto;
 import com.cpd.hotel_system.hotel_management_service_api.dto.response.ResponseRoomDto;
 import com.cpd.hotel_system.hotel_management_service_api.dto.response.ResponseRoomImageDto;
+import com.cpd.hotel_system.hotel_management_service_api.dto.response.ResponseRowErrorDto;
 import com.cpd.hotel_system.hotel_management_service_api.dto.response.paginate.RoomPaginateResponseDto;
 import com.cpd.hotel_system.hotel_management_service_api.entity.Branch;
 import com.cpd.hotel_system.hotel_management_service_api.entity.Facility;
 import com.cpd.hotel_system.hotel_management_service_api.entity.Room;
-import com.cpd.hotel_system.hotel_management_service_api.entity.RoomImage;
+import com.cpd.hotel_system.hotel_management_service_api.enums.ImageStatus;
+import com.cpd.hotel_system.hotel_management_service_api.exceptions.IndexNotReadyException;
+import com.cpd.hotel_system.hotel_management_service_api.index.RoomSearchIndex;
 import com.cpd.hotel_system.hotel_management_service_api.repo.BranchRepo;
+import com.cpd.hotel_system.hotel_management_service_api.repo.FacilityRepo;
+import com.cpd.hotel_system.hotel_management_service_api.repo.RoomAvailabilityRepo;
+import com.cpd.hotel_system.hotel_management_service_api.repo.RoomImageRepo;
 import com.cpd.hotel_system.hotel_management_service_api.repo.RoomRepo;
+import com.cpd.hotel_system.hotel_management_service_api.service.AggregateService;
 import com.cpd.hotel_system.hotel_management_service_api.service.RoomService;
-import com.cpd.hotel_system.hotel_management_service_api.util.FileDataExtractor;
+import com.cpd.hotel_system.hotel_management_service_api.util.AfterCommit;
+import com.cpd.hotel_system.hotel_management_service_api.util.CursorCodec;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -31,12 +53,24 @@ import java.util.stream.Collectors;
 @Transactional
 public class RoomServiceImpl implements RoomService {
 
+    private static final int MAX_BULK_ROOMS = 10_000;
+    private static final int INSERT_BATCH_SIZE = 1_000;
+
     private final RoomRepo roomRepo;
     private final BranchRepo branchRepo;
-    private final FileDataExtractor fileDataExtractor;
+    private final FacilityRepo facilityRepo;
+    private final RoomImageRepo roomImageRepo;
+    private final RoomAvailabilityRepo roomAvailabilityRepo;
+    private final CursorCodec cursorCodec;
+    private final CatalogCache catalogCache;
+    private final RoomSearchIndex roomSearchIndex;
+    private final AggregateService aggregateService;
+    private final JdbcTemplate jdbcTemplate;
 
     @Override
     public void create(RequestRoomDto dto) {
+        validatePrice(dto.getPrice());
+
         // Validate branch exists
         Branch branch = branchRepo.findById(dto.getBranchId())
                 .orElseThrow(() -> new RuntimeException(
@@ -62,15 +96,93 @@ public class RoomServiceImpl implements RoomService {
                 .build();
 
         roomRepo.save(room);
+        aggregateService.roomAdded(branch.getBranchId(), hotelIdOf(branch), room.getPrice());
+        indexRoom(room);
+    }
+
+    @Override
+    public ResponseBulkRoomDto bulkCreate(RequestBulkRoomDto dto) {
+        List<RequestRoomDto> rows = dto.getRooms() == null ? List.of() : dto.getRooms();
+        if (rows.size() > MAX_BULK_ROOMS) {
+            throw new RuntimeException(
+                    String.format("A bulk create accepts at most %d rooms, got %d", MAX_BULK_ROOMS, rows.size())
+            );
+        }
+
+        // Validate branch exists
+        Branch branch = branchRepo.findById(dto.getBranchId())
+                .orElseThrow(() -> new RuntimeException(
+                        String.format("Branch not found with id: %s", dto.getBranchId())
+                ));
+
+        // One query for every room number already taken, duplicates inside the request are caught by the same set
+        Set<String> usedNumbers = new HashSet<>(roomRepo.findRoomNumbersByBranchId(branch.getBranchId()));
+        List<ResponseRowErrorDto> errors = new ArrayList<>();
+        List<Room> rooms = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            RequestRoomDto row = rows.get(i);
+            String error = validateBulkRow(row, branch.getBranchId(), usedNumbers);
+            if (error != null) {
+                errors.add(ResponseRowErrorDto.builder()
+                        .row(i)
+                        .reference(row == null ? null : row.getRoomNumber())
+                        .message(error)
+                        .build());
+                continue;
+            }
+            usedNumbers.add(row.getRoomNumber());
+            rooms.add(Room.builder()
+                    .roomId(UUID.randomUUID().toString())
+                    .roomNumber(row.getRoomNumber())
+                    .type(row.getRoomType())
+                    .bedCount(row.getBedCount())
+                    .price(row.getPrice())
+                    .isAvailable(row.isAvailable())
+                    .branch(branch)
+                    .build());
+        }
+
+        // Plain JDBC batches, the entities are never attached to the persistence context
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO room (room_id, room_number, room_type, bed_count, price, is_available, branch_id) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?)",
+                rooms,
+                INSERT_BATCH_SIZE,
+                (ps, room) -> {
+                    ps.setString(1, room.getRoomId());
+                    ps.setString(2, room.getRoomNumber());
+                    ps.setString(3, room.getType());
+                    ps.setInt(4, room.getBedCount());
+                    ps.setBigDecimal(5, room.getPrice());
+                    ps.setBoolean(6, room.isAvailable());
+                    ps.setString(7, branch.getBranchId());
+                });
+
+        if (!rooms.isEmpty()) {
+            BigDecimal minPrice = rooms.stream().map(Room::getPrice).min(BigDecimal::compareTo).orElse(null);
+            aggregateService.roomsAdded(branch.getBranchId(), hotelIdOf(branch), rooms.size(), minPrice);
+            rooms.forEach(this::indexRoom);
+        }
+
+        return ResponseBulkRoomDto.builder()
+                .branchId(branch.getBranchId())
+                .requested(rows.size())
+                .created(rooms.size())
+                .errors(errors)
+                .build();
     }
 
     @Override
     public void update(RequestRoomDto dto, String roomId) {
+        validatePrice(dto.getPrice());
+
         // Find existing room
         Room room = roomRepo.findById(roomId)
                 .orElseThrow(() -> new RuntimeException(
                         String.format("Room not found with id: %s", roomId)
                 ));
+        Branch oldBranch = room.getBranch();
+        BigDecimal oldPrice = room.getPrice();
 
         // If branch is being changed, validate new branch
         if (dto.getBranchId() != null &&
@@ -106,6 +218,11 @@ public class RoomServiceImpl implements RoomService {
         room.setAvailable(dto.isAvailable());
 
         roomRepo.save(room);
+        aggregateService.roomChanged(
+                oldBranch.getBranchId(), hotelIdOf(oldBranch), oldPrice,
+                room.getBranch().getBranchId(), hotelIdOf(room.getBranch()), room.getPrice());
+        catalogCache.evictRoom(roomId);
+        indexRoom(room);
     }
 
     @Override
@@ -130,18 +247,23 @@ public class RoomServiceImpl implements RoomService {
             );
         }
 
+        roomAvailabilityRepo.deleteAllByRoom(room);
         roomRepo.deleteById(roomId);
+        aggregateService.roomRemoved(room.getBranch().getBranchId(), hotelIdOf(room.getBranch()), room.getPrice());
+        catalogCache.evictRoom(roomId);
+        AfterCommit.run(() -> roomSearchIndex.remove(roomId));
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.ROOMS, key = "#roomId")
     public ResponseRoomDto findById(String roomId) {
         Room room = roomRepo.findById(roomId)
                 .orElseThrow(() -> new RuntimeException(
                         String.format("Room not found with id: %s", roomId)
                 ));
 
-        return mapToResponseDto(room);
+        return mapToResponseDtos(List.of(room)).get(0);
     }
 
 
@@ -153,26 +275,146 @@ public class RoomServiceImpl implements RoomService {
         return buildPaginateResponse(roomPage);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public RoomPaginateResponseDto findAllByCursor(String cursor, int size, boolean withCount) {
+        size = cursorCodec.pageSize(size);
+        // Fetch one extra row to know whether there is a next page
+        List<Room> rooms = roomRepo.findAllByRoomIdGreaterThanOrderByRoomIdAsc(
+                cursorCodec.decode(cursor), Limit.of(size + 1));
+
+        boolean hasNext = rooms.size() > size;
+        List<Room> pageContent = hasNext ? rooms.subList(0, size) : rooms;
+
+        return RoomPaginateResponseDto.builder()
+                .dataList(mapToResponseDtos(pageContent))
+                .dataCount(withCount ? roomRepo.count() : null)
+                .nextCursor(hasNext ? cursorCodec.encode(pageContent.get(size - 1).getRoomId()) : null)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public RoomPaginateResponseDto search(RequestRoomSearchDto criteria, int page, int size) {
+        if (!roomSearchIndex.isReady()) {
+            throw new IndexNotReadyException("Room search is not available yet, please try again shortly");
+        }
+        if (page < 0 || size <= 0) {
+            throw new RuntimeException(
+                    String.format("Invalid page request: page %d, size %d", page, size)
+            );
+        }
+
+        RoomSearchIndex.SearchResult result = roomSearchIndex.search(criteria, Math.multiplyExact((long) page, size), size);
+
+        // Only the rooms of the requested page are loaded, in the order the index returned them
+        Map<String, Room> rooms = roomRepo.findAllById(result.roomIds()).stream()
+                .collect(Collectors.toMap(Room::getRoomId, Function.identity()));
+        List<Room> pageContent = result.roomIds().stream()
+                .map(rooms::get)
+                .filter(room -> room != null)
+                .collect(Collectors.toList());
+
+        return RoomPaginateResponseDto.builder()
+                .dataList(mapToResponseDtos(pageContent))
+                .dataCount(result.total())
+                .build();
+    }
+
     /**
-     * Helper method to map Room entity to ResponseRoomDto
+     * Helper method to push the searchable columns of a room to the search index once the transaction commits
      */
-    private ResponseRoomDto mapToResponseDto(Room room) {
-        // Map facilities
-        List<ResponseFacilityDto> facilities = Collections.emptyList();
-        if (room.getFacilities() != null && !room.getFacilities().isEmpty()) {
-            facilities = room.getFacilities().stream()
-                    .map(this::mapFacilityToDto)
-                    .collect(Collectors.toList());
+    private void indexRoom(Room room) {
+        Branch branch = room.getBranch();
+        String roomId = room.getRoomId();
+        BigDecimal price = room.getPrice();
+        int bedCount = room.getBedCount();
+        String type = room.getType();
+        boolean available = room.isAvailable();
+        String branchId = branch.getBranchId();
+        String hotelId = hotelIdOf(branch);
+        String city = branch.getAddress() == null ? null : branch.getAddress().getCity();
+        AfterCommit.run(() -> roomSearchIndex.put(roomId, price, bedCount, type, available, branchId, hotelId, city));
+    }
+
+    private static String hotelIdOf(Branch branch) {
+        return branch.getHotel() == null ? null : branch.getHotel().getHotelId();
+    }
+
+    /**
+     * Helper method to validate one row of a bulk create
+     * @return the error message, or null when the row is valid
+     */
+    private static String validateBulkRow(RequestRoomDto row, String branchId, Set<String> usedNumbers) {
+        if (row == null) {
+            return "Room is empty";
         }
+        if (row.getBranchId() != null && !row.getBranchId().equals(branchId)) {
+            return String.format("Room belongs to branch %s, not %s", row.getBranchId(), branchId);
+        }
+        if (row.getRoomNumber() == null || row.getRoomNumber().isBlank()) {
+            return "Room number is required";
+        }
+        if (row.getRoomType() == null || row.getRoomType().isBlank()) {
+            return "Room type is required";
+        }
+        if (row.getPrice() == null || row.getPrice().signum() <= 0) {
+            return String.format("Room price must be greater than zero, got: %s", row.getPrice());
+        }
+        if (row.getBedCount() < 0) {
+            return String.format("Bed count can't be negative, got: %d", row.getBedCount());
+        }
+        if (usedNumbers.contains(row.getRoomNumber())) {
+            return String.format("Room number '%s' already exists in this branch", row.getRoomNumber());
+        }
+        return null;
+    }
 
-        // Map images
-        List<ResponseRoomImageDto> images = Collections.emptyList();
-        if (room.getRoomImages() != null && !room.getRoomImages().isEmpty()) {
-            images = room.getRoomImages().stream()
-                    .map(this::mapImageToDto)
-                    .collect(Collectors.toList());
+    /**
+     * Helper method to reject missing or non-positive prices,
+     * a zero starting price is reserved for hotels without rooms
+     */
+    private static void validatePrice(BigDecimal price) {
+        if (price == null || price.signum() <= 0) {
+            throw new RuntimeException(
+                    String.format("Room price must be greater than zero, got: %s", price)
+            );
         }
+    }
 
+    /**
+     * Helper method to map a page of rooms to ResponseRoomDto.
+     * Facilities and images of all rooms are loaded with one IN-query each
+     * instead of walking the lazy collections room by room.
+     */
+    private List<ResponseRoomDto> mapToResponseDtos(List<Room> rooms) {
+        if (rooms.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Map<String, List<ResponseFacilityDto>> facilitiesByRoom = facilityRepo.findAllByRoomIn(rooms).stream()
+                .map(this::mapFacilityToDto)
+                .collect(Collectors.groupingBy(ResponseFacilityDto::getRoomId));
+
+        // Images still being ingested, or that failed to, have nothing to show yet
+        Map<String, List<ResponseRoomImageDto>> imagesByRoom = roomImageRepo.findAllByRoomIn(rooms).stream()
+                .filter(image -> image.getStatus() == null || image.getStatus() == ImageStatus.READY)
+                .map(RoomImageServiceImpl::mapToResponseDto)
+                .collect(Collectors.groupingBy(ResponseRoomImageDto::getRoomId));
+
+        return rooms.stream()
+                .map(room -> mapToResponseDto(
+                        room,
+                        facilitiesByRoom.getOrDefault(room.getRoomId(), Collections.emptyList()),
+                        imagesByRoom.getOrDefault(room.getRoomId(), Collections.emptyList())))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Helper method to map Room entity to ResponseRoomDto
+     */
+    private ResponseRoomDto mapToResponseDto(Room room, List<ResponseFacilityDto> facilities,
+                                             List<ResponseRoomImageDto> images) {
         return ResponseRoomDto.builder()
                 .roomId(room.getRoomId())
                 .roomNumber(room.getRoomNumber())
@@ -197,27 +439,11 @@ public class RoomServiceImpl implements RoomService {
                 .build();
     }
 
-    /**
-     * Helper method to map RoomImage entity to ResponseRoomImageDto
-     */
-    private ResponseRoomImageDto mapImageToDto(RoomImage image) {
-        return ResponseRoomImageDto.builder()
-                .id(image.getId())
-                .directory(fileDataExtractor.byteArrayToString(image.getFileFormatter().getDirectory()))
-                .fileName(fileDataExtractor.byteArrayToString(image.getFileFormatter().getFileName()))
-                .hash(fileDataExtractor.byteArrayToString(image.getFileFormatter().getHash()))
-                .resourceUrl(fileDataExtractor.byteArrayToString(image.getFileFormatter().getResourceUrl()))
-                .roomId(image.getRoom().getRoomId())
-                .build();
-    }
-
     /**
      * Helper method to build paginated response
      */
     private RoomPaginateResponseDto buildPaginateResponse(Page<Room> roomPage) {
-        List<ResponseRoomDto> dataList = roomPage.getContent().stream()
-                .map(this::mapToResponseDto)
-                .collect(Collectors.toList());
+        List<ResponseRoomDto> dataList = mapToResponseDtos(roomPage.getContent());
 
         return RoomPaginateResponseDto.builder()
                 .dataList(dataList)
@@ -0,0 +1,28 @@
+package com.cpd.hotel_system.hotel_management_service_api.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Runs in-memory side effects, such as search index updates, only once the current transaction
+ * has committed, so a rollback never leaves them behind. Without a transaction they run at once.
+ * Actions must capture their values up front, the persistence context is closed when they run.
+ */
+public final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    public static void run(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.cpd.hotel_system.hotel_management_service_api.util;
+
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Converts text to the bytes it is stored in, and back, always as UTF-8.
+ * Bytes are encoded and decoded directly, with no readers, streams or intermediate buffers,
+ * so a value is copied once and line breaks are kept.
+ */
+@Service
+public class ByteCodec {
+
+    public byte[] toBytes(String text) {
+        return text == null ? null : text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    public String toText(byte[] bytes) {
+        return bytes == null ? null : new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Compress in the zlib format, which is also what HTTP calls deflate
+     */
+    public byte[] deflate(byte[] bytes) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, bytes.length / 2));
+            byte[] buffer = new byte[Math.min(8192, bytes.length + 64)];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Decompress deflated bytes whose decoded length is known, straight into an array of that size
+     */
+    public byte[] inflate(byte[] compressed, int length) throws DataFormatException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] bytes = new byte[length];
+            int read = 0;
+            while (read < length && !inflater.finished()) {
+                int count = inflater.inflate(bytes, read, length - read);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                read += count;
+            }
+            if (read != length) {
+                throw new DataFormatException(String.format("Expected %d deflated bytes, got %d", length, read));
+            }
+            return bytes;
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Stream deflated bytes decompressed, closing the stream frees the inflater
+     */
+    public InputStream inflate(byte[] compressed) {
+        return new InflaterInputStream(new ByteArrayInputStream(compressed));
+    }
+}
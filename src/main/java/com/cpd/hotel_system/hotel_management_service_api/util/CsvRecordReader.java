@@ -0,0 +1,87 @@
+package com.cpd.hotel_system.hotel_management_service_api.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal streaming RFC 4180 reader: comma separated, double-quoted fields with
+ * "" escapes and line breaks inside quotes. Only the current record is held in memory.
+ */
+public class CsvRecordReader {
+
+    private final BufferedReader reader;
+    private long lineNumber;
+    private long recordLineNumber;
+
+    public CsvRecordReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * @return the fields of the next record, or null at the end of the input
+     */
+    public List<String> next() throws IOException {
+        String line = reader.readLine();
+        while (line != null && line.isEmpty()) {
+            lineNumber++;
+            line = reader.readLine();
+        }
+        if (line == null) {
+            return null;
+        }
+        lineNumber++;
+        recordLineNumber = lineNumber;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int i = 0;
+        while (true) {
+            if (i == line.length()) {
+                if (!quoted) {
+                    break;
+                }
+                // Line break inside a quoted field, continue with the next physical line
+                line = reader.readLine();
+                if (line == null) {
+                    throw new IOException(String.format("Unterminated quoted field starting on line %d", recordLineNumber));
+                }
+                lineNumber++;
+                field.append('\n');
+                i = 0;
+                continue;
+            }
+            char c = line.charAt(i++);
+            if (quoted) {
+                if (c == '"') {
+                    if (i < line.length() && line.charAt(i) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * @return the line number the last returned record started on, 1 based
+     */
+    public long getRecordLineNumber() {
+        return recordLineNumber;
+    }
+}
@@ -0,0 +1,64 @@
+package com.cpd.hotel_system.hotel_management_service_api.util;
+
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes the sort key of the last row of a page into an opaque cursor
+ * for keyset pagination, and back.
+ */
+@Service
+public class CursorCodec {
+
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    /**
+     * Validate a cursor page size, capped so the one-row look-ahead can't overflow
+     */
+    public int pageSize(int size) {
+        if (size <= 0) {
+            throw new RuntimeException(String.format("Invalid page request: size %d", size));
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+
+    public String encode(String lastKey) {
+        if (lastKey == null) {
+            return null;
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(lastKey.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public String encode(long lastKey) {
+        return encode(Long.toString(lastKey));
+    }
+
+    /**
+     * Decode a cursor, an empty cursor means "start from the first row"
+     */
+    public String decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return "";
+        }
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException(String.format("Invalid cursor: %s", cursor));
+        }
+    }
+
+    public long decodeLong(String cursor) {
+        String key = decode(cursor);
+        if (key.isEmpty()) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(key);
+        } catch (NumberFormatException e) {
+            throw new RuntimeException(String.format("Invalid cursor: %s", cursor));
+        }
+    }
+}
@@ -5,6 +5,8 @@ import org.springframework.stereotype.Service;
 import java.util.UUID;
 @Service
 public class ImageUploadGenerator {
+    private static final int MAX_SAFE_FILE_NAME = 200;
+
     public String generateCPDResourceName(String name,String type){
         StringBuilder builder = new StringBuilder();
         builder.append(UUID.randomUUID().toString());
@@ -13,4 +15,16 @@ public class ImageUploadGenerator {
         builder.append(name);
         return builder.toString();
     }
+
+    /**
+     * Client file names end up in storage keys and paths, keep only characters safe in both.
+     * Long names keep their end, with the extension, so the stored name fits its column.
+     */
+    public String safeFileName(String fileName) {
+        if (fileName == null || fileName.isBlank()) {
+            return "file";
+        }
+        String safe = fileName.replaceAll("[^A-Za-z0-9._-]", "_");
+        return safe.length() > MAX_SAFE_FILE_NAME ? safe.substring(safe.length() - MAX_SAFE_FILE_NAME) : safe;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,150 @@
+package com.cpd.hotel_system.hotel_management_service_api.index;
+
+import com.cpd.hotel_system.hotel_management_service_api.repo.AddressRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BranchGeoIndexTest {
+
+	// length of one degree of arc on the index's sphere
+	private static final double KM_PER_DEGREE = Math.PI * 6371.0088 / 180;
+
+	private final AddressRepo addressRepo = mock(AddressRepo.class);
+
+	private BranchGeoIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new BranchGeoIndex(addressRepo);
+	}
+
+	@Test
+	void emptyIndexFindsNothing() {
+		assertThat(index.nearest(6.9, 79.8, 5)).isEmpty();
+		assertThat(index.withinRadius(6.9, 79.8, 20_100, 5)).isEmpty();
+	}
+
+	@Test
+	void hitsComeNearestFirstWithTheirDistance() {
+		put("a1", 6.90, 79.80);
+		put("a2", 6.92, 79.80);
+		put("a3", 6.95, 79.80);
+
+		List<BranchGeoIndex.Hit> hits = index.withinRadius(6.90, 79.80, 5, 10);
+
+		assertThat(hits).extracting(BranchGeoIndex.Hit::addressId).containsExactly("a1", "a2");
+		assertThat(hits).extracting(BranchGeoIndex.Hit::branchId).containsExactly("b-a1", "b-a2");
+		assertThat(hits.get(1).distanceKm()).isCloseTo(0.02 * KM_PER_DEGREE, within(1e-6));
+		assertThat(index.nearest(6.96, 79.80, 2)).extracting(BranchGeoIndex.Hit::addressId)
+				.containsExactly("a3", "a2");
+	}
+
+	@Test
+	void zeroLimitFindsNothing() {
+		put("a1", 6.90, 79.80);
+
+		assertThat(index.nearest(6.90, 79.80, 0)).isEmpty();
+		assertThat(index.withinRadius(6.90, 79.80, 10, 0)).isEmpty();
+	}
+
+	@Test
+	void nearestGrowsAcrossTheWholePlanet() {
+		put("a1", 6.90, 79.80);
+		put("a2", 51.50, -0.12);
+
+		// The antipode of a1, both branches are thousands of kilometres away
+		List<BranchGeoIndex.Hit> hits = index.nearest(-6.90, -100.20, 10);
+
+		assertThat(hits).extracting(BranchGeoIndex.Hit::addressId).containsExactly("a2", "a1");
+		assertThat(hits.get(1).distanceKm()).isCloseTo(180 * KM_PER_DEGREE, within(1e-3));
+		assertThat(index.withinRadius(-6.90, -100.20, 180 * KM_PER_DEGREE + 1, 10)).hasSize(2);
+	}
+
+	@Test
+	void searchWrapsAcrossTheAntimeridian() {
+		put("east", 0.0, 179.99);
+		put("west", 0.0, -179.99);
+
+		assertThat(index.withinRadius(0.0, 179.995, 2, 10)).extracting(BranchGeoIndex.Hit::addressId)
+				.containsExactly("east", "west");
+		assertThat(index.withinRadius(0.0, -180.0, 1.2, 10)).extracting(BranchGeoIndex.Hit::distanceKm)
+				.allSatisfy(distance -> assertThat(distance).isCloseTo(0.01 * KM_PER_DEGREE, within(1e-6)));
+		assertThat(index.nearest(0.0, -179.999, 1)).extracting(BranchGeoIndex.Hit::addressId)
+				.containsExactly("west");
+	}
+
+	@Test
+	void searchCoversEveryLongitudeAtThePoles() {
+		put("n0", 89.99, 0.0);
+		put("n90", 89.99, 90.0);
+		put("n180", 89.99, 180.0);
+		put("s45", -89.995, 45.0);
+		put("s-135", -89.995, -135.0);
+
+		assertThat(index.withinRadius(90.0, 0.0, 1.2, 10)).extracting(BranchGeoIndex.Hit::addressId)
+				.containsExactlyInAnyOrder("n0", "n90", "n180");
+		// Across the pole from n0, n180 is as near as n0 is from the pole
+		assertThat(index.withinRadius(89.99, 0.0, 2.3, 10)).extracting(BranchGeoIndex.Hit::addressId)
+				.containsExactlyInAnyOrder("n0", "n90", "n180");
+		assertThat(index.nearest(-90.0, 0.0, 2)).extracting(BranchGeoIndex.Hit::addressId)
+				.containsExactlyInAnyOrder("s45", "s-135");
+	}
+
+	@Test
+	void putMovesAndNullCoordinateRemoves() {
+		put("a1", 6.90, 79.80);
+		put("a2", 6.91, 79.80);
+
+		put("a1", 7.29, 80.63);
+		assertThat(index.nearest(6.90, 79.80, 1)).extracting(BranchGeoIndex.Hit::addressId).containsExactly("a2");
+
+		index.put("a2", "b-a2", null, BigDecimal.ONE);
+		index.remove("unknown");
+		assertThat(index.nearest(6.90, 79.80, 10)).extracting(BranchGeoIndex.Hit::addressId).containsExactly("a1");
+	}
+
+	@Test
+	void loadReplacesWhatWasIndexed() {
+		put("stale", 6.90, 79.80);
+		when(addressRepo.streamBranchCoordinates()).thenReturn(Stream.of(
+				new Object[]{"a1", "b1", new BigDecimal("6.927100"), new BigDecimal("79.861200")},
+				new Object[]{"a2", "b2", null, null}));
+		assertThat(index.isReady()).isFalse();
+
+		index.load();
+
+		assertThat(index.isReady()).isTrue();
+		assertThat(index.nearest(6.90, 79.80, 10)).extracting(BranchGeoIndex.Hit::addressId).containsExactly("a1");
+	}
+
+	@Test
+	void putCommittedAfterTheLoadSnapshotIsKept() throws InterruptedException {
+		Thread writer = new Thread(() -> put("a2", 6.91, 79.80));
+		// The query takes its snapshot when it runs, an address committed after that only arrives as a put
+		when(addressRepo.streamBranchCoordinates()).thenAnswer(invocation -> {
+			writer.start();
+			writer.join(200);
+			return Stream.<Object[]>of(
+					new Object[]{"a1", "b1", new BigDecimal("6.900000"), new BigDecimal("79.800000")});
+		});
+
+		index.load();
+		writer.join();
+
+		assertThat(index.nearest(6.90, 79.80, 10)).extracting(BranchGeoIndex.Hit::addressId)
+				.containsExactly("a1", "a2");
+	}
+
+	private void put(String addressId, double latitude, double longitude) {
+		index.put(addressId, "b-" + addressId, BigDecimal.valueOf(latitude), BigDecimal.valueOf(longitude));
+	}
+}
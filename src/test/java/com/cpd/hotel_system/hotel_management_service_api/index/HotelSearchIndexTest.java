@@ -0,0 +1,195 @@
+package com.cpd.hotel_system.hotel_management_service_api.index;
+
+import com.cpd.hotel_system.hotel_management_service_api.repo.HotelRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class HotelSearchIndexTest {
+
+	private final HotelRepo hotelRepo = mock(HotelRepo.class);
+
+	private HotelSearchIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new HotelSearchIndex(hotelRepo);
+		index.put("h1", "Grand Hotel Colombo");
+		index.put("h2", "Cinnamon Grand");
+		index.put("h3", "Galle Face Hotel");
+		index.put("h4", "Kandy Hills");
+	}
+
+	@Test
+	void blankTextMatchesEveryHotelInInsertionOrder() {
+		for (String text : new String[]{null, "", "   "}) {
+			HotelSearchIndex.SearchResult result = index.search(text, 0, 10);
+			assertThat(result.hotelIds()).containsExactly("h1", "h2", "h3", "h4");
+			assertThat(result.total()).isEqualTo(4);
+		}
+	}
+
+	@Test
+	void matchesAnywhereInTheNameIgnoringCaseAndOuterSpaces() {
+		assertThat(index.search("grand", 0, 10).hotelIds()).containsExactly("h1", "h2");
+		assertThat(index.search("  HOTEL ", 0, 10).hotelIds()).containsExactly("h1", "h3");
+		assertThat(index.search("hotel colombo", 0, 10).hotelIds()).containsExactly("h1");
+	}
+
+	@Test
+	void textShorterThanATrigramScansTheNames() {
+		assertThat(index.search("gr", 0, 10).hotelIds()).containsExactly("h1", "h2");
+		assertThat(index.search("y", 0, 10).hotelIds()).containsExactly("h4");
+		assertThat(index.search("zz", 0, 10).total()).isZero();
+	}
+
+	@Test
+	void everyTrigramPresentIsNotEnoughForAMatch() {
+		// "abc" and "bcd" are both indexed for this name, "abcd" is not in it
+		index.put("h5", "abc bcd");
+
+		assertThat(index.search("abcd", 0, 10).total()).isZero();
+		assertThat(index.search("c bc", 0, 10).hotelIds()).containsExactly("h5");
+	}
+
+	@Test
+	void unknownTrigramMatchesNothing() {
+		HotelSearchIndex.SearchResult result = index.search("no such hotel", 0, 10);
+		assertThat(result.hotelIds()).isEmpty();
+		assertThat(result.total()).isZero();
+		assertThat(index.searchAfter("no such hotel", "", 10).hotelIds()).isEmpty();
+	}
+
+	@Test
+	void putReplacesTheNameAndMovesTheHotelLast() {
+		index.put("h1", "Grand Oriental");
+
+		assertThat(index.search("colombo", 0, 10).total()).isZero();
+		assertThat(index.search("grand", 0, 10).hotelIds()).containsExactly("h2", "h1");
+		assertThat(index.search("", 0, 10).total()).isEqualTo(4);
+	}
+
+	@Test
+	void removeDropsTheHotel() {
+		index.remove("h2");
+		index.remove("unknown");
+
+		assertThat(index.search("grand", 0, 10).hotelIds()).containsExactly("h1");
+		assertThat(index.search("", 0, 10).total()).isEqualTo(3);
+	}
+
+	@Test
+	void pageSlicesKeepTheTotal() {
+		assertThat(index.search("", 1, 2).hotelIds()).containsExactly("h2", "h3");
+		assertThat(index.search("hotel", 1, 5).hotelIds()).containsExactly("h3");
+		assertThat(index.search("hotel", 1, 5).total()).isEqualTo(2);
+	}
+
+	@Test
+	void offsetPastTheEndIsEmptyButKeepsTheTotal() {
+		for (String text : new String[]{"", "gr", "grand"}) {
+			long total = index.search(text, 0, 10).total();
+			assertThat(index.search(text, total, 10).hotelIds()).isEmpty();
+			assertThat(index.search(text, total, 10).total()).isEqualTo(total);
+			assertThat(index.search(text, Long.MAX_VALUE, 10).hotelIds()).isEmpty();
+			assertThat(index.search(text, Long.MAX_VALUE, 10).total()).isEqualTo(total);
+		}
+	}
+
+	@Test
+	void zeroLimitOnlyCounts() {
+		assertThat(index.search("grand", 0, 0).hotelIds()).isEmpty();
+		assertThat(index.search("grand", 0, 0).total()).isEqualTo(2);
+		assertThat(index.searchAfter("grand", "", 0).hotelIds()).isEmpty();
+		assertThat(index.searchAfter("grand", "", 0).total()).isEqualTo(2);
+	}
+
+	@Test
+	void searchAfterPagesByHotelId() {
+		index.put("h0", "Grand Beach");
+
+		assertThat(index.searchAfter("grand", "", 2).hotelIds()).containsExactly("h0", "h1");
+		assertThat(index.searchAfter("grand", "h1", 2).hotelIds()).containsExactly("h2");
+		assertThat(index.searchAfter("grand", "h2", 2).hotelIds()).isEmpty();
+		assertThat(index.searchAfter("grand", "h2", 2).total()).isEqualTo(3);
+		assertThat(index.searchAfter("", "h3", 10).hotelIds()).containsExactly("h4");
+		assertThat(index.searchAfter(null, null, 1).hotelIds()).containsExactly("h0");
+	}
+
+	@Test
+	void removedHotelsStayGoneAfterCompaction() {
+		for (int i = 0; i < 3000; i++) {
+			index.put("x" + i, "Lake View " + i);
+		}
+		for (int i = 0; i < 3000; i++) {
+			if (i != 1234) {
+				index.remove("x" + i);
+			}
+		}
+
+		assertThat(index.search("lake view", 0, 10).hotelIds()).containsExactly("x1234");
+		assertThat(index.search("grand", 0, 10).hotelIds()).containsExactly("h1", "h2");
+		assertThat(index.search("", 0, 10).total()).isEqualTo(5);
+	}
+
+	@Test
+	void loadReplacesWhatWasIndexed() {
+		when(hotelRepo.streamActiveHotelNames()).thenReturn(Stream.of(
+				new Object[]{"h9", "Mountain Lodge"},
+				new Object[]{"h8", "Grand Lodge"}));
+		assertThat(index.isReady()).isFalse();
+
+		index.load();
+
+		assertThat(index.isReady()).isTrue();
+		assertThat(index.search("grand", 0, 10).hotelIds()).containsExactly("h8");
+		assertThat(index.search("", 0, 10).hotelIds()).containsExactly("h9", "h8");
+	}
+
+	@Test
+	void keepsChangesMadeWhileLoading() {
+		List<Object[]> rows = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			rows.add(new Object[]{"r" + i, "Loaded " + i});
+		}
+		// The changes land while the rows are still being read
+		when(hotelRepo.streamActiveHotelNames()).thenReturn(rows.stream().peek(row -> {
+			if ("r50".equals(row[0])) {
+				index.put("late", "Added While Loading");
+				index.put("r10", "Renamed While Loading");
+				index.remove("r20");
+			}
+		}));
+
+		index.load();
+
+		assertThat(index.search("while loading", 0, 10).hotelIds()).containsExactlyInAnyOrder("late", "r10");
+		assertThat(index.search("loaded 20", 0, 10).hotelIds()).isEmpty();
+		assertThat(index.search("loaded 1", 0, 100).hotelIds()).doesNotContain("r10").contains("r1", "r11");
+		assertThat(index.search("grand", 0, 10).hotelIds()).isEmpty();
+		assertThat(index.search("", 0, 1000).total()).isEqualTo(100);
+	}
+
+	@Test
+	void failedLoadKeepsTheCurrentNames() {
+		when(hotelRepo.streamActiveHotelNames()).thenReturn(Stream.<Object[]>of(new Object[]{"h9", "Lodge"})
+				.peek(row -> {
+					throw new IllegalStateException("connection lost");
+				}));
+
+		assertThatThrownBy(() -> index.load()).isInstanceOf(IllegalStateException.class);
+
+		assertThat(index.isReady()).isFalse();
+		assertThat(index.search("grand", 0, 10).hotelIds()).containsExactly("h1", "h2");
+		index.put("h5", "Grand Lodge");
+		assertThat(index.search("grand", 0, 10).hotelIds()).containsExactly("h1", "h2", "h5");
+	}
+}
@@ -0,0 +1,183 @@
+package com.cpd.hotel_system.hotel_management_service_api.index;
+
+import com.cpd.hotel_system.hotel_management_service_api.dto.request.RequestRoomSearchDto;
+import com.cpd.hotel_system.hotel_management_service_api.repo.FacilityRepo;
+import com.cpd.hotel_system.hotel_management_service_api.repo.RoomRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RoomSearchIndexTest {
+
+	private final RoomRepo roomRepo = mock(RoomRepo.class);
+	private final FacilityRepo facilityRepo = mock(FacilityRepo.class);
+
+	private RoomSearchIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new RoomSearchIndex(roomRepo, facilityRepo);
+		index.put("r1", new BigDecimal("100.00"), 1, "Single", true, "b1", "h1", "Colombo");
+		index.put("r2", new BigDecimal("150.00"), 2, "Double", true, "b1", null, null);
+		index.put("r3", new BigDecimal("200.00"), 2, " double ", false, "b2", "h1", "Kandy");
+		index.put("r4", new BigDecimal("250.00"), 3, "Suite", true, "b3", "h2", " colombo");
+		index.put("r5", null, 2, "Double", true, "b3", null, null);
+		index.addFacility("r1", "Wifi");
+		index.setFacilities("r2", List.of("wifi", "Pool"));
+		index.setFacilities("r4", List.of("pool ", "Spa"));
+	}
+
+	@Test
+	void emptyCriteriaMatchesEveryRoomCheapestFirst() {
+		RoomSearchIndex.SearchResult result = index.search(new RequestRoomSearchDto(), 0, 10);
+
+		assertThat(result.roomIds()).containsExactly("r1", "r2", "r3", "r4", "r5");
+		assertThat(result.total()).isEqualTo(5);
+	}
+
+	@Test
+	void descendingOrderIsMostExpensiveFirst() {
+		RequestRoomSearchDto criteria = RequestRoomSearchDto.builder()
+				.maxPrice(new BigDecimal("1000")).priceOrder("DESC").build();
+
+		assertThat(ids(criteria)).containsExactly("r4", "r3", "r2", "r1");
+	}
+
+	@Test
+	void roomWithoutPriceOnlyMatchesAnOpenPriceRange() {
+		assertThat(ids(RequestRoomSearchDto.builder().minPrice(new BigDecimal("200")).build()))
+				.containsExactly("r3", "r4", "r5");
+		assertThat(ids(RequestRoomSearchDto.builder().minPrice(new BigDecimal("150"))
+				.maxPrice(new BigDecimal("250")).build()))
+				.containsExactly("r2", "r3", "r4");
+	}
+
+	@Test
+	void typeIgnoresCaseAndOuterSpaces() {
+		assertThat(ids(RequestRoomSearchDto.builder().roomType("DOUBLE").build())).containsExactly("r2", "r3", "r5");
+		assertThat(ids(RequestRoomSearchDto.builder().roomType("double").available(true).build()))
+				.containsExactly("r2", "r5");
+	}
+
+	@Test
+	void everyRequestedFacilityMustMatch() {
+		assertThat(ids(RequestRoomSearchDto.builder().facilities(List.of("POOL")).build())).containsExactly("r2", "r4");
+		assertThat(ids(RequestRoomSearchDto.builder().facilities(List.of("wifi", " Pool ")).build()))
+				.containsExactly("r2");
+		assertThat(ids(RequestRoomSearchDto.builder().facilities(List.of("Spa", "Wifi")).build())).isEmpty();
+	}
+
+	@Test
+	void blankValuesAreIgnored() {
+		RequestRoomSearchDto criteria = RequestRoomSearchDto.builder()
+				.roomType(" ").city("").facilities(List.of(" ", "Wifi")).build();
+
+		assertThat(ids(criteria)).containsExactly("r1", "r2");
+	}
+
+	@Test
+	void unknownValuesMatchNothing() {
+		List<RequestRoomSearchDto> unknown = List.of(
+				RequestRoomSearchDto.builder().roomType("Penthouse").build(),
+				RequestRoomSearchDto.builder().branchId("b9").build(),
+				RequestRoomSearchDto.builder().hotelId("h9").build(),
+				RequestRoomSearchDto.builder().city("Galle").build(),
+				RequestRoomSearchDto.builder().facilities(List.of("Pool", "Helipad")).build());
+
+		for (RequestRoomSearchDto criteria : unknown) {
+			RoomSearchIndex.SearchResult result = index.search(criteria, 0, 10);
+			assertThat(result.roomIds()).isEmpty();
+			assertThat(result.total()).isZero();
+		}
+	}
+
+	@Test
+	void hotelAndCityFollowTheBranch() {
+		assertThat(ids(RequestRoomSearchDto.builder().hotelId("h1").build())).containsExactly("r1", "r2", "r3");
+		assertThat(ids(RequestRoomSearchDto.builder().city("COLOMBO").build())).containsExactly("r1", "r2", "r4", "r5");
+
+		index.updateBranchCity("b2", "Colombo");
+		index.updateBranchHotel("b3", "h1");
+
+		assertThat(ids(RequestRoomSearchDto.builder().city("colombo").hotelId("h1").build()))
+				.containsExactly("r1", "r2", "r3", "r4", "r5");
+		assertThat(ids(RequestRoomSearchDto.builder().city("kandy").build())).isEmpty();
+	}
+
+	@Test
+	void putKeepsTheFacilitiesOfTheRoom() {
+		index.put("r2", new BigDecimal("300.00"), 2, "Double", true, "b2", null, null);
+
+		assertThat(ids(RequestRoomSearchDto.builder().facilities(List.of("Pool")).build())).containsExactly("r4", "r2");
+		assertThat(ids(RequestRoomSearchDto.builder().branchId("b1").build())).containsExactly("r1");
+	}
+
+	@Test
+	void removedRoomLeavesNoFacilitiesOnItsReusedSlot() {
+		index.remove("r2");
+		index.put("r6", new BigDecimal("120.00"), 1, "Single", true, "b1", null, null);
+
+		assertThat(ids(RequestRoomSearchDto.builder().facilities(List.of("Wifi")).build())).containsExactly("r1");
+		assertThat(ids(RequestRoomSearchDto.builder().branchId("b1").build())).containsExactly("r1", "r6");
+		Map<String, Long> catalog = index.facilityCatalog().stream()
+				.collect(Collectors.toMap(RoomSearchIndex.FacilityCount::name, RoomSearchIndex.FacilityCount::roomCount));
+		assertThat(catalog).containsEntry("Wifi", 1L).containsEntry("Pool", 1L).containsEntry("Spa", 1L);
+	}
+
+	@Test
+	void facilitiesOfUnknownRoomsAreIgnored() {
+		index.addFacility("missing", "Sauna");
+		index.setFacilities("missing", List.of("Gym"));
+
+		assertThat(index.facilityCatalog()).extracting(RoomSearchIndex.FacilityCount::name)
+				.containsExactly("Wifi", "Pool", "Spa");
+	}
+
+	@Test
+	void pagesPastTheEndAreEmptyButKeepTheTotal() {
+		for (RequestRoomSearchDto criteria : List.of(new RequestRoomSearchDto(),
+				RequestRoomSearchDto.builder().hotelId("h1").build())) {
+			long total = index.search(criteria, 0, 10).total();
+			assertThat(index.search(criteria, total - 1, 10).roomIds()).hasSize(1);
+			assertThat(index.search(criteria, total, 10).roomIds()).isEmpty();
+			assertThat(index.search(criteria, total, 10).total()).isEqualTo(total);
+			assertThat(index.search(criteria, Long.MAX_VALUE, Integer.MAX_VALUE).roomIds()).isEmpty();
+			assertThat(index.search(criteria, Long.MAX_VALUE, Integer.MAX_VALUE).total()).isEqualTo(total);
+			assertThat(index.search(criteria, 0, 0).roomIds()).isEmpty();
+			assertThat(index.search(criteria, 0, 0).total()).isEqualTo(total);
+			assertThat(index.search(criteria, 0, Integer.MAX_VALUE).roomIds()).hasSize((int) total);
+		}
+	}
+
+	@Test
+	void loadReplacesWhatWasIndexed() {
+		when(roomRepo.streamSearchColumns()).thenReturn(Stream.of(
+				new Object[]{"r7", new BigDecimal("90.00"), 2, "Double", true, "b4", "h3", "Galle"},
+				new Object[]{"r8", new BigDecimal("80.00"), 1, "Single", false, "b4", "h3", "Galle"}));
+		when(facilityRepo.streamExportColumns()).thenReturn(Stream.of(
+				new Object[]{1L, "r7", "Wifi"},
+				new Object[]{2L, "r1", "Pool"}));
+		assertThat(index.isReady()).isFalse();
+
+		index.load();
+
+		assertThat(index.isReady()).isTrue();
+		assertThat(ids(new RequestRoomSearchDto())).containsExactly("r8", "r7");
+		assertThat(ids(RequestRoomSearchDto.builder().city("galle").facilities(List.of("wifi")).build()))
+				.containsExactly("r7");
+		assertThat(ids(RequestRoomSearchDto.builder().facilities(List.of("Pool")).build())).isEmpty();
+	}
+
+	private List<String> ids(RequestRoomSearchDto criteria) {
+		return index.search(criteria, 0, 100).roomIds();
+	}
+}
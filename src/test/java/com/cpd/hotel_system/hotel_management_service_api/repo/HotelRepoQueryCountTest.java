@@ -0,0 +1,90 @@
+package com.cpd.hotel_system.hotel_management_service_api.repo;
+
+import com.cpd.hotel_system.hotel_management_service_api.entity.Branch;
+import com.cpd.hotel_system.hotel_management_service_api.entity.Hotel;
+import com.cpd.hotel_system.hotel_management_service_api.enums.BranchType;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class HotelRepoQueryCountTest {
+
+	private static final int HOTELS = 50;
+
+	@Autowired
+	private HotelRepo hotelRepo;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	private final List<String> hotelIds = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() throws Exception {
+		for (int i = 0; i < HOTELS; i++) {
+			Hotel hotel = Hotel.builder()
+					.hotelId(UUID.randomUUID().toString())
+					.hotelName("Hotel " + i)
+					.starRating(4)
+					.createdAt(LocalDateTime.now())
+					.updatedAt(LocalDateTime.now())
+					.activeStatus(true)
+					.startingForm(BigDecimal.TEN)
+					.build();
+			entityManager.persist(hotel);
+			for (int j = 0; j < 2; j++) {
+				entityManager.persist(Branch.builder()
+						.branchId(UUID.randomUUID().toString())
+						.branchName("Branch " + i + "-" + j)
+						.branchType(BranchType.SUB)
+						.hotel(hotel)
+						.build());
+			}
+			hotelIds.add(hotel.getHotelId());
+		}
+		entityManager.flush();
+		entityManager.clear();
+		statistics().clear();
+	}
+
+	@Test
+	void hotelPageWithBranchesIsLoadedInOneStatement() {
+		List<Hotel> hotels = hotelRepo.findAllByHotelIdIn(hotelIds);
+		hotels.forEach(hotel -> assertThat(hotel.getBranches()).hasSize(2));
+
+		assertThat(hotels).hasSize(HOTELS);
+		assertThat(statistics().getPrepareStatementCount()).isLessThanOrEqualTo(1);
+	}
+
+	@Test
+	void searchPageBatchesBranchLoads() {
+		List<Hotel> hotels = hotelRepo.searchAllHotels("Hotel", PageRequest.of(0, HOTELS)).getContent();
+		hotels.forEach(hotel -> assertThat(hotel.getBranches()).hasSize(2));
+
+		assertThat(hotels).hasSize(HOTELS);
+		// page query, optional count query and one batch of branches
+		assertThat(statistics().getPrepareStatementCount()).isLessThanOrEqualTo(3);
+	}
+
+	private Statistics statistics() {
+		return entityManager.getEntityManager().getEntityManagerFactory()
+				.unwrap(SessionFactory.class).getStatistics();
+	}
+}